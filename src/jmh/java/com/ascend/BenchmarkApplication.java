@@ -0,0 +1,37 @@
+package com.ascend;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the application for benchmarks that go through the real services and repositories:
+ * the test profile, but against a fresh in-memory H2 database in PostgreSQL mode whose schema
+ * is built by the Flyway migrations, as in production, rather than from the entities. Further
+ * {@code --name=value} arguments are applied after these.
+ */
+public final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    public static ConfigurableApplicationContext start(String database, String... arguments) {
+        List<String> args = new ArrayList<>(List.of(
+                // H2 would otherwise answer a repeated query from its last result while the tables
+                // are unchanged, which PostgreSQL never does
+                "--spring.datasource.url=jdbc:h2:mem:" + database
+                        + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE",
+                "--spring.flyway.enabled=true",
+                "--spring.jpa.hibernate.ddl-auto=validate",
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                "--logging.level.com.ascend=WARN",
+                "--logging.level.org.springframework.security=WARN"));
+        args.addAll(List.of(arguments));
+        return new SpringApplicationBuilder(AscendApiApplication.class)
+                .profiles("test")
+                .run(args.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,61 @@
+package com.ascend.auth;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokens verified per second on one core: a key and parser built per call (how
+ * {@link JwtService} used to verify), the shared parser, and a repeat of an already verified
+ * token answered from the cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKeyLongEnoughForHmacSha256Signing";
+
+    private JwtService uncached;
+    private JwtService cached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        uncached = new JwtService(SECRET, List.of(), 0, false);
+        cached = new JwtService(SECRET, List.of(), 10_000, false);
+        token = uncached.generateToken(UUID.randomUUID());
+    }
+
+    @Benchmark
+    public String perCallKeyAndParser() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+
+    @Benchmark
+    public AuthenticatedUser sharedParser() {
+        return uncached.authenticate(token);
+    }
+
+    @Benchmark
+    public AuthenticatedUser cacheHit() {
+        return cached.authenticate(token);
+    }
+}
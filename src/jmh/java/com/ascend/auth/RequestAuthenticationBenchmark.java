@@ -0,0 +1,46 @@
+package com.ascend.auth;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request token cost. {@code filterThenController} is what an authenticated request used to
+ * pay: the filter parsed the token, then the controller parsed it again. {@code filterOnly} is
+ * the single verification the filter does now. The user lookup the filter also used to do is
+ * a database round trip and is not part of this measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RequestAuthenticationBenchmark {
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService("benchmarkSecretKeyLongEnoughForHmacSha256Signing", List.of(), 0, false);
+        token = jwtService.generateToken(UUID.randomUUID());
+    }
+
+    @Benchmark
+    public UUID filterThenController() {
+        UUID fromFilter = UUID.fromString(jwtService.extractUserId(token));
+        UUID fromController = jwtService.validateToken(token);
+        return fromFilter.equals(fromController) ? fromController : null;
+    }
+
+    @Benchmark
+    public AuthenticatedUser filterOnly() {
+        return jwtService.authenticate(token);
+    }
+}
@@ -0,0 +1,127 @@
+package com.ascend.config;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Insert throughput and primary-key index size with random versus time-ordered UUID keys.
+ * Not a JMH benchmark: a single multi-million-row load is the quantity being measured.
+ * <p>
+ * Both key types are first loaded once, unmeasured, so that neither measured run absorbs JVM
+ * warm-up. The measured loads then alternate (random, v7, v7, random, ...) so that drift over
+ * the run, such as a growing database file, affects both key types equally.
+ * <p>
+ * Run with {@code ./gradlew uuidInsertBenchmark [-Pbench.rows=3000000] [-Pbench.rounds=2]
+ * [-Pbench.url=jdbc:postgresql://...] [-Pbench.user=...] [-Pbench.password=...]}. Without a URL,
+ * an H2 database file in the build directory is used. On PostgreSQL the primary key index and
+ * the table are sized separately; H2 only reports a table's total storage, index included, and
+ * since both tables hold the same rows apart from their ids, the difference is the index.
+ */
+public final class UuidInsertBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int WARMUP_ROWS = 200_000;
+
+    private UuidInsertBenchmark() {
+    }
+
+    public static void main(String[] args) throws SQLException {
+        int rows = Integer.parseInt(System.getProperty("bench.rows", "3000000"));
+        int rounds = Integer.parseInt(System.getProperty("bench.rounds", "2"));
+        String url = System.getProperty("bench.url", "jdbc:h2:file:./build/uuid-insert-benchmark;MODE=PostgreSQL");
+        String user = System.getProperty("bench.user", "sa");
+        String password = System.getProperty("bench.password", "");
+
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            connection.setAutoCommit(false);
+            load(connection, "bench_sessions_warmup", Math.min(rows, WARMUP_ROWS), UUID::randomUUID);
+            load(connection, "bench_sessions_warmup", Math.min(rows, WARMUP_ROWS), UuidV7::next);
+            drop(connection, "bench_sessions_warmup");
+
+            for (int round = 0; round < rounds; round++) {
+                boolean randomFirst = round % 2 == 0;
+                measure(connection, randomFirst ? "random" : "v7", rows);
+                measure(connection, randomFirst ? "v7" : "random", rows);
+            }
+        }
+    }
+
+    private static void measure(Connection connection, String keys, int rows) throws SQLException {
+        String table = "bench_sessions_" + keys;
+        double seconds = load(connection, table, rows, "random".equals(keys) ? UUID::randomUUID : UuidV7::next);
+        System.out.printf("%-22s %,d rows in %.1f s (%,.0f rows/s), %s%n",
+                table, rows, seconds, rows / seconds, size(connection, table));
+        drop(connection, table);
+    }
+
+    private static double load(Connection connection, String table, int rows, Supplier<UUID> ids) throws SQLException {
+        drop(connection, table);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE " + table + " (id UUID PRIMARY KEY, user_id UUID NOT NULL, "
+                    + "date DATE NOT NULL, grade VARCHAR(16) NOT NULL, sent BOOLEAN NOT NULL)");
+        }
+        connection.commit();
+
+        UUID userId = UUID.randomUUID();
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        long began = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO " + table + " (id, user_id, date, grade, sent) VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                insert.setObject(1, ids.get());
+                insert.setObject(2, userId);
+                insert.setObject(3, start.plusDays(i % 2000));
+                insert.setString(4, "V" + (i % 10));
+                insert.setBoolean(5, i % 3 == 0);
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+        return (System.nanoTime() - began) / 1e9;
+    }
+
+    private static void drop(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + table);
+        }
+        connection.commit();
+    }
+
+    private static String size(Connection connection, String table) throws SQLException {
+        if (connection.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres")) {
+            return "primary key index " + megabytes(query(connection,
+                    "SELECT pg_relation_size('" + table + "_pkey')"))
+                    + ", table " + megabytes(query(connection, "SELECT pg_relation_size('" + table + "')"));
+        }
+        // Sizes count stored pages, so write everything out first
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CHECKPOINT SYNC");
+        }
+        return "table with index " + megabytes(query(connection,
+                "SELECT DISK_SPACE_USED('" + table.toUpperCase() + "')"));
+    }
+
+    private static long query(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(sql)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    private static String megabytes(long bytes) {
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+}
@@ -0,0 +1,197 @@
+package com.ascend.session;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the single-pass {@link AnalyticsAccumulator} with the stream-based implementation
+ * it replaced, computing session analytics, progress, highest grades and averages over the
+ * same in-memory sessions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AnalyticsAccumulatorBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int sessionCount;
+
+    private List<Session> sessions;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessions = generateSessions(sessionCount, 42L);
+    }
+
+    @Benchmark
+    public void accumulator(Blackhole blackhole) {
+        AnalyticsAccumulator accumulator = new AnalyticsAccumulator().addSessions(sessions);
+        blackhole.consume(accumulator.toSessionAnalytics());
+        blackhole.consume(accumulator.toProgressAnalytics());
+        blackhole.consume(accumulator.toHighestGrades());
+        blackhole.consume(accumulator.toAverageGrades());
+    }
+
+    @Benchmark
+    public void streams(Blackhole blackhole) {
+        blackhole.consume(StreamAnalytics.analytics(sessions));
+        blackhole.consume(StreamAnalytics.progress(sessions));
+        blackhole.consume(StreamAnalytics.highestGrades(sessions));
+        blackhole.consume(StreamAnalytics.averageGrades(sessions));
+    }
+
+    static List<Session> generateSessions(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Grade[] grades = Grade.values();
+        SessionDiscipline[] disciplines = SessionDiscipline.values();
+        LocalDate start = LocalDate.of(2020, 1, 1);
+
+        List<Session> generated = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            generated.add(Session.builder()
+                    .discipline(disciplines[random.nextInt(disciplines.length)])
+                    .grade(grades[random.nextInt(grades.length)])
+                    .date(start.plusDays(random.nextInt(5 * 365)))
+                    .sent(random.nextBoolean())
+                    .build());
+        }
+        return generated;
+    }
+
+    /**
+     * The stream pipelines previously used by {@code SessionService}, kept verbatim as the baseline.
+     */
+    static final class StreamAnalytics {
+
+        static SessionAnalytics analytics(List<Session> sessions) {
+            double averageDifficulty = sessions.stream()
+                    .mapToDouble(session -> session.getGrade().getNumericValue())
+                    .average()
+                    .orElse(0.0);
+
+            double sentPercentage = sessions.stream()
+                    .filter(Session::isSent)
+                    .count() * 100.0 / sessions.size();
+
+            Map<SessionDiscipline, List<Session>> sessionsByDiscipline = sessions.stream()
+                    .collect(Collectors.groupingBy(Session::getDiscipline));
+
+            Map<SessionDiscipline, Integer> disciplineCounts = sessionsByDiscipline.entrySet().stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().size()));
+
+            Map<SessionDiscipline, Double> avgDifficultyByDiscipline = sessionsByDiscipline.entrySet().stream()
+                    .collect(Collectors.toMap(
+                            Map.Entry::getKey,
+                            entry -> entry.getValue().stream()
+                                    .mapToDouble(session -> session.getGrade().getNumericValue())
+                                    .average()
+                                    .orElse(0.0)));
+
+            Map<SessionDiscipline, Double> sentPercentageByDiscipline = sessionsByDiscipline.entrySet().stream()
+                    .collect(Collectors.toMap(
+                            Map.Entry::getKey,
+                            entry -> entry.getValue().stream().filter(Session::isSent).count() * 100.0
+                                    / entry.getValue().size()));
+
+            return SessionAnalytics.builder()
+                    .totalSessions(sessions.size())
+                    .averageDifficulty(averageDifficulty)
+                    .sentPercentage(sentPercentage)
+                    .sessionsByDiscipline(disciplineCounts)
+                    .averageDifficultyByDiscipline(avgDifficultyByDiscipline)
+                    .sentPercentageByDiscipline(sentPercentageByDiscipline)
+                    .build();
+        }
+
+        static ProgressAnalytics progress(List<Session> sessions) {
+            double avgDifficulty = sessions.stream()
+                    .mapToDouble(session -> session.getGrade().getNumericValue())
+                    .average()
+                    .orElse(0.0);
+
+            double sentRate = sessions.stream()
+                    .filter(Session::isSent)
+                    .count() * 100.0 / sessions.size();
+
+            Map<String, List<Session>> weeklySessions = sessions.stream()
+                    .collect(Collectors.groupingBy(session -> {
+                        LocalDate date = session.getDate();
+                        return String.format("%d-W%02d", date.getYear(), date.getDayOfYear() / 7 + 1);
+                    }));
+
+            Map<String, List<Session>> monthlySessions = sessions.stream()
+                    .collect(Collectors.groupingBy(session -> {
+                        LocalDate date = session.getDate();
+                        return String.format("%d-%02d", date.getYear(), date.getMonthValue());
+                    }));
+
+            List<ProgressAnalytics.WeeklyProgress> weeklyProgress = weeklySessions.entrySet().stream()
+                    .map(entry -> ProgressAnalytics.WeeklyProgress.builder()
+                            .week(entry.getKey())
+                            .avgDifficulty(entry.getValue().stream()
+                                    .mapToDouble(session -> session.getGrade().getNumericValue())
+                                    .average()
+                                    .orElse(0.0))
+                            .sessionCount(entry.getValue().size())
+                            .sentRate(entry.getValue().stream().filter(Session::isSent).count() * 100.0
+                                    / entry.getValue().size())
+                            .build())
+                    .sorted((a, b) -> a.getWeek().compareTo(b.getWeek()))
+                    .collect(Collectors.toList());
+
+            List<ProgressAnalytics.MonthlyProgress> monthlyProgress = monthlySessions.entrySet().stream()
+                    .map(entry -> ProgressAnalytics.MonthlyProgress.builder()
+                            .month(entry.getKey())
+                            .avgDifficulty(entry.getValue().stream()
+                                    .mapToDouble(session -> session.getGrade().getNumericValue())
+                                    .average()
+                                    .orElse(0.0))
+                            .sessionCount(entry.getValue().size())
+                            .sentRate(entry.getValue().stream().filter(Session::isSent).count() * 100.0
+                                    / entry.getValue().size())
+                            .build())
+                    .sorted((a, b) -> a.getMonth().compareTo(b.getMonth()))
+                    .collect(Collectors.toList());
+
+            return ProgressAnalytics.builder()
+                    .totalSessions(sessions.size())
+                    .sentRate(sentRate)
+                    .avgDifficulty(avgDifficulty)
+                    .progressByWeek(weeklyProgress)
+                    .progressByMonth(monthlyProgress)
+                    .build();
+        }
+
+        static Map<SessionDiscipline, Grade> highestGrades(List<Session> sessions) {
+            return sessions.stream()
+                    .collect(Collectors.groupingBy(Session::getDiscipline,
+                            Collectors.maxBy((s1, s2) ->
+                                    Double.compare(s1.getGrade().getNumericValue(), s2.getGrade().getNumericValue()))))
+                    .entrySet().stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().orElseThrow().getGrade()));
+        }
+
+        static Map<SessionDiscipline, Double> averageGrades(List<Session> sessions) {
+            return sessions.stream()
+                    .filter(Session::isSent)
+                    .collect(Collectors.groupingBy(Session::getDiscipline,
+                            Collectors.averagingDouble(session -> session.getGrade().getNumericValue())));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.ascend.session;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finds the crossover for {@code app.analytics.parallel.threshold}: sequential accumulation
+ * against the fork-join path forced on for every size. The threshold belongs at the smallest
+ * size where {@code parallel} is reliably faster on the production core count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ParallelAnalyticsBenchmark {
+
+    @Param({"5000", "10000", "25000", "50000", "100000", "250000", "1000000"})
+    private int sessionCount;
+
+    private List<Session> sessions;
+    private SessionColumns columns;
+    private ParallelAnalytics parallel;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessions = AnalyticsAccumulatorBenchmark.generateSessions(sessionCount, 42L);
+        columns = SessionColumns.of(sessions.stream().map(SessionSnapshot::of).toList());
+        parallel = new ParallelAnalytics(0, 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        parallel.shutdown();
+    }
+
+    @Benchmark
+    public ProgressAnalytics sessionsSequential() {
+        return new AnalyticsAccumulator().addSessions(sessions).toProgressAnalytics();
+    }
+
+    @Benchmark
+    public ProgressAnalytics sessionsParallel() {
+        return parallel.accumulate(sessions).toProgressAnalytics();
+    }
+
+    @Benchmark
+    public ProgressAnalytics columnsSequential() {
+        return columns.accumulate(new AnalyticsAccumulator(), DateRange.allTime()).toProgressAnalytics();
+    }
+
+    @Benchmark
+    public ProgressAnalytics columnsParallel() {
+        return parallel.accumulate(columns, DateRange.allTime()).toProgressAnalytics();
+    }
+}
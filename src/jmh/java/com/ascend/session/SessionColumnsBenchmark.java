@@ -0,0 +1,142 @@
+package com.ascend.session;
+
+import com.ascend.BenchmarkApplication;
+import com.ascend.user.User;
+import com.ascend.user.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares analytics over {@link SessionColumns} with the paths the column store replaces, on
+ * the same sessions. {@code entities} filters already-loaded {@link Session} entities by date,
+ * isolating the in-memory work. The remaining cases go through the database, as
+ * {@link SessionService} does with the store disabled: {@code repositorySessions} loads the
+ * window's sessions through {@link SessionRepository}, {@code rollups} reads the stored
+ * rollups of a bucket-aligned window, and {@code sqlAggregates} has the database total the
+ * window, against which {@code columnsTotals} is the in-memory equivalent.
+ * <p>
+ * Starts the application (see {@link BenchmarkApplication}), so run it with
+ * {@code ./gradlew jmhApplication -PjmhIncludes=SessionColumnsBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SessionColumnsBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int sessionCount;
+
+    @Param({"all", "quarter"})
+    private String window;
+
+    private List<Session> sessions;
+    private SessionColumns columns;
+    private DateRange range;
+
+    private ConfigurableApplicationContext context;
+    private SessionRepository sessionRepository;
+    private SessionRollupService rollupService;
+    private UUID userId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessions = AnalyticsAccumulatorBenchmark.generateSessions(sessionCount, 42L);
+        columns = SessionColumns.of(sessions.stream().map(SessionSnapshot::of).toList());
+        range = "all".equals(window)
+                ? DateRange.allTime()
+                : DateRange.of(LocalDate.of(2022, 1, 1), LocalDate.of(2022, 4, 1));
+
+        context = BenchmarkApplication.start("session-columns");
+        sessionRepository = context.getBean(SessionRepository.class);
+        rollupService = context.getBean(SessionRollupService.class);
+        userId = context.getBean(UserRepository.class).save(User.builder()
+                .email("bench@example.com")
+                .password("x")
+                .firstName("Bench")
+                .lastName("Mark")
+                .build()).getId();
+
+        // The same sessions, written with their rollups as an import would
+        SessionService sessionService = context.getBean(SessionService.class);
+        List<CreateSessionRequest> requests = sessions.stream()
+                .sorted(Comparator.comparing(Session::getDate))
+                .map(SessionColumnsBenchmark::toRequest)
+                .toList();
+        for (int from = 0; from < requests.size(); from += 1000) {
+            sessionService.createSessions(userId, new ArrayList<>(
+                    requests.subList(from, Math.min(from + 1000, requests.size()))));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ProgressAnalytics entities() {
+        AnalyticsAccumulator accumulator = new AnalyticsAccumulator();
+        for (Session session : sessions) {
+            if (range.contains(session.getDate())) {
+                accumulator.add(session.getDiscipline(), session.getGrade(), session.getDate(), session.isSent());
+            }
+        }
+        return accumulator.toProgressAnalytics();
+    }
+
+    @Benchmark
+    public ProgressAnalytics columns() {
+        return columns.accumulate(new AnalyticsAccumulator(), range).toProgressAnalytics();
+    }
+
+    @Benchmark
+    public ProgressAnalytics repositorySessions() {
+        List<Session> loaded = range.isAllTime()
+                ? sessionRepository.findByUserId(userId)
+                : sessionRepository.findByUserIdInRange(userId, range.getFrom(), range.getTo());
+        return new AnalyticsAccumulator().addSessions(loaded).toProgressAnalytics();
+    }
+
+    @Benchmark
+    public ProgressAnalytics rollups() {
+        return new AnalyticsAccumulator().addRollups(rollupService.getRollups(userId, range)).toProgressAnalytics();
+    }
+
+    @Benchmark
+    public SessionAnalytics sqlAggregates() {
+        List<DisciplineAggregate> aggregates = range.isAllTime()
+                ? sessionRepository.aggregateByDiscipline(userId)
+                : sessionRepository.aggregateByDisciplineInRange(userId, range.getFrom(), range.getTo());
+        return new AnalyticsAccumulator().addAggregates(aggregates).toSessionAnalytics();
+    }
+
+    @Benchmark
+    public SessionAnalytics columnsTotals() {
+        return columns.accumulate(new AnalyticsAccumulator(), range).toSessionAnalytics();
+    }
+
+    private static CreateSessionRequest toRequest(Session session) {
+        CreateSessionRequest request = new CreateSessionRequest();
+        request.setDiscipline(session.getDiscipline());
+        request.setGrade(session.getGrade());
+        request.setDate(session.getDate());
+        request.setSent(session.isSent());
+        return request;
+    }
+}
@@ -0,0 +1,147 @@
+package com.ascend.session;
+
+import com.ascend.BenchmarkApplication;
+import com.ascend.user.User;
+import com.ascend.user.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Imports one upload of {@code rows} sessions through {@link SessionImportService}, as
+ * {@code POST /api/sessions/import} does, into a schema built by the Flyway migrations. Each
+ * measurement imports for a fresh user and the rows are deleted afterwards, so every run
+ * starts from the same table size.
+ * <p>
+ * Sessions span about five and a half years. {@code ordered} lists them by date, as logbook
+ * exports do, so each chunk touches a few weekly rollup buckets; {@code shuffled} is the worst
+ * case, where every chunk touches nearly all of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SessionImportBenchmark {
+
+    @Param({"100000"})
+    private int rows;
+
+    @Param({"csv", "json"})
+    private String format;
+
+    @Param({"ordered", "shuffled"})
+    private String dates;
+
+    private ConfigurableApplicationContext context;
+    private SessionImportService importService;
+    private UserRepository userRepository;
+    private JdbcTemplate jdbcTemplate;
+    private byte[] body;
+    private UUID userId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("session-import");
+        importService = context.getBean(SessionImportService.class);
+        userRepository = context.getBean(UserRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        LocalDate[] sessionDates = sessionDates(rows, "shuffled".equals(dates));
+        body = "csv".equals(format) ? csv(sessionDates) : json(sessionDates);
+    }
+
+    @Setup(Level.Iteration)
+    public void createUser() {
+        userId = userRepository.save(User.builder()
+                .email(UUID.randomUUID() + "@example.com")
+                .password("x")
+                .firstName("Bench")
+                .lastName("Mark")
+                .build()).getId();
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteSessions() {
+        jdbcTemplate.update("DELETE FROM session_rollups WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM sessions WHERE user_id = ?", userId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ImportReport importSessions() throws IOException {
+        ImportReport report = "csv".equals(format)
+                ? importService.importCsv(userId, new ByteArrayInputStream(body))
+                : importService.importJson(userId, new ByteArrayInputStream(body));
+        if (report.getImported() != rows) {
+            throw new IllegalStateException("Imported " + report.getImported() + " of " + rows + " rows");
+        }
+        return report;
+    }
+
+    private static LocalDate[] sessionDates(int rows, boolean shuffled) {
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        LocalDate[] dates = new LocalDate[rows];
+        for (int i = 0; i < rows; i++) {
+            dates[i] = start.plusDays(i * 2000L / rows);
+        }
+        if (shuffled) {
+            SplittableRandom random = new SplittableRandom(7L);
+            for (int i = rows - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                LocalDate swap = dates[i];
+                dates[i] = dates[j];
+                dates[j] = swap;
+            }
+        }
+        return dates;
+    }
+
+    private static byte[] csv(LocalDate[] dates) {
+        StringBuilder csv = new StringBuilder("discipline,grade,date,sent,notes\n");
+        SplittableRandom random = new SplittableRandom(42L);
+        for (LocalDate date : dates) {
+            csv.append("BOULDER,V").append(random.nextInt(11)).append(',')
+                    .append(date).append(',')
+                    .append(random.nextBoolean()).append(',')
+                    .append(random.nextInt(4) == 0 ? "heel hook on the arete" : "").append('\n');
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] json(LocalDate[] dates) {
+        StringBuilder json = new StringBuilder("[");
+        SplittableRandom random = new SplittableRandom(42L);
+        for (LocalDate date : dates) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append("{\"discipline\":\"BOULDER\",\"grade\":\"V").append(random.nextInt(11))
+                    .append("\",\"date\":\"").append(date)
+                    .append("\",\"sent\":").append(random.nextBoolean());
+            if (random.nextInt(4) == 0) {
+                json.append(",\"notes\":\"heel hook on the arete\"");
+            }
+            json.append('}');
+        }
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,207 @@
+package com.ascend.session;
+
+import com.ascend.BenchmarkApplication;
+import com.ascend.user.User;
+import com.ascend.user.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reading and serializing a user's session list through {@link SessionService} and
+ * {@link SessionRepository}, against the schema the Flyway migrations build, and serialized
+ * with the application's {@link ObjectMapper}. About half the sessions carry notes of up to
+ * 400 characters.
+ * <p>
+ * {@code plainNotes} is how the list was read before notes became optional: a projection that
+ * always selects the notes column. {@code withNotes} is the default, {@code includeNotes=true},
+ * and {@code withoutNotes} is {@code includeNotes=false}; both run the same list query, which
+ * only returns notes when asked. For each, setup prints the statements issued, the rows H2
+ * reads for them (the {@code scanCount} of {@code EXPLAIN ANALYZE}) and the response size.
+ * <p>
+ * Starts the application (see {@link BenchmarkApplication}), so run it with
+ * {@code ./gradlew jmhApplication -PjmhIncludes=SessionListBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SessionListBenchmark {
+
+    private static final String PLAIN_NOTES =
+            "SELECT new com.ascend.session.SessionSummary(s.id, s.discipline, s.grade, s.date, s.notes, s.sent) " +
+            "FROM Session s WHERE s.user.id = :userId";
+    private static final Pattern SCAN_COUNT = Pattern.compile("scanCount: (\\d+)");
+
+    @Param({"200", "2000"})
+    private int sessionCount;
+
+    private ConfigurableApplicationContext context;
+    private SessionService sessionService;
+    private EntityManager entityManager;
+    private ObjectMapper objectMapper;
+    private UUID userId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkApplication.start("session-list",
+                "--spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                        + RecordingStatementInspector.class.getName());
+        sessionService = context.getBean(SessionService.class);
+        entityManager = context.getBean(EntityManager.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        userId = context.getBean(UserRepository.class).save(User.builder()
+                .email("bench@example.com")
+                .password("x")
+                .firstName("Bench")
+                .lastName("Mark")
+                .build()).getId();
+
+        SplittableRandom random = new SplittableRandom(42L);
+        LocalDate start = LocalDate.of(2022, 1, 1);
+        List<CreateSessionRequest> requests = new ArrayList<>(sessionCount);
+        for (int i = 0; i < sessionCount; i++) {
+            CreateSessionRequest request = new CreateSessionRequest();
+            request.setDiscipline(SessionDiscipline.BOULDER);
+            request.setGrade(Grade.V4);
+            request.setDate(start.plusDays(random.nextInt(1000)));
+            request.setNotes(random.nextBoolean() ? notes(random) : null);
+            request.setSent(random.nextBoolean());
+            requests.add(request);
+        }
+        requests.sort(Comparator.comparing(CreateSessionRequest::getDate));
+        sessionService.createSessions(userId, requests);
+
+        DataSource dataSource = context.getBean(DataSource.class);
+        System.out.printf("%n%d sessions:%n", sessionCount);
+        describe(dataSource, "plainNotes", this::plainNotes, true);
+        describe(dataSource, "withNotes", this::withNotes, true);
+        describe(dataSource, "withoutNotes", this::withoutNotes, false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] plainNotes() throws Exception {
+        return objectMapper.writeValueAsBytes(entityManager.createQuery(PLAIN_NOTES, SessionSummary.class)
+                .setParameter("userId", userId)
+                .getResultList());
+    }
+
+    @Benchmark
+    public byte[] withNotes() throws Exception {
+        return objectMapper.writeValueAsBytes(sessionService.getAllSessions(userId, true));
+    }
+
+    @Benchmark
+    public byte[] withoutNotes() throws Exception {
+        return objectMapper.writeValueAsBytes(sessionService.getAllSessions(userId, false));
+    }
+
+    private void describe(DataSource dataSource, String name, ListCall call, boolean includeNotes) throws Exception {
+        RecordingStatementInspector.clear();
+        int bytes = call.get().length;
+        List<String> statements = RecordingStatementInspector.drain();
+
+        // The list queries bind the includeNotes flag, which is in the select list, then the user
+        long rowsRead = 0;
+        try (Connection connection = dataSource.getConnection()) {
+            for (String sql : statements) {
+                try (PreparedStatement explain = connection.prepareStatement("EXPLAIN ANALYZE " + sql)) {
+                    int parameters = explain.getParameterMetaData().getParameterCount();
+                    if (parameters == 2) {
+                        explain.setBoolean(1, includeNotes);
+                    }
+                    explain.setObject(parameters, userId);
+                    rowsRead += scanCount(explain);
+                }
+            }
+        }
+        System.out.printf("  %-12s %d statements, %,d rows read, %,d bytes%n",
+                name, statements.size(), rowsRead, bytes);
+    }
+
+    private static long scanCount(PreparedStatement explain) throws SQLException {
+        long rows = 0;
+        try (ResultSet plan = explain.executeQuery()) {
+            while (plan.next()) {
+                Matcher matcher = SCAN_COUNT.matcher(plan.getString(1));
+                while (matcher.find()) {
+                    rows += Long.parseLong(matcher.group(1));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static String notes(SplittableRandom random) {
+        int length = random.nextInt(20, 400);
+        StringBuilder notes = new StringBuilder(length);
+        while (notes.length() < length) {
+            notes.append("crimpy start, heel hook on the arete ");
+        }
+        return notes.substring(0, length);
+    }
+
+    private interface ListCall {
+        byte[] get() throws Exception;
+    }
+
+    /**
+     * Captures the SQL Hibernate sends so each variant's statements can be explained.
+     */
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        private static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            synchronized (STATEMENTS) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+
+        static void clear() {
+            synchronized (STATEMENTS) {
+                STATEMENTS.clear();
+            }
+        }
+
+        static List<String> drain() {
+            synchronized (STATEMENTS) {
+                List<String> drained = new ArrayList<>(STATEMENTS);
+                STATEMENTS.clear();
+                return drained;
+            }
+        }
+    }
+}
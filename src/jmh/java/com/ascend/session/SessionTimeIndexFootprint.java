@@ -0,0 +1,50 @@
+package com.ascend.session;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Retained heap of {@link SessionTimeIndex} per user, measured against its own
+ * {@code estimatedBytes()}, which is what the store budgets with. Not a JMH benchmark: builds
+ * the indexes of many users with the same history size and divides the heap growth between
+ * them.
+ * <p>
+ * Run with {@code ./gradlew timeIndexFootprint [-Pbench.users=1000]}.
+ */
+public final class SessionTimeIndexFootprint {
+
+    private static final int[] SESSION_COUNTS = {100, 1000, 10000};
+
+    private SessionTimeIndexFootprint() {
+    }
+
+    public static void main(String[] args) {
+        int users = Integer.parseInt(System.getProperty("bench.users", "1000"));
+        for (int sessionCount : SESSION_COUNTS) {
+            List<SessionColumns> histories = new ArrayList<>(users);
+            for (int user = 0; user < users; user++) {
+                histories.add(SessionColumns.of(AnalyticsAccumulatorBenchmark.generateSessions(sessionCount, user)
+                        .stream().map(SessionSnapshot::of).toList()));
+            }
+
+            long before = usedHeap();
+            List<SessionTimeIndex> indexes = new ArrayList<>(users);
+            for (SessionColumns history : histories) {
+                indexes.add(SessionTimeIndex.of(history));
+            }
+            long retained = (usedHeap() - before) / users;
+            long estimated = indexes.stream().mapToLong(SessionTimeIndex::estimatedBytes).sum() / users;
+
+            System.out.printf("%,6d sessions: %,8d bytes per user retained, %,8d estimated%n",
+                    sessionCount, retained, estimated);
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
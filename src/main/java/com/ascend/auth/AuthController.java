@@ -1,6 +1,7 @@
 package com.ascend.auth;
 
 import com.ascend.user.User;
+import com.ascend.user.UserProfileCache;
 import com.ascend.user.UserRepository;
 import com.ascend.user.UserService;
 import com.ascend.user.CreateUserRequest;
@@ -11,7 +12,6 @@ import org.springframework.security.crypto.bcrypt.BCrypt;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
-import java.util.UUID;
 import java.util.Map;
 
 @RestController
@@ -25,6 +25,7 @@ public class AuthController {
     private final JwtService jwtService;
     private final PasswordResetService passwordResetService;
     private final DomainValidator domainValidator;
+    private final UserProfileCache userProfiles;
 
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody LoginRequest request) {
@@ -41,8 +42,8 @@ public class AuthController {
             return ResponseEntity.status(401).body(Map.of("message", "Invalid credentials"));
         }
 
-        String token = jwtService.generateToken(user.getId());
-        UserResponse userResponse = new UserResponse(user.getId(), user.getEmail(), user.getCreatedAt(), user.getFirstName(), user.getLastName());
+        String token = jwtService.generateToken(user);
+        UserResponse userResponse = UserResponse.of(user);
         return ResponseEntity.ok(new JwtResponse(token, userResponse));
     }
 
@@ -54,12 +55,10 @@ public class AuthController {
         
         try {
             String token = authHeader.replace("Bearer ", "");
-            UUID userId = jwtService.validateToken(token);
+            AuthenticatedUser caller = jwtService.authenticate(token);
             
-            User user = userRepository.findById(userId)
+            UserResponse userResponse = userProfiles.get(caller)
                     .orElseThrow(() -> new RuntimeException("User not found"));
-            
-            UserResponse userResponse = new UserResponse(user.getId(), user.getEmail(), user.getCreatedAt(), user.getFirstName(), user.getLastName());
             return ResponseEntity.ok(userResponse);
         } catch (Exception e) {
             return ResponseEntity.status(401).body(Map.of("message", "Invalid token"));
@@ -102,8 +101,8 @@ public class AuthController {
             );
             
             // Generate token for immediate login
-            String token = jwtService.generateToken(user.getId());
-            UserResponse userResponse = new UserResponse(user.getId(), user.getEmail(), user.getCreatedAt(), user.getFirstName(), user.getLastName());
+            String token = jwtService.generateToken(user);
+            UserResponse userResponse = UserResponse.of(user);
             return ResponseEntity.ok(new JwtResponse(token, userResponse));
         } catch (Exception e) {
             log.error("Registration failed for email: {}", request.getEmail(), e);
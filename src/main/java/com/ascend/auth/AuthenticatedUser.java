@@ -0,0 +1,16 @@
+package com.ascend.auth;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The caller of a request, as read from its verified token by
+ * {@link com.ascend.config.JwtAuthFilter}. It is the security principal for the request and is
+ * injected into any controller parameter of this type, so the token is verified once per
+ * request and no user row is loaded just to learn who is calling.
+ *
+ * @param profile the caller's profile when the token carries it ({@code jwt.profile-claims}),
+ *                otherwise null
+ */
+public record AuthenticatedUser(UUID userId, Instant issuedAt, Instant expiresAt, UserResponse profile) {
+}
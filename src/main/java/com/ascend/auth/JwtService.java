@@ -1,59 +1,221 @@
 package com.ascend.auth;
 
+import com.ascend.user.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+/**
+ * Issues and verifies the API's bearer tokens.
+ * <p>
+ * Keys are derived once at startup and tokens are verified by one shared, thread-safe parser.
+ * Tokens are signed with {@code jwt.secret} and name their key in the {@code kid} header, a
+ * fingerprint of the secret. Secrets listed in {@code jwt.previous-secrets} still verify the
+ * tokens they signed, so the signing secret can be rotated without logging everyone out: move
+ * the old secret to the previous list, and drop it once its tokens have expired. Tokens without
+ * a {@code kid}, issued before keys were named, are checked against the signing key.
+ * <p>
+ * Recently verified tokens are remembered, by SHA-256 hash, up to {@code jwt.cache.max-entries};
+ * a repeated token is answered from memory until it expires.
+ * <p>
+ * With {@code jwt.profile-claims} on, tokens issued for a {@link User} also carry the profile
+ * that {@code /api/users/me} returns, so it can be answered without any lookup. A profile read
+ * from a token is as old as the token.
+ */
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
-
     private static final long EXPIRATION_TIME = 86400000; // 1 day in ms
 
+    private static final String EMAIL_CLAIM = "email";
+    private static final String FIRST_NAME_CLAIM = "given_name";
+    private static final String LAST_NAME_CLAIM = "family_name";
+    private static final String CREATED_AT_CLAIM = "created_at";
+
+    private final SecretKey signingKey;
+    private final String signingKeyId;
+    private final Map<String, SecretKey> verificationKeys;
+    private final JwtParser parser;
+    private final boolean profileClaims;
+
+    private final int cacheMaxEntries;
+    // Access-ordered for LRU eviction; guarded by itself
+    private final LinkedHashMap<ByteBuffer, AuthenticatedUser> verified;
+
+    public JwtService(@Value("${jwt.secret}") String jwtSecret,
+                      @Value("${jwt.previous-secrets:}") List<String> previousSecrets,
+                      @Value("${jwt.cache.max-entries:10000}") int cacheMaxEntries,
+                      @Value("${jwt.profile-claims:false}") boolean profileClaims) {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.signingKeyId = keyId(jwtSecret);
+
+        Map<String, SecretKey> keys = new LinkedHashMap<>();
+        keys.put(signingKeyId, signingKey);
+        for (String secret : previousSecrets) {
+            if (!secret.isBlank()) {
+                keys.putIfAbsent(keyId(secret), Keys.hmacShaKeyFor(secret.getBytes()));
+            }
+        }
+        this.verificationKeys = Map.copyOf(keys);
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return verificationKey(header.getKeyId());
+                    }
+                })
+                .build();
+
+        this.profileClaims = profileClaims;
+        this.cacheMaxEntries = cacheMaxEntries;
+        this.verified = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
     public String generateToken(UUID userId) {
+        return builder(userId).compact();
+    }
+
+    public String generateToken(User user) {
+        JwtBuilder builder = builder(user.getId());
+        if (profileClaims) {
+            builder.claim(EMAIL_CLAIM, user.getEmail())
+                    .claim(FIRST_NAME_CLAIM, user.getFirstName())
+                    .claim(LAST_NAME_CLAIM, user.getLastName())
+                    .claim(CREATED_AT_CLAIM, user.getCreatedAt() != null ? user.getCreatedAt().toString() : null);
+        }
+        return builder.compact();
+    }
+
+    private JwtBuilder builder(UUID userId) {
         Date now = new Date();
         Date expiry = new Date(now.getTime() + EXPIRATION_TIME);
 
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKeyId)
                 .setSubject(userId.toString())
                 .setIssuedAt(now)
                 .setExpiration(expiry)
-                .signWith(getSigningKey())
-                .compact();
+                .signWith(signingKey);
     }
 
     public String extractUserId(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
+        return parser.parseClaimsJws(token)
                 .getBody()
                 .getSubject(); // returns the user ID as string
     }
     
 
     public UUID validateToken(String token) {
+        return authenticate(token).userId();
+    }
+
+    /**
+     * Verifies the token and reads the caller from its claims.
+     *
+     * @throws RuntimeException "Invalid token" if the token is malformed, forged or expired
+     */
+    public AuthenticatedUser authenticate(String token) {
+        if (cacheMaxEntries <= 0) {
+            return verify(token);
+        }
+
+        ByteBuffer hash = hash(token);
+        AuthenticatedUser caller;
+        synchronized (verified) {
+            caller = verified.get(hash);
+        }
+        if (caller != null) {
+            if (caller.expiresAt() == null || Instant.now().isBefore(caller.expiresAt())) {
+                return caller;
+            }
+            synchronized (verified) {
+                verified.remove(hash);
+            }
+            throw new RuntimeException("Invalid token");
+        }
+
+        caller = verify(token);
+        synchronized (verified) {
+            verified.put(hash, caller);
+            if (verified.size() > cacheMaxEntries) {
+                var eldest = verified.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        return caller;
+    }
+
+    private AuthenticatedUser verify(String token) {
         try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-
-            return UUID.fromString(claims.getSubject());
-        } catch (JwtException e) {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            UUID userId = UUID.fromString(claims.getSubject());
+
+            return new AuthenticatedUser(
+                    userId,
+                    claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                    claims.getExpiration() != null ? claims.getExpiration().toInstant() : null,
+                    profile(userId, claims));
+        } catch (JwtException | IllegalArgumentException | DateTimeParseException e) {
             throw new RuntimeException("Invalid token");
         }
     }
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    // Read whenever present, so tokens issued while profile claims were on stay complete
+    private static UserResponse profile(UUID userId, Claims claims) {
+        String email = claims.get(EMAIL_CLAIM, String.class);
+        if (email == null) {
+            return null;
+        }
+        String createdAt = claims.get(CREATED_AT_CLAIM, String.class);
+        return new UserResponse(userId, email, createdAt != null ? LocalDateTime.parse(createdAt) : null,
+                claims.get(FIRST_NAME_CLAIM, String.class), claims.get(LAST_NAME_CLAIM, String.class));
+    }
+
+    private Key verificationKey(String keyId) {
+        if (keyId == null) {
+            return signingKey;
+        }
+        SecretKey key = verificationKeys.get(keyId);
+        if (key == null) {
+            throw new UnsupportedJwtException("Unknown signing key " + keyId);
+        }
+        return key;
+    }
+
+    // Names a key without revealing it: the first 8 bytes of the secret's SHA-256
+    private static String keyId(String secret) {
+        byte[] digest = sha256(secret.getBytes());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 8));
+    }
+
+    private static ByteBuffer hash(String token) {
+        return ByteBuffer.wrap(sha256(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static byte[] sha256(byte[] input) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(input);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 }
@@ -1,6 +1,7 @@
 package com.ascend.auth;
 
 import com.ascend.user.User;
+import com.ascend.user.UserProfileCache;
 import com.ascend.user.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,6 +22,7 @@ public class PasswordResetService {
     private final PasswordResetTokenRepository tokenRepository;
     private final UserRepository userRepository;
     private final EmailService emailService;
+    private final UserProfileCache userProfiles;
 
     private static final int CODE_EXPIRY_MINUTES = 15; // Shorter expiry for codes
     private static final int MAX_ATTEMPTS = 3; // Maximum attempts for code verification
@@ -107,6 +109,7 @@ public class PasswordResetService {
         String hashedPassword = BCrypt.hashpw(newPassword, BCrypt.gensalt());
         user.setPassword(hashedPassword);
         userRepository.save(user);
+        userProfiles.invalidate(user.getId());
 
         // Mark token as used
         resetToken.setUsed(true);
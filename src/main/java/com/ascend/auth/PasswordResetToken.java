@@ -1,5 +1,6 @@
 package com.ascend.auth;
 
+import com.ascend.config.TimeOrderedUuid;
 import com.ascend.user.User;
 import jakarta.persistence.*;
 import lombok.*;
@@ -15,7 +16,7 @@ import java.util.UUID;
 public class PasswordResetToken {
 
     @Id
-    @GeneratedValue
+    @TimeOrderedUuid
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -1,5 +1,6 @@
 package com.ascend.auth;
 
+import com.ascend.user.User;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -16,4 +17,8 @@ public class UserResponse {
     private LocalDateTime createdAt;
     private String firstName;
     private String lastName;
+
+    public static UserResponse of(User user) {
+        return new UserResponse(user.getId(), user.getEmail(), user.getCreatedAt(), user.getFirstName(), user.getLastName());
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.ascend.config;
+
+import com.ascend.auth.AuthenticatedUser;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.MissingRequestHeaderException;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.util.Optional;
+
+/**
+ * Supplies {@link AuthenticatedUser} controller parameters from the principal that
+ * {@link JwtAuthFilter} stored. A request without one is answered as before the filter did the
+ * parsing: 401 for a missing header, 401 "Invalid token" for a token that failed verification.
+ */
+@Component
+public class AuthenticatedUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return AuthenticatedUser.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public AuthenticatedUser resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                             NativeWebRequest webRequest, WebDataBinderFactory binderFactory)
+            throws MissingRequestHeaderException {
+        Optional<AuthenticatedUser> caller = current();
+        if (caller.isPresent()) {
+            return caller.get();
+        }
+        if (webRequest.getHeader("Authorization") == null) {
+            throw new MissingRequestHeaderException("Authorization", parameter);
+        }
+        throw new RuntimeException("Invalid token");
+    }
+
+    /**
+     * The caller of the current request, if it carried a valid token.
+     */
+    public static Optional<AuthenticatedUser> current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser caller
+                ? Optional.of(caller)
+                : Optional.empty();
+    }
+}
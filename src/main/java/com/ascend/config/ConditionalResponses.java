@@ -0,0 +1,58 @@
+package com.ascend.config;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET support for endpoints tagged from {@link com.ascend.user.UserDataVersions}.
+ * The tag is checked before the response is built, so a matching {@code If-None-Match}
+ * short-circuits to 304 without any database work.
+ */
+public final class ConditionalResponses {
+
+    // Clients may keep the body but must revalidate it before every use
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ConditionalResponses() {
+    }
+
+    public static <T> ResponseEntity<T> withETag(WebRequest request, String etag, Supplier<ResponseEntity<T>> response) {
+        if (matches(request.getHeaderValues(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+        }
+
+        ResponseEntity<T> built = response.get();
+        if (!built.getStatusCode().is2xxSuccessful()) {
+            return built;
+        }
+        return ResponseEntity.status(built.getStatusCode())
+                .headers(built.getHeaders())
+                .eTag(etag)
+                .cacheControl(REVALIDATE)
+                .body(built.getBody());
+    }
+
+    // If-None-Match uses weak comparison, so a W/ prefix on the client's tag is ignored
+    private static boolean matches(String[] ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String header : ifNoneMatch) {
+            for (String candidate : header.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -40,10 +40,11 @@ public class CorsConfig {
             "Content-Type", 
             "Accept", 
             "Origin", 
-            "X-Requested-With"
+            "X-Requested-With",
+            "If-None-Match"
         ));
         configuration.setAllowCredentials(true);
-        configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Type"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Next-Cursor", "ETag"));
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -1,7 +1,7 @@
 package com.ascend.config;
 
+import com.ascend.auth.AuthenticatedUser;
 import com.ascend.auth.JwtService;
-import com.ascend.user.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,14 +14,18 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.UUID;
 
+/**
+ * Verifies the bearer token, once per request, and stores the caller as an
+ * {@link AuthenticatedUser} principal. Controllers receive it through
+ * {@link AuthenticatedUserArgumentResolver} rather than parsing the header again. The user row
+ * is not loaded; handlers that need the entity load it themselves.
+ */
 @Component
 @RequiredArgsConstructor
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserRepository userRepository;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -36,24 +40,19 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             return;
         }
 
-        String token = authHeader.substring(7);
-        UUID userId;
+        AuthenticatedUser caller;
         try {
-            String userIdStr = jwtService.extractUserId(token);
-            userId = UUID.fromString(userIdStr);
-        } catch (Exception e) {
+            caller = jwtService.authenticate(authHeader.substring(7));
+        } catch (RuntimeException e) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        var user = userRepository.findById(userId).orElse(null);
-        if (user != null) {
-            var auth = new UsernamePasswordAuthenticationToken(
-                    user, null, null
-            );
-            auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-            SecurityContextHolder.getContext().setAuthentication(auth);
-        }
+        var auth = new UsernamePasswordAuthenticationToken(
+                caller, null, null
+        );
+        auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(auth);
 
         filterChain.doFilter(request, response);
     }
@@ -0,0 +1,48 @@
+package com.ascend.config;
+
+import com.ascend.auth.AuthenticatedUser;
+import com.ascend.session.SessionWriteBehind;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.util.Optional;
+
+/**
+ * Read-your-writes for write-behind session creation: a session request from a user whose
+ * new sessions are still queued waits for them to be written first. Runs before the handler,
+ * so ETags are computed after the wait as well. Further session creation is let through
+ * unblocked, or bursts would lose their batching.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PendingWritesInterceptor implements HandlerInterceptor {
+
+    private final SessionWriteBehind sessionWriteBehind;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!sessionWriteBehind.isEnabled() || isCreate(request)) {
+            return true;
+        }
+        Optional<AuthenticatedUser> caller = AuthenticatedUserArgumentResolver.current();
+        if (caller.isPresent()
+                && sessionWriteBehind.hasPending(caller.get().userId())
+                && !sessionWriteBehind.awaitFlushed(caller.get().userId())) {
+            log.warn("Serving user {} before their queued sessions were written", caller.get().userId());
+        }
+        return true;
+    }
+
+    // Compared on the decoded path, as handler mapping does, so that no spelling of the URL
+    // reaches the create handler without being recognised here
+    static boolean isCreate(HttpServletRequest request) {
+        return "POST".equals(request.getMethod())
+                && "/api/sessions".equals(UrlPathHelper.defaultInstance.getLookupPathForRequest(request));
+    }
+}
@@ -1,22 +1,39 @@
 package com.ascend.config;
 
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Refill;
+import com.ascend.config.RateLimitPolicy.KeyType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.time.Duration;
+import java.util.List;
 
 @Configuration
 public class RateLimitConfig {
 
+    /**
+     * Refuses to start with limits enabled but no {@code app.rate-limit.trusted-proxies}: behind
+     * a reverse proxy every request would come from the proxy's address and all clients would
+     * share its buckets. Deployments without a proxy say so with {@code none}.
+     */
     @Bean
-    public Bucket forgotPasswordBucket() {
-        // Allow 3 requests per hour per IP
-        Bandwidth limit = Bandwidth.classic(3, Refill.greedy(3, Duration.ofHours(1)));
-        return Bucket.builder()
-                .addLimit(limit)
-                .build();
+    public RateLimiter rateLimiter(@Value("${app.rate-limit.enabled:true}") boolean enabled,
+                                   @Value("${app.rate-limit.max-keys-per-policy:100000}") int maxKeysPerPolicy,
+                                   @Value("${app.rate-limit.trusted-proxies:}") String trustedProxies) {
+        if (enabled && trustedProxies.isBlank()) {
+            throw new IllegalStateException("app.rate-limit.trusted-proxies (RATE_LIMIT_TRUSTED_PROXIES) must list "
+                    + "the reverse proxy's addresses, or be 'none' when clients connect directly");
+        }
+        List<RateLimitPolicy> policies = List.of(
+                // Credential guessing and account spam
+                new RateLimitPolicy("login", "POST", "/api/auth/login", KeyType.CLIENT_IP, 10, Duration.ofMinutes(1)),
+                new RateLimitPolicy("register", "POST", "/api/auth/register", KeyType.CLIENT_IP, 5, Duration.ofHours(1)),
+                // Reset emails cost money; reset codes are six digits, so guessing must stay slow
+                new RateLimitPolicy("forgot-password", "POST", "/api/auth/forgot-password", KeyType.CLIENT_IP, 3, Duration.ofHours(1)),
+                new RateLimitPolicy("verify-reset-code", "POST", "/api/auth/verify-reset-code", KeyType.CLIENT_IP, 10, Duration.ofMinutes(15)),
+                new RateLimitPolicy("reset-password", "POST", "/api/auth/reset-password", KeyType.CLIENT_IP, 10, Duration.ofMinutes(15)),
+                // Everything else under /api
+                new RateLimitPolicy("api", null, "/api/**", KeyType.USER, 600, Duration.ofMinutes(1)));
+        return new RateLimiter(enabled ? policies : List.of(), maxKeysPerPolicy);
     }
-} 
\ No newline at end of file
+}
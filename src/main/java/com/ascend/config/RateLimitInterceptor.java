@@ -1,56 +1,120 @@
 package com.ascend.config;
 
-import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.UrlPathHelper;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Enforces the {@link RateLimiter}'s policies. A rejected request gets 429 with a
+ * {@code Retry-After} header and never reaches its handler.
+ * <p>
+ * Clients are identified by their connection's address. Forwarding headers are only believed
+ * when that connection comes from one of {@code app.rate-limit.trusted-proxies} (addresses or
+ * CIDR ranges, or {@code none}), so a client cannot choose its own key by sending them.
+ * <p>
+ * Policies match the decoded, normalized lookup path, as the handler mappings do, so an
+ * encoded or doubled slash cannot reach a handler past its limit.
+ */
 @Component
-@RequiredArgsConstructor
 public class RateLimitInterceptor implements HandlerInterceptor {
 
-    private final Bucket forgotPasswordBucket;
-    private final ConcurrentMap<String, Bucket> ipBuckets = new ConcurrentHashMap<>();
+    private final RateLimiter rateLimiter;
+    private final List<IpAddressMatcher> trustedProxies;
+
+    public RateLimitInterceptor(RateLimiter rateLimiter,
+                                @Value("${app.rate-limit.trusted-proxies:}") List<String> trustedProxies) {
+        this.rateLimiter = rateLimiter;
+        this.trustedProxies = trustedProxies.stream()
+                .map(String::trim)
+                .filter(proxy -> !proxy.isEmpty() && !"none".equalsIgnoreCase(proxy))
+                .map(IpAddressMatcher::new)
+                .toList();
+    }
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
-        // Only apply rate limiting to forgot password endpoint
-        if (request.getRequestURI().equals("/api/auth/forgot-password") && 
-            request.getMethod().equals("POST")) {
-            
-            String clientIp = getClientIpAddress(request);
-            Bucket bucket = ipBuckets.computeIfAbsent(clientIp, k -> forgotPasswordBucket);
-            
-            if (bucket.tryConsume(1)) {
-                return true;
-            } else {
-                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-                response.getWriter().write("{\"message\": \"Too many requests. Please try again later.\"}");
-                response.setContentType("application/json");
-                return false;
-            }
+        RateLimiter.Route route = rateLimiter.match(request.getMethod(),
+                UrlPathHelper.defaultInstance.getLookupPathForRequest(request));
+        if (route == null) {
+            return true;
+        }
+
+        ConsumptionProbe probe = route.tryConsume(keyFor(route.policy, request));
+        if (probe.isConsumed()) {
+            return true;
+        }
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill() + 999_999_999));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"message\": \"Too many requests. Please try again later.\"}");
+        return false;
+    }
+
+    private String keyFor(RateLimitPolicy policy, HttpServletRequest request) {
+        if (policy.key() == RateLimitPolicy.KeyType.USER) {
+            return AuthenticatedUserArgumentResolver.current()
+                    .map(caller -> caller.userId().toString())
+                    .orElseGet(() -> getClientIpAddress(request));
         }
-        
-        return true;
+        return getClientIpAddress(request);
     }
 
-    private String getClientIpAddress(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty() && !"unknown".equalsIgnoreCase(xForwardedFor)) {
-            return xForwardedFor.split(",")[0];
+    /**
+     * The client's address. Behind trusted proxies, X-Forwarded-For is read from the right,
+     * skipping trusted hops: the first untrusted one was added by a trusted proxy, whereas
+     * anything further left may have been sent by the client itself.
+     */
+    String getClientIpAddress(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        if (!isTrustedProxy(remoteAddr)) {
+            return remoteAddr;
         }
-        
-        String xRealIp = request.getHeader("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty() && !"unknown".equalsIgnoreCase(xRealIp)) {
-            return xRealIp;
+
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor != null) {
+            String[] hops = forwardedFor.split(",");
+            for (int i = hops.length - 1; i >= 0; i--) {
+                String hop = hops[i].trim();
+                if (hop.isEmpty() || "unknown".equalsIgnoreCase(hop)) {
+                    // Nothing further left can be attributed reliably
+                    return remoteAddr;
+                }
+                if (!isTrustedProxy(hop)) {
+                    return hop;
+                }
+            }
+        }
+
+        String realIp = request.getHeader("X-Real-IP");
+        if (realIp != null && !realIp.isBlank() && !"unknown".equalsIgnoreCase(realIp.trim())) {
+            return realIp.trim();
+        }
+        return remoteAddr;
+    }
+
+    private boolean isTrustedProxy(String address) {
+        for (IpAddressMatcher proxy : trustedProxies) {
+            try {
+                if (proxy.matches(address)) {
+                    return true;
+                }
+            } catch (IllegalArgumentException e) {
+                // Not an IP address, so not a proxy we know
+                return false;
+            }
         }
-        
-        return request.getRemoteAddr();
+        return false;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+package com.ascend.config;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+
+import java.time.Duration;
+
+/**
+ * A declared rate limit: each key may make {@code capacity} matching requests per
+ * {@code period}, refilled gradually. Policies are listed in {@link RateLimitConfig}.
+ *
+ * @param name     label used in logs and counters
+ * @param method   HTTP method to match, or null for any
+ * @param path     exact request path, or a prefix ending in {@code /**}
+ * @param key      what requests are counted per
+ */
+public record RateLimitPolicy(String name, String method, String path, KeyType key,
+                              long capacity, Duration period) {
+
+    public enum KeyType {
+        CLIENT_IP,
+        // The authenticated caller; anonymous requests fall back to their client IP
+        USER
+    }
+
+    boolean isPrefix() {
+        return path.endsWith("/**");
+    }
+
+    boolean accepts(String requestMethod) {
+        return method == null || method.equals(requestMethod);
+    }
+
+    Bucket newBucket() {
+        return Bucket.builder()
+                .addLimit(Bandwidth.builder().capacity(capacity).refillGreedy(capacity, period).build())
+                .build();
+    }
+}
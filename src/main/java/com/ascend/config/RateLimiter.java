@@ -0,0 +1,206 @@
+package com.ascend.config;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Applies {@link RateLimitPolicy rate limit policies}. Routes are compiled once: exact paths
+ * into a hash map, prefixes into a short list, so a request no policy covers costs one map miss
+ * and a few prefix checks. A request is governed by the first policy that matches it, exact
+ * paths before prefixes.
+ * <p>
+ * Each policy creates a bucket per key on first use, in a concurrent map so that requests with
+ * different keys never wait for each other. A key idle for a whole period has a full bucket
+ * again, so such keys are dropped periodically without changing any outcome. Past
+ * {@code max-keys-per-policy} keys, the least recently used tenth are dropped in one pass, by a
+ * single thread while the others carry on; only this cap can forget a key that is still partly
+ * drained.
+ */
+@Slf4j
+public class RateLimiter {
+
+    private final Map<String, List<Route>> exactRoutes = new HashMap<>();
+    private final List<Route> prefixRoutes = new ArrayList<>();
+    private final List<Route> routes = new ArrayList<>();
+
+    public RateLimiter(List<RateLimitPolicy> policies, int maxKeysPerPolicy) {
+        for (RateLimitPolicy policy : policies) {
+            Route route = new Route(policy, maxKeysPerPolicy);
+            routes.add(route);
+            if (policy.isPrefix()) {
+                prefixRoutes.add(route);
+            } else {
+                exactRoutes.computeIfAbsent(policy.path(), path -> new ArrayList<>()).add(route);
+            }
+        }
+    }
+
+    /**
+     * @return the route governing the request, or null if no policy covers it
+     */
+    Route match(String method, String path) {
+        List<Route> exact = exactRoutes.get(path);
+        if (exact != null) {
+            for (Route route : exact) {
+                if (route.policy.accepts(method)) {
+                    return route;
+                }
+            }
+        }
+        for (Route route : prefixRoutes) {
+            if (path.startsWith(route.prefix) && route.policy.accepts(method)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.evict-interval-ms:60000}")
+    public void evictIdle() {
+        evictIdle(System.nanoTime());
+    }
+
+    void evictIdle(long now) {
+        for (Route route : routes) {
+            route.evictIdle(now);
+        }
+    }
+
+    public List<Stats> stats() {
+        return routes.stream().map(Route::stats).toList();
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.stats-log-interval-ms:900000}",
+            initialDelayString = "${app.rate-limit.stats-log-interval-ms:900000}")
+    public void logStats() {
+        if (!routes.isEmpty()) {
+            log.info("Rate limits: {}", stats());
+        }
+    }
+
+    static final class Route {
+
+        private static final class KeyState {
+            final Bucket bucket;
+            volatile long lastUsed;
+
+            KeyState(Bucket bucket, long lastUsed) {
+                this.bucket = bucket;
+                this.lastUsed = lastUsed;
+            }
+        }
+
+        final RateLimitPolicy policy;
+        private final String prefix;
+        private final long idleNanos;
+        private final int maxKeys;
+        private final AtomicLong allowed = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+
+        private final ConcurrentMap<String, KeyState> keys = new ConcurrentHashMap<>();
+        // Tracked alongside keys, since ConcurrentHashMap.size() sums every counter cell
+        private final AtomicInteger keyCount = new AtomicInteger();
+        private final ReentrantLock evicting = new ReentrantLock();
+
+        Route(RateLimitPolicy policy, int maxKeys) {
+            this.policy = policy;
+            this.prefix = policy.isPrefix() ? policy.path().substring(0, policy.path().length() - 2) : null;
+            this.idleNanos = policy.period().toNanos();
+            this.maxKeys = maxKeys;
+        }
+
+        ConsumptionProbe tryConsume(String key) {
+            long now = System.nanoTime();
+            KeyState state = keys.get(key);
+            if (state == null) {
+                // Stamped before it is published, so an eviction cannot mistake it for idle
+                KeyState created = new KeyState(policy.newBucket(), now);
+                state = keys.putIfAbsent(key, created);
+                if (state == null) {
+                    state = created;
+                    if (keyCount.incrementAndGet() > maxKeys) {
+                        evictLeastRecentlyUsed();
+                    }
+                }
+            }
+            state.lastUsed = now;
+            ConsumptionProbe probe = state.bucket.tryConsumeAndReturnRemaining(1);
+            (probe.isConsumed() ? allowed : rejected).incrementAndGet();
+            return probe;
+        }
+
+        void evictIdle(long now) {
+            keys.forEach((key, state) -> {
+                if (now - state.lastUsed >= idleNanos) {
+                    remove(key, state);
+                }
+            });
+        }
+
+        /**
+         * Drops the least recently used tenth of the keys, or however many more the cap is
+         * exceeded by. Threads that find an eviction already running skip it.
+         */
+        private void evictLeastRecentlyUsed() {
+            if (!evicting.tryLock()) {
+                return;
+            }
+            try {
+                int excess = keyCount.get() - maxKeys;
+                if (excess <= 0) {
+                    return;
+                }
+                long[] lastUsed = keys.values().stream().mapToLong(state -> state.lastUsed).toArray();
+                if (lastUsed.length == 0) {
+                    return;
+                }
+                int target = Math.min(Math.max(excess, maxKeys / 10), lastUsed.length);
+                Arrays.sort(lastUsed);
+                long cutoff = lastUsed[target - 1];
+
+                int removed = 0;
+                for (Map.Entry<String, KeyState> entry : keys.entrySet()) {
+                    if (removed >= target) {
+                        break;
+                    }
+                    if (entry.getValue().lastUsed <= cutoff && remove(entry.getKey(), entry.getValue())) {
+                        removed++;
+                    }
+                }
+            } finally {
+                evicting.unlock();
+            }
+        }
+
+        private boolean remove(String key, KeyState state) {
+            if (keys.remove(key, state)) {
+                keyCount.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        Stats stats() {
+            return new Stats(policy.name(), allowed.get(), rejected.get(), keyCount.get());
+        }
+    }
+
+    /**
+     * Point-in-time counters for one policy; {@code keys} is how many buckets it holds.
+     */
+    public record Stats(String policy, long allowed, long rejected, int keys) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.ascend.config;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Generates the annotated UUID id with {@link UuidV7}, so that new rows are appended at the
+ * right edge of the primary-key index instead of landing on random pages. Use in place of
+ * {@code @GeneratedValue} on high-write entities.
+ */
+@IdGeneratorType(TimeOrderedUuidGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface TimeOrderedUuid {
+}
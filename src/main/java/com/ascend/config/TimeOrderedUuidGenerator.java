@@ -0,0 +1,32 @@
+package com.ascend.config;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+
+import java.util.EnumSet;
+
+/**
+ * Hibernate id generator behind {@link TimeOrderedUuid}. Ids are produced in memory before
+ * the insert, so JDBC batching is unaffected. An id assigned by the application before
+ * persisting is kept as is.
+ */
+public class TimeOrderedUuidGenerator implements BeforeExecutionGenerator {
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return currentValue != null ? currentValue : UuidV7.next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EnumSet.of(EventType.INSERT);
+    }
+
+    // Lets callers pre-assign ids (see generate)
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+}
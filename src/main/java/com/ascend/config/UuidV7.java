@@ -0,0 +1,49 @@
+package com.ascend.config;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RFC 9562 version 7 UUIDs: a 48-bit Unix millisecond timestamp followed by random bits,
+ * so ids sort (as unsigned bytes, which is how PostgreSQL and H2 compare UUIDs) in creation
+ * order.
+ * <p>
+ * The 12-bit {@code rand_a} field holds a per-millisecond counter (RFC 9562 method 1), which
+ * keeps ids generated by this JVM strictly increasing even within one millisecond. When the
+ * counter overflows, the timestamp is advanced by one millisecond instead.
+ */
+public final class UuidV7 {
+
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long RAND_B_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    // Last issued (timestamp << 12 | counter)
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    public static UUID next() {
+        return next(System.currentTimeMillis());
+    }
+
+    static UUID next(long epochMillis) {
+        long candidate = epochMillis << 12;
+        long stamp = LAST.accumulateAndGet(candidate, (last, now) -> now > last ? now : last + 1);
+
+        long timestamp = stamp >>> 12;
+        long counter = stamp & 0xFFFL;
+        long mostSignificant = (timestamp << 16) | VERSION | counter;
+        long leastSignificant = VARIANT | (ThreadLocalRandom.current().nextLong() & RAND_B_MASK);
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    /**
+     * Unix millisecond timestamp embedded in a version 7 UUID.
+     */
+    public static long timestamp(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
@@ -0,0 +1,22 @@
+package com.ascend.session;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Streaks count consecutive days with at least one session. The current streak is still alive
+ * if the user climbed yesterday but not yet today. Rolling windows end today, inclusive.
+ */
+@Data
+@Builder
+public class ActivityStats {
+    private int currentStreak;
+    private int longestStreak;
+    private LocalDate lastSessionDate;
+    private int sessionsLast7Days;
+    private int sessionsLast30Days;
+    private int sessionsLast90Days;
+    private int sendsLast30Days;
+}
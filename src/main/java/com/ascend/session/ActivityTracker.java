@@ -0,0 +1,101 @@
+package com.ascend.session;
+
+import com.ascend.user.UserDataVersions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Streak and rolling-window activity for recently active users. A user's {@link SessionActivity}
+ * is loaded once from per-day database counts and from then on moved forward by the sessions
+ * each committed {@link SessionService} write added or removed, so deletes shrink or split
+ * streaks without a rescan. At most {@code max-users} users are held, least recently used
+ * first out.
+ * <p>
+ * Like {@link SessionColumnStore}, every entry is pinned to the {@link UserDataVersions data
+ * version} it reflects; a write that does not follow on it, or a load that overlapped a write,
+ * drops the entry so the next read reloads it.
+ */
+@Component
+public class ActivityTracker {
+
+    private static final class Entry {
+        final SessionActivity activity;
+        long version;
+
+        Entry(SessionActivity activity, long version) {
+            this.activity = activity;
+            this.version = version;
+        }
+    }
+
+    private final SessionRepository sessionRepository;
+    private final UserDataVersions dataVersions;
+    private final int maxUsers;
+
+    // Access-ordered for LRU eviction; entries and their activity are guarded by entries
+    private final LinkedHashMap<UUID, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+            return size() > maxUsers;
+        }
+    };
+
+    public ActivityTracker(SessionRepository sessionRepository,
+                           UserDataVersions dataVersions,
+                           @Value("${app.analytics.activity.max-users:10000}") int maxUsers) {
+        this.sessionRepository = sessionRepository;
+        this.dataVersions = dataVersions;
+        this.maxUsers = maxUsers;
+    }
+
+    public ActivityStats getStats(UUID userId, LocalDate today) {
+        long version = dataVersions.current(userId);
+        synchronized (entries) {
+            Entry entry = entries.get(userId);
+            if (entry != null && entry.version == version) {
+                return entry.activity.stats(today);
+            }
+        }
+
+        SessionActivity activity = SessionActivity.of(sessionRepository.findDailyActivity(userId));
+        synchronized (entries) {
+            // A write that committed during the load may or may not be in it; don't keep it
+            if (maxUsers > 0 && dataVersions.current(userId) == version) {
+                entries.put(userId, new Entry(activity, version));
+            }
+            return activity.stats(today);
+        }
+    }
+
+    /**
+     * Moves the user's activity from {@code previousVersion} to {@code version} by applying one
+     * committed write; see {@link UserDataVersions.Transition}.
+     */
+    void apply(UUID userId, long previousVersion, long version,
+               Collection<SessionSnapshot> removed, Collection<SessionSnapshot> added) {
+        synchronized (entries) {
+            Entry entry = entries.get(userId);
+            if (entry == null) {
+                return;
+            }
+            if (previousVersion < 0 || entry.version != previousVersion) {
+                entries.remove(userId);
+                return;
+            }
+            for (SessionSnapshot session : removed) {
+                if (!entry.activity.remove(session)) {
+                    entries.remove(userId);
+                    return;
+                }
+            }
+            added.forEach(entry.activity::add);
+            entry.version = version;
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package com.ascend.session;
+
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Single-pass analytics kernel. Sessions, rollups or database aggregates are folded into
+ * primitive arrays indexed by {@link SessionDiscipline#ordinal()} and into dense weekly and
+ * monthly series keyed by packed int period numbers, from which {@link SessionAnalytics},
+ * {@link ProgressAnalytics}, highest grades and average sent grades are all derived.
+ * <p>
+ * Grade values are summed as whole tenths (every grade is a multiple of 0.1), so totals are
+ * exact and a result never depends on the order sessions, chunks or rollups arrive in.
+ * <p>
+ * Instances are cheap, mutable and not thread-safe; create one per request.
+ */
+public final class AnalyticsAccumulator {
+
+    private static final SessionDiscipline[] DISCIPLINES = SessionDiscipline.values();
+
+    private final int[] sessionCount = new int[DISCIPLINES.length];
+    private final int[] sentCount = new int[DISCIPLINES.length];
+    private final long[] gradeTenthsSum = new long[DISCIPLINES.length];
+    private final long[] sentGradeTenthsSum = new long[DISCIPLINES.length];
+    private final Grade[] maxGrade = new Grade[DISCIPLINES.length];
+
+    private final PeriodSeries weeks = new PeriodSeries();
+    private final PeriodSeries months = new PeriodSeries();
+
+    public AnalyticsAccumulator addSessions(Iterable<Session> sessions) {
+        for (Session session : sessions) {
+            add(session.getDiscipline(), session.getGrade(), session.getDate(), session.isSent());
+        }
+        return this;
+    }
+
+    public AnalyticsAccumulator add(SessionDiscipline discipline, Grade grade, LocalDate date, boolean sent) {
+        return add(discipline, grade, weekKey(date), monthKey(date), sent);
+    }
+
+    /**
+     * Adds one session whose period keys the caller has already computed, for callers that
+     * iterate date-sorted columns and can reuse the keys across sessions on the same day.
+     */
+    AnalyticsAccumulator add(SessionDiscipline discipline, Grade grade, int weekKey, int monthKey, boolean sent) {
+        int d = discipline.ordinal();
+        long gradeTenths = tenths(grade.getNumericValue());
+        int sentIncrement = sent ? 1 : 0;
+
+        sessionCount[d]++;
+        sentCount[d] += sentIncrement;
+        gradeTenthsSum[d] += gradeTenths;
+        if (sent) {
+            sentGradeTenthsSum[d] += gradeTenths;
+        }
+        if (maxGrade[d] == null || grade.getNumericValue() > maxGrade[d].getNumericValue()) {
+            maxGrade[d] = grade;
+        }
+
+        weeks.add(weekKey, 1, sentIncrement, gradeTenths);
+        months.add(monthKey, 1, sentIncrement, gradeTenths);
+        return this;
+    }
+
+    /**
+     * Adds pre-aggregated rollups. Every rollup bucket lies within a single ISO week and
+     * a single month, so its totals can be attributed to both series as a whole.
+     */
+    public AnalyticsAccumulator addRollups(Iterable<SessionRollup> rollups) {
+        for (SessionRollup rollup : rollups) {
+            if (rollup.getSessionCount() <= 0) {
+                continue;
+            }
+            int d = rollup.getDiscipline().ordinal();
+            sessionCount[d] += rollup.getSessionCount();
+            sentCount[d] += rollup.getSentCount();
+            long gradeTenths = tenths(rollup.getGradeValueSum());
+            gradeTenthsSum[d] += gradeTenths;
+            sentGradeTenthsSum[d] += tenths(rollup.getSentGradeValueSum());
+            Grade grade = rollup.getMaxGrade();
+            if (grade != null && (maxGrade[d] == null || grade.getNumericValue() > maxGrade[d].getNumericValue())) {
+                maxGrade[d] = grade;
+            }
+
+            LocalDate bucketStart = rollup.getBucketStart();
+            weeks.add(weekKey(bucketStart), rollup.getSessionCount(), rollup.getSentCount(), gradeTenths);
+            months.add(monthKey(bucketStart), rollup.getSessionCount(), rollup.getSentCount(), gradeTenths);
+        }
+        return this;
+    }
+
+    /**
+     * Adds per-discipline database totals. These carry no dates or maxima, so only
+     * {@link #toSessionAnalytics()} is meaningful afterwards.
+     */
+    public AnalyticsAccumulator addAggregates(Iterable<DisciplineAggregate> aggregates) {
+        for (DisciplineAggregate aggregate : aggregates) {
+            int d = aggregate.getDiscipline().ordinal();
+            sessionCount[d] += aggregate.getSessionCount() != null ? aggregate.getSessionCount().intValue() : 0;
+            sentCount[d] += aggregate.getSentCount() != null ? aggregate.getSentCount().intValue() : 0;
+            gradeTenthsSum[d] += aggregate.getGradeValueSum() != null ? tenths(aggregate.getGradeValueSum()) : 0L;
+        }
+        return this;
+    }
+
+    /**
+     * Folds another accumulator's totals into this one, for combining partial results computed
+     * over disjoint chunks of sessions. {@code other} is left unchanged.
+     */
+    public AnalyticsAccumulator merge(AnalyticsAccumulator other) {
+        for (int d = 0; d < DISCIPLINES.length; d++) {
+            sessionCount[d] += other.sessionCount[d];
+            sentCount[d] += other.sentCount[d];
+            gradeTenthsSum[d] += other.gradeTenthsSum[d];
+            sentGradeTenthsSum[d] += other.sentGradeTenthsSum[d];
+            Grade grade = other.maxGrade[d];
+            if (grade != null && (maxGrade[d] == null || grade.getNumericValue() > maxGrade[d].getNumericValue())) {
+                maxGrade[d] = grade;
+            }
+        }
+        weeks.addAll(other.weeks);
+        months.addAll(other.months);
+        return this;
+    }
+
+    public int getTotalSessions() {
+        int total = 0;
+        for (int count : sessionCount) {
+            total += count;
+        }
+        return total;
+    }
+
+    public SessionAnalytics toSessionAnalytics() {
+        int totalSessions = 0;
+        int totalSent = 0;
+        long totalGradeTenths = 0L;
+
+        Map<SessionDiscipline, Integer> disciplineCounts = new EnumMap<>(SessionDiscipline.class);
+        Map<SessionDiscipline, Double> avgDifficultyByDiscipline = new EnumMap<>(SessionDiscipline.class);
+        Map<SessionDiscipline, Double> sentPercentageByDiscipline = new EnumMap<>(SessionDiscipline.class);
+
+        for (int d = 0; d < DISCIPLINES.length; d++) {
+            int count = sessionCount[d];
+            if (count == 0) {
+                continue;
+            }
+            totalSessions += count;
+            totalSent += sentCount[d];
+            totalGradeTenths += gradeTenthsSum[d];
+
+            disciplineCounts.put(DISCIPLINES[d], count);
+            avgDifficultyByDiscipline.put(DISCIPLINES[d], average(gradeTenthsSum[d], count));
+            sentPercentageByDiscipline.put(DISCIPLINES[d], sentCount[d] * 100.0 / count);
+        }
+
+        if (totalSessions == 0) {
+            return SessionAnalytics.builder()
+                    .totalSessions(0)
+                    .averageDifficulty(0.0)
+                    .sentPercentage(0.0)
+                    .sessionsByDiscipline(Map.of())
+                    .averageDifficultyByDiscipline(Map.of())
+                    .sentPercentageByDiscipline(Map.of())
+                    .build();
+        }
+
+        return SessionAnalytics.builder()
+                .totalSessions(totalSessions)
+                .averageDifficulty(average(totalGradeTenths, totalSessions))
+                .sentPercentage(totalSent * 100.0 / totalSessions)
+                .sessionsByDiscipline(disciplineCounts)
+                .averageDifficultyByDiscipline(avgDifficultyByDiscipline)
+                .sentPercentageByDiscipline(sentPercentageByDiscipline)
+                .build();
+    }
+
+    public ProgressAnalytics toProgressAnalytics() {
+        int totalSessions = 0;
+        int totalSent = 0;
+        long totalGradeTenths = 0L;
+        for (int d = 0; d < DISCIPLINES.length; d++) {
+            totalSessions += sessionCount[d];
+            totalSent += sentCount[d];
+            totalGradeTenths += gradeTenthsSum[d];
+        }
+
+        if (totalSessions == 0) {
+            return ProgressAnalytics.builder()
+                    .totalSessions(0)
+                    .sentRate(0.0)
+                    .avgDifficulty(0.0)
+                    .progressByWeek(List.of())
+                    .progressByMonth(List.of())
+                    .build();
+        }
+
+        List<ProgressAnalytics.WeeklyProgress> weeklyProgress = new ArrayList<>();
+        weeks.forEachPeriod((key, count, sent, gradeTenths) -> weeklyProgress.add(ProgressAnalytics.WeeklyProgress.builder()
+                .week(weekLabel(key))
+                .avgDifficulty(average(gradeTenths, count))
+                .sessionCount(count)
+                .sentRate(sent * 100.0 / count)
+                .build()));
+
+        List<ProgressAnalytics.MonthlyProgress> monthlyProgress = new ArrayList<>();
+        months.forEachPeriod((key, count, sent, gradeTenths) -> monthlyProgress.add(ProgressAnalytics.MonthlyProgress.builder()
+                .month(monthLabel(key))
+                .avgDifficulty(average(gradeTenths, count))
+                .sessionCount(count)
+                .sentRate(sent * 100.0 / count)
+                .build()));
+
+        return ProgressAnalytics.builder()
+                .totalSessions(totalSessions)
+                .sentRate(totalSent * 100.0 / totalSessions)
+                .avgDifficulty(average(totalGradeTenths, totalSessions))
+                .progressByWeek(weeklyProgress)
+                .progressByMonth(monthlyProgress)
+                .build();
+    }
+
+    public Map<SessionDiscipline, Grade> toHighestGrades() {
+        Map<SessionDiscipline, Grade> highest = new EnumMap<>(SessionDiscipline.class);
+        for (int d = 0; d < DISCIPLINES.length; d++) {
+            if (maxGrade[d] != null) {
+                highest.put(DISCIPLINES[d], maxGrade[d]);
+            }
+        }
+        return highest;
+    }
+
+    /**
+     * Average grade value of sent sessions, for disciplines with at least one send.
+     */
+    public Map<SessionDiscipline, Double> toAverageGrades() {
+        Map<SessionDiscipline, Double> averages = new EnumMap<>(SessionDiscipline.class);
+        for (int d = 0; d < DISCIPLINES.length; d++) {
+            if (sentCount[d] > 0) {
+                averages.put(DISCIPLINES[d], average(sentGradeTenthsSum[d], sentCount[d]));
+            }
+        }
+        return averages;
+    }
+
+    /**
+     * Rounds a grade value, or a sum of them, to whole tenths.
+     */
+    private static long tenths(double gradeValue) {
+        return Math.round(gradeValue * 10);
+    }
+
+    /**
+     * Average grade value from a sum in tenths, rounded once.
+     */
+    private static double average(long gradeTenths, int count) {
+        return gradeTenths / (count * 10.0);
+    }
+
+    /**
+     * Consecutive ISO week number: weeks start on Monday and 1970-01-05 is week 1.
+     */
+    static int weekKey(LocalDate date) {
+        return (int) Math.floorDiv(date.toEpochDay() + 3, 7);
+    }
+
+    /**
+     * Consecutive month number: {@code year * 12 + (month - 1)}.
+     */
+    static int monthKey(LocalDate date) {
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    static String weekLabel(int weekKey) {
+        LocalDate monday = LocalDate.ofEpochDay(weekKey * 7L - 3);
+        int year = monday.get(IsoFields.WEEK_BASED_YEAR);
+        int week = monday.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+        return year + (week < 10 ? "-W0" : "-W") + week;
+    }
+
+    static String monthLabel(int monthKey) {
+        int year = Math.floorDiv(monthKey, 12);
+        int month = Math.floorMod(monthKey, 12) + 1;
+        return year + (month < 10 ? "-0" : "-") + month;
+    }
+
+    /**
+     * Dense totals per consecutive period key. Slots that received nothing stay zero and are
+     * skipped on output; the window grows geometrically in either direction so that sessions
+     * arriving in any date order cost amortized O(1). Session dates are unbounded, so once the
+     * window would span more than {@link #MAX_DENSE_SLOTS} periods (an outlier such as year 1 or
+     * 9999 next to recent data) the series moves to a sorted map that only holds used periods.
+     */
+    private static final class PeriodSeries {
+
+        private static final int INITIAL_CAPACITY = 16;
+        // 4096 weeks is about 78 years; at 16 bytes per slot the dense window stays under 64 KiB
+        private static final int MAX_DENSE_SLOTS = 4096;
+
+        private int base;
+        private int length;
+        private int[] sessionCount = new int[0];
+        private int[] sentCount = new int[0];
+        private long[] gradeTenthsSum = new long[0];
+        // Non-null once the series has gone sparse; values are {sessions, sent, gradeTenthsSum}
+        private TreeMap<Integer, long[]> sparse;
+
+        void add(int key, int sessions, int sent, long gradeTenths) {
+            if (sparse == null) {
+                if (length == 0) {
+                    base = key;
+                    resize(INITIAL_CAPACITY, 0);
+                } else if (key < base || key - base >= length) {
+                    long span = Math.max((long) base + length, (long) key + 1) - Math.min(base, key);
+                    if (span > MAX_DENSE_SLOTS) {
+                        toSparse();
+                    } else if (key < base) {
+                        int shift = (int) Math.min(Math.max(base - key, length), MAX_DENSE_SLOTS - length);
+                        resize(length + shift, shift);
+                        base -= shift;
+                    } else {
+                        resize((int) Math.min(Math.max(key - base + 1, length * 2L), MAX_DENSE_SLOTS), 0);
+                    }
+                }
+            }
+
+            if (sparse != null) {
+                long[] totals = sparse.computeIfAbsent(key, k -> new long[3]);
+                totals[0] += sessions;
+                totals[1] += sent;
+                totals[2] += gradeTenths;
+                return;
+            }
+            int i = key - base;
+            sessionCount[i] += sessions;
+            sentCount[i] += sent;
+            gradeTenthsSum[i] += gradeTenths;
+        }
+
+        void addAll(PeriodSeries other) {
+            other.forEachPeriod(this::add);
+        }
+
+        /**
+         * Visits every period that received sessions, in key order.
+         */
+        void forEachPeriod(PeriodVisitor visitor) {
+            if (sparse != null) {
+                sparse.forEach((key, totals) -> visitor.visit(key, (int) totals[0], (int) totals[1], totals[2]));
+                return;
+            }
+            for (int i = 0; i < length; i++) {
+                if (sessionCount[i] > 0) {
+                    visitor.visit(base + i, sessionCount[i], sentCount[i], gradeTenthsSum[i]);
+                }
+            }
+        }
+
+        private void toSparse() {
+            TreeMap<Integer, long[]> map = new TreeMap<>();
+            forEachPeriod((key, sessions, sent, gradeTenths) -> map.put(key, new long[]{sessions, sent, gradeTenths}));
+            sparse = map;
+            sessionCount = new int[0];
+            sentCount = new int[0];
+            gradeTenthsSum = new long[0];
+            length = 0;
+        }
+
+        /**
+         * Reallocates to {@code capacity} slots, moving existing slots {@code shift} to the right.
+         */
+        private void resize(int capacity, int shift) {
+            int[] newSessionCount = new int[capacity];
+            int[] newSentCount = new int[capacity];
+            long[] newGradeTenthsSum = new long[capacity];
+            System.arraycopy(sessionCount, 0, newSessionCount, shift, length);
+            System.arraycopy(sentCount, 0, newSentCount, shift, length);
+            System.arraycopy(gradeTenthsSum, 0, newGradeTenthsSum, shift, length);
+            sessionCount = newSessionCount;
+            sentCount = newSentCount;
+            gradeTenthsSum = newGradeTenthsSum;
+            length = capacity;
+        }
+    }
+
+    @FunctionalInterface
+    private interface PeriodVisitor {
+        void visit(int key, int sessions, int sent, long gradeTenthsSum);
+    }
+}
@@ -0,0 +1,132 @@
+package com.ascend.session;
+
+import com.ascend.user.UserDataVersions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process cache of computed analytics, keyed by user, view and date window.
+ * Entries are evicted least-recently-used once {@code max-entries} is reached and expire after
+ * {@code ttl}. Each entry remembers the user's {@link UserDataVersions data version} it was
+ * computed at, so a write makes all of that user's entries stale at once and a result computed
+ * from data read before a write is never served after it.
+ */
+@Slf4j
+@Component
+public class AnalyticsCache {
+
+    public enum View {
+        ANALYTICS, PROGRESS, HIGHEST, AVERAGE, DASHBOARD, DISTRIBUTION
+    }
+
+    private record Key(UUID userId, View view, DateRange range) {
+    }
+
+    private record Entry(Object value, long version, long expiresAt) {
+    }
+
+    private final UserDataVersions dataVersions;
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    // Access-ordered so the eldest entry is the least recently used; guarded by itself
+    private final LinkedHashMap<Key, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public AnalyticsCache(UserDataVersions dataVersions,
+                          @Value("${app.analytics.cache.max-entries:10000}") int maxEntries,
+                          @Value("${app.analytics.cache.ttl:PT10M}") Duration ttl) {
+        this.dataVersions = dataVersions;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > AnalyticsCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached result for this user, view and window, computing and storing it on a
+     * miss. A cache sized to zero entries always computes.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(UUID userId, View view, DateRange range, Supplier<T> loader) {
+        if (maxEntries <= 0) {
+            return loader.get();
+        }
+
+        Key key = new Key(userId, view, range);
+        long version = dataVersions.current(userId);
+        long now = System.nanoTime();
+
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.version() == version && now - entry.expiresAt() < 0) {
+                    hits.incrementAndGet();
+                    return (T) entry.value();
+                }
+                entries.remove(key);
+                if (entry.version() == version) {
+                    evictions.incrementAndGet();
+                }
+            }
+        }
+
+        misses.incrementAndGet();
+        T value = loader.get();
+        synchronized (entries) {
+            // Skip the store if a write landed while the value was being computed
+            if (dataVersions.current(userId) == version) {
+                entries.put(key, new Entry(value, version, now + ttlNanos));
+            }
+        }
+        return value;
+    }
+
+    public Stats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new Stats(hits.get(), misses.get(), evictions.get(), size);
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.cache.stats-log-interval-ms:900000}",
+            initialDelayString = "${app.analytics.cache.stats-log-interval-ms:900000}")
+    public void logStats() {
+        if (maxEntries > 0) {
+            log.info("Analytics cache: {}", stats());
+        }
+    }
+
+    /**
+     * Point-in-time counters. Evictions count entries dropped for size or age; entries made
+     * stale by a write are discarded without being counted.
+     */
+    public record Stats(long hits, long misses, long evictions, int size) {
+
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.ascend.session;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Sessions and sends on one day, counted by the database.
+ */
+@Data
+@AllArgsConstructor
+public class DailyActivity {
+    private LocalDate date;
+    private Long sessionCount;
+    private Long sendCount;
+}
@@ -0,0 +1,69 @@
+package com.ascend.session;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * Half-open date window {@code [from, to)} used to push period filters down to the database.
+ * Unbounded ends are represented by sentinel dates that every supported database can store.
+ */
+@Getter
+@EqualsAndHashCode
+public class DateRange {
+
+    public static final LocalDate MIN_DATE = LocalDate.of(1, 1, 1);
+    public static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+
+    private static final DateRange ALL_TIME = new DateRange(MIN_DATE, MAX_DATE);
+
+    private final LocalDate from;
+    private final LocalDate to;
+
+    private DateRange(LocalDate from, LocalDate to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    public static DateRange allTime() {
+        return ALL_TIME;
+    }
+
+    /**
+     * @param from first day included, or null for no lower bound
+     * @param to   first day excluded, or null for no upper bound
+     */
+    public static DateRange of(LocalDate from, LocalDate to) {
+        LocalDate start = from != null ? from : MIN_DATE;
+        LocalDate end = to != null ? to : MAX_DATE;
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("Invalid date range: 'from' must not be after 'to'");
+        }
+        return new DateRange(start, end);
+    }
+
+    /**
+     * Builds a range from inclusive {@code from} and {@code to} request parameters.
+     */
+    public static DateRange ofInclusive(LocalDate from, LocalDate to) {
+        // Checked here because to + 1 day would let to = from - 1 through as an empty range
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("Invalid date range: 'from' must not be after 'to'");
+        }
+        return of(from, to != null && to.isBefore(MAX_DATE) ? to.plusDays(1) : to);
+    }
+
+    public boolean isAllTime() {
+        return MIN_DATE.equals(from) && MAX_DATE.equals(to);
+    }
+
+    public boolean contains(LocalDate date) {
+        return !date.isBefore(from) && date.isBefore(to);
+    }
+
+    @Override
+    public String toString() {
+        return "[" + from + ", " + to + ")";
+    }
+}
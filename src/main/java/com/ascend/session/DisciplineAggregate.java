@@ -0,0 +1,16 @@
+package com.ascend.session;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Per-discipline totals computed by the database in a single GROUP BY query.
+ */
+@Data
+@AllArgsConstructor
+public class DisciplineAggregate {
+    private SessionDiscipline discipline;
+    private Long sessionCount;
+    private Double gradeValueSum;
+    private Long sentCount;
+}
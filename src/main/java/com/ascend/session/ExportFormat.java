@@ -0,0 +1,29 @@
+package com.ascend.session;
+
+import lombok.Getter;
+
+@Getter
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv;charset=UTF-8", "csv");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    ExportFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    public static ExportFormat fromString(String format) {
+        if (format == null || format.trim().isEmpty()) {
+            return NDJSON;
+        }
+        for (ExportFormat candidate : values()) {
+            if (candidate.fileExtension.equalsIgnoreCase(format.trim())) {
+                return candidate;
+            }
+        }
+        throw new RuntimeException("Unsupported export format: " + format + ". Supported formats: ndjson, csv");
+    }
+}
@@ -3,64 +3,127 @@ package com.ascend.session;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import lombok.Getter;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Climbing grades. Each grade has a stable {@link #getCode() code} that is what the database
+ * stores; codes must never be reused or changed, so new grades get new codes. Codes increase
+ * with difficulty within a scale: V grades use 0-99 and YDS grades start at 100.
+ */
 @Getter
 @JsonDeserialize(using = GradeDeserializer.class)
 public enum Grade {
     // V-Scale grades (for bouldering)
-    V0(0.0, "V0", SessionDiscipline.BOULDER),
-    V1(1.0, "V1", SessionDiscipline.BOULDER),
-    V2(2.0, "V2", SessionDiscipline.BOULDER),
-    V3(3.0, "V3", SessionDiscipline.BOULDER),
-    V4(4.0, "V4", SessionDiscipline.BOULDER),
-    V5(5.0, "V5", SessionDiscipline.BOULDER),
-    V6(6.0, "V6", SessionDiscipline.BOULDER),
-    V7(7.0, "V7", SessionDiscipline.BOULDER),
-    V8(8.0, "V8", SessionDiscipline.BOULDER),
-    V9(9.0, "V9", SessionDiscipline.BOULDER),
-    V10(10.0, "V10", SessionDiscipline.BOULDER),
-    V11(11.0, "V11", SessionDiscipline.BOULDER),
-    V12(12.0, "V12", SessionDiscipline.BOULDER),
-    V13(13.0, "V13", SessionDiscipline.BOULDER),
-    V14(14.0, "V14", SessionDiscipline.BOULDER),
-    V15(15.0, "V15", SessionDiscipline.BOULDER),
-    V16(16.0, "V16", SessionDiscipline.BOULDER),
-    V17(17.0, "V17", SessionDiscipline.BOULDER),
+    V0(0, 0.0, "V0", SessionDiscipline.BOULDER),
+    V1(1, 1.0, "V1", SessionDiscipline.BOULDER),
+    V2(2, 2.0, "V2", SessionDiscipline.BOULDER),
+    V3(3, 3.0, "V3", SessionDiscipline.BOULDER),
+    V4(4, 4.0, "V4", SessionDiscipline.BOULDER),
+    V5(5, 5.0, "V5", SessionDiscipline.BOULDER),
+    V6(6, 6.0, "V6", SessionDiscipline.BOULDER),
+    V7(7, 7.0, "V7", SessionDiscipline.BOULDER),
+    V8(8, 8.0, "V8", SessionDiscipline.BOULDER),
+    V9(9, 9.0, "V9", SessionDiscipline.BOULDER),
+    V10(10, 10.0, "V10", SessionDiscipline.BOULDER),
+    V11(11, 11.0, "V11", SessionDiscipline.BOULDER),
+    V12(12, 12.0, "V12", SessionDiscipline.BOULDER),
+    V13(13, 13.0, "V13", SessionDiscipline.BOULDER),
+    V14(14, 14.0, "V14", SessionDiscipline.BOULDER),
+    V15(15, 15.0, "V15", SessionDiscipline.BOULDER),
+    V16(16, 16.0, "V16", SessionDiscipline.BOULDER),
+    V17(17, 17.0, "V17", SessionDiscipline.BOULDER),
 
     // YDS grades (for lead and top rope climbing)
-    YDS_5_6(6.0, "5.6", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
-    YDS_5_7(7.0, "5.7", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
-    YDS_5_8(8.0, "5.8", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
-    YDS_5_9(9.0, "5.9", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
-    YDS_5_10A(10.1, "5.10a", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
-    YDS_5_10B(10.2, "5.10b", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
-    YDS_5_10C(10.3, "5.10c", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
-    YDS_5_10D(10.4, "5.10d", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
-    YDS_5_11A(11.1, "5.11a", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
-    YDS_5_11B(11.2, "5.11b", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
-    YDS_5_11C(11.3, "5.11c", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
-    YDS_5_11D(11.4, "5.11d", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
-    YDS_5_12A(12.1, "5.12a", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
-    YDS_5_12B(12.2, "5.12b", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
-    YDS_5_12C(12.3, "5.12c", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
-    YDS_5_12D(12.4, "5.12d", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
-    YDS_5_13A(13.1, "5.13a", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
-    YDS_5_13B(13.2, "5.13b", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
-    YDS_5_13C(13.3, "5.13c", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
-    YDS_5_13D(13.4, "5.13d", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
-    YDS_5_14A(14.1, "5.14a", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
-    YDS_5_14B(14.2, "5.14b", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
-    YDS_5_14C(14.3, "5.14c", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
-    YDS_5_14D(14.4, "5.14d", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
-    YDS_5_15A(15.1, "5.15a", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
-    YDS_5_15B(15.2, "5.15b", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
-    YDS_5_15C(15.3, "5.15c", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
-    YDS_5_15D(15.4, "5.15d", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE);
+    YDS_5_6(100, 6.0, "5.6", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
+    YDS_5_7(101, 7.0, "5.7", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
+    YDS_5_8(102, 8.0, "5.8", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
+    YDS_5_9(103, 9.0, "5.9", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
+    YDS_5_10A(104, 10.1, "5.10a", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
+    YDS_5_10B(105, 10.2, "5.10b", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
+    YDS_5_10C(106, 10.3, "5.10c", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
+    YDS_5_10D(107, 10.4, "5.10d", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
+    YDS_5_11A(108, 11.1, "5.11a", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
+    YDS_5_11B(109, 11.2, "5.11b", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
+    YDS_5_11C(110, 11.3, "5.11c", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
+    YDS_5_11D(111, 11.4, "5.11d", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
+    YDS_5_12A(112, 12.1, "5.12a", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
+    YDS_5_12B(113, 12.2, "5.12b", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
+    YDS_5_12C(114, 12.3, "5.12c", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
+    YDS_5_12D(115, 12.4, "5.12d", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
+    YDS_5_13A(116, 13.1, "5.13a", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
+    YDS_5_13B(117, 13.2, "5.13b", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
+    YDS_5_13C(118, 13.3, "5.13c", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
+    YDS_5_13D(119, 13.4, "5.13d", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
+    YDS_5_14A(120, 14.1, "5.14a", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
+    YDS_5_14B(121, 14.2, "5.14b", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
+    YDS_5_14C(122, 14.3, "5.14c", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
+    YDS_5_14D(123, 14.4, "5.14d", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
+    YDS_5_15A(124, 15.1, "5.15a", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
+    YDS_5_15B(125, 15.2, "5.15b", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
+    YDS_5_15C(126, 15.3, "5.15c", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE),
+    YDS_5_15D(127, 15.4, "5.15d", SessionDiscipline.LEAD, SessionDiscipline.TOP_ROPE);
 
+    private final short code;
     private final double numericValue;
     private final String displayValue;
     private final SessionDiscipline[] supportedDisciplines;
 
-    Grade(double numericValue, String displayValue, SessionDiscipline... supportedDisciplines) {
+    // Lookup tables built once from values(); every parse is a hash or array lookup
+    private static final Grade[] BY_CODE;
+    private static final Map<String, Grade> BY_NAME = new HashMap<>();
+    private static final Map<String, Grade> BY_DISPLAY = new HashMap<>();
+    // [discipline ordinal][numeric value in tenths]
+    private static final Grade[][] BY_TENTHS;
+    // Indexed by discipline ordinal
+    private static final List<List<Grade>> BY_DISCIPLINE;
+
+    static {
+        Grade[] grades = values();
+        SessionDiscipline[] disciplines = SessionDiscipline.values();
+
+        int maxCode = 0;
+        int maxTenths = 0;
+        for (Grade grade : grades) {
+            maxCode = Math.max(maxCode, grade.code);
+            maxTenths = Math.max(maxTenths, tenths(grade.numericValue));
+        }
+
+        BY_CODE = new Grade[maxCode + 1];
+        BY_TENTHS = new Grade[disciplines.length][maxTenths + 1];
+        int[] perDiscipline = new int[disciplines.length];
+        for (Grade grade : grades) {
+            if (BY_CODE[grade.code] != null) {
+                throw new IllegalStateException("Duplicate grade code " + grade.code);
+            }
+            BY_CODE[grade.code] = grade;
+            BY_NAME.put(grade.name(), grade);
+            BY_DISPLAY.put(grade.displayValue.toLowerCase(Locale.ROOT), grade);
+            for (SessionDiscipline discipline : grade.supportedDisciplines) {
+                BY_TENTHS[discipline.ordinal()][tenths(grade.numericValue)] = grade;
+                perDiscipline[discipline.ordinal()]++;
+            }
+        }
+
+        List<List<Grade>> byDiscipline = new ArrayList<>(disciplines.length);
+        for (SessionDiscipline discipline : disciplines) {
+            Grade[] supported = new Grade[perDiscipline[discipline.ordinal()]];
+            int i = 0;
+            for (Grade grade : grades) {
+                if (grade.supportsDiscipline(discipline)) {
+                    supported[i++] = grade;
+                }
+            }
+            byDiscipline.add(List.of(supported));
+        }
+        BY_DISCIPLINE = List.copyOf(byDiscipline);
+    }
+
+    Grade(int code, double numericValue, String displayValue, SessionDiscipline... supportedDisciplines) {
+        this.code = (short) code;
         this.numericValue = numericValue;
         this.displayValue = displayValue;
         this.supportedDisciplines = supportedDisciplines;
@@ -75,42 +138,96 @@ public enum Grade {
         return false;
     }
 
+    /**
+     * @return the grade stored under {@code code}
+     * @throws IllegalArgumentException if no grade has that code
+     */
+    public static Grade fromCode(int code) {
+        Grade grade = code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        if (grade == null) {
+            throw new IllegalArgumentException("Invalid grade code: " + code);
+        }
+        return grade;
+    }
+
+    /**
+     * Resolves an enum name (exact) or display value (any case) without throwing.
+     *
+     * @return the grade, or null if the value names no grade
+     */
+    public static Grade lookup(String value) {
+        if (value == null) {
+            return null;
+        }
+        Grade grade = BY_NAME.get(value);
+        return grade != null ? grade : findByDisplayValue(value);
+    }
+
+    /**
+     * @return the grade with this display value (any case), or null
+     */
+    public static Grade findByDisplayValue(String displayValue) {
+        return displayValue != null ? BY_DISPLAY.get(displayValue.toLowerCase(Locale.ROOT)) : null;
+    }
+
+    /**
+     * @return the discipline's grade with exactly this numeric value, or null
+     */
+    public static Grade findByNumericValue(double numericValue, SessionDiscipline discipline) {
+        if (!(numericValue >= 0) || discipline == null) {
+            return null;
+        }
+        Grade[] table = BY_TENTHS[discipline.ordinal()];
+        int index = tenths(numericValue);
+        // The table is keyed by rounded tenths; only an exact match is a grade
+        if (index < 0 || index >= table.length || table[index] == null || table[index].numericValue != numericValue) {
+            return null;
+        }
+        return table[index];
+    }
+
     public static Grade fromString(String gradeString) {
-        for (Grade grade : values()) {
-            if (grade.displayValue.equalsIgnoreCase(gradeString)) {
-                return grade;
-            }
+        Grade grade = findByDisplayValue(gradeString);
+        if (grade == null) {
+            throw new IllegalArgumentException("Invalid grade: " + gradeString);
         }
-        throw new IllegalArgumentException("Invalid grade: " + gradeString);
+        return grade;
     }
 
     public static Grade fromStringForDiscipline(String gradeString, SessionDiscipline discipline) {
-        for (Grade grade : values()) {
-            if (grade.displayValue.equalsIgnoreCase(gradeString) && grade.supportsDiscipline(discipline)) {
-                return grade;
-            }
+        Grade grade = findByDisplayValue(gradeString);
+        if (grade == null || !grade.supportsDiscipline(discipline)) {
+            throw new IllegalArgumentException("Invalid grade '" + gradeString + "' for discipline '" + discipline + "'. " +
+                    "Supported grades for " + discipline + ": " + getSupportedGradesForDiscipline(discipline));
         }
-        throw new IllegalArgumentException("Invalid grade '" + gradeString + "' for discipline '" + discipline + "'. " +
-                "Supported grades for " + discipline + ": " + getSupportedGradesForDiscipline(discipline));
+        return grade;
     }
 
     public static Grade fromNumericValue(double numericValue, SessionDiscipline discipline) {
-        for (Grade grade : values()) {
-            if (grade.numericValue == numericValue && grade.supportsDiscipline(discipline)) {
-                return grade;
-            }
+        Grade grade = findByNumericValue(numericValue, discipline);
+        if (grade == null) {
+            throw new IllegalArgumentException("Invalid numeric value: " + numericValue + " for discipline: " + discipline);
         }
-        throw new IllegalArgumentException("Invalid numeric value: " + numericValue + " for discipline: " + discipline);
+        return grade;
+    }
+
+    /**
+     * Grades supported by the discipline, easiest first, as a shared immutable list.
+     */
+    public static List<Grade> forDiscipline(SessionDiscipline discipline) {
+        return BY_DISCIPLINE.get(discipline.ordinal());
     }
 
     private static String getSupportedGradesForDiscipline(SessionDiscipline discipline) {
         StringBuilder sb = new StringBuilder();
-        for (Grade grade : values()) {
-            if (grade.supportsDiscipline(discipline)) {
-                if (sb.length() > 0) sb.append(", ");
-                sb.append(grade.displayValue);
-            }
+        for (Grade grade : forDiscipline(discipline)) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(grade.displayValue);
         }
         return sb.toString();
     }
-} 
\ No newline at end of file
+
+    private static int tenths(double numericValue) {
+        return (int) Math.round(numericValue * 10);
+    }
+}
@@ -0,0 +1,21 @@
+package com.ascend.session;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Persists a {@link Grade} as its two-byte {@link Grade#getCode() code} instead of its name.
+ */
+@Converter
+public class GradeConverter implements AttributeConverter<Grade, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(Grade grade) {
+        return grade != null ? grade.getCode() : null;
+    }
+
+    @Override
+    public Grade convertToEntityAttribute(Short code) {
+        return code != null ? Grade.fromCode(code) : null;
+    }
+}
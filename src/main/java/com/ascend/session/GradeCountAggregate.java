@@ -0,0 +1,16 @@
+package com.ascend.session;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Attempts and sends at one grade within one discipline, counted by the database.
+ */
+@Data
+@AllArgsConstructor
+public class GradeCountAggregate {
+    private SessionDiscipline discipline;
+    private Grade grade;
+    private Long attemptCount;
+    private Long sendCount;
+}
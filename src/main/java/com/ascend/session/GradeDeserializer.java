@@ -9,16 +9,11 @@ public class GradeDeserializer extends JsonDeserializer<Grade> {
     @Override
     public Grade deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
         String value = p.getText();
-        // Try enum name first
-        try {
-            return Grade.valueOf(value);
-        } catch (IllegalArgumentException e) {
-            // Try display value
-            try {
-                return Grade.fromString(value);
-            } catch (IllegalArgumentException ex) {
-                throw ctxt.weirdStringException(value, Grade.class, "Invalid grade: " + value);
-            }
+        // Enum name or display value, resolved by table lookup without exceptions
+        Grade grade = Grade.lookup(value);
+        if (grade == null) {
+            throw ctxt.weirdStringException(value, Grade.class, "Invalid grade: " + value);
         }
+        return grade;
     }
-} 
\ No newline at end of file
+}
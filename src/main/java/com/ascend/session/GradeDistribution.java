@@ -0,0 +1,30 @@
+package com.ascend.session;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * How one discipline's sessions spread across grades. Percentile grades use the nearest-rank
+ * method over grades ordered by difficulty and are null when there is nothing to rank.
+ */
+@Data
+@Builder
+public class GradeDistribution {
+    private int totalAttempts;
+    private int totalSends;
+    // Easiest first; grades with no sessions are left out
+    private List<GradeCount> grades;
+    private Grade medianGrade;
+    private Grade medianSendGrade;
+    private Grade p90SendGrade;
+
+    @Data
+    @Builder
+    public static class GradeCount {
+        private Grade grade;
+        private int attempts;
+        private int sends;
+    }
+}
@@ -0,0 +1,106 @@
+package com.ascend.session;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Attempt and send counters per discipline and grade, held in fixed {@code int[]} rows indexed
+ * by grade ordinal. Filling it is one increment per session or aggregate row, and reading the
+ * distribution is a walk over the few dozen grades.
+ */
+final class GradeHistogram {
+
+    private static final SessionDiscipline[] DISCIPLINES = SessionDiscipline.values();
+    private static final Grade[] GRADES = Grade.values();
+
+    // Ordinals of every grade, easiest first; ties (e.g. V6 and 5.6) keep declaration order
+    private static final int[] BY_DIFFICULTY = Arrays.stream(GRADES)
+            .sorted(Comparator.comparingDouble(Grade::getNumericValue))
+            .mapToInt(Grade::ordinal)
+            .toArray();
+
+    private final int[][] attempts = new int[DISCIPLINES.length][GRADES.length];
+    private final int[][] sends = new int[DISCIPLINES.length][GRADES.length];
+
+    GradeHistogram add(SessionDiscipline discipline, Grade grade, boolean sent) {
+        return add(discipline.ordinal(), grade.ordinal(), sent);
+    }
+
+    GradeHistogram add(int discipline, int grade, boolean sent) {
+        attempts[discipline][grade]++;
+        if (sent) {
+            sends[discipline][grade]++;
+        }
+        return this;
+    }
+
+    GradeHistogram addAggregates(Iterable<GradeCountAggregate> aggregates) {
+        for (GradeCountAggregate aggregate : aggregates) {
+            int discipline = aggregate.getDiscipline().ordinal();
+            int grade = aggregate.getGrade().ordinal();
+            attempts[discipline][grade] += Math.toIntExact(aggregate.getAttemptCount());
+            sends[discipline][grade] += aggregate.getSendCount() != null ? Math.toIntExact(aggregate.getSendCount()) : 0;
+        }
+        return this;
+    }
+
+    /**
+     * The distribution for every discipline with at least one session.
+     */
+    Map<SessionDiscipline, GradeDistribution> toDistributions() {
+        Map<SessionDiscipline, GradeDistribution> distributions = new EnumMap<>(SessionDiscipline.class);
+        for (SessionDiscipline discipline : DISCIPLINES) {
+            int[] attemptRow = attempts[discipline.ordinal()];
+            int[] sendRow = sends[discipline.ordinal()];
+            int totalAttempts = Arrays.stream(attemptRow).sum();
+            if (totalAttempts == 0) {
+                continue;
+            }
+            int totalSends = Arrays.stream(sendRow).sum();
+
+            List<GradeDistribution.GradeCount> grades = new ArrayList<>();
+            for (int grade : BY_DIFFICULTY) {
+                if (attemptRow[grade] > 0) {
+                    grades.add(GradeDistribution.GradeCount.builder()
+                            .grade(GRADES[grade])
+                            .attempts(attemptRow[grade])
+                            .sends(sendRow[grade])
+                            .build());
+                }
+            }
+
+            distributions.put(discipline, GradeDistribution.builder()
+                    .totalAttempts(totalAttempts)
+                    .totalSends(totalSends)
+                    .grades(grades)
+                    .medianGrade(percentile(attemptRow, totalAttempts, 50))
+                    .medianSendGrade(percentile(sendRow, totalSends, 50))
+                    .p90SendGrade(percentile(sendRow, totalSends, 90))
+                    .build());
+        }
+        return distributions;
+    }
+
+    /**
+     * Nearest-rank percentile: the easiest grade at which the running count reaches
+     * {@code ceil(percent / 100 * total)}.
+     */
+    static Grade percentile(int[] counts, int total, int percent) {
+        if (total == 0) {
+            return null;
+        }
+        long rank = Math.max(1, ((long) total * percent + 99) / 100);
+        long seen = 0;
+        for (int grade : BY_DIFFICULTY) {
+            seen += counts[grade];
+            if (seen >= rank) {
+                return GRADES[grade];
+            }
+        }
+        throw new IllegalStateException("Counts do not add up to " + total);
+    }
+}
@@ -0,0 +1,33 @@
+package com.ascend.session;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Fills in grade_value for sessions that were stored before the column existed,
+ * so the SQL aggregates in {@link SessionRepository} see every row.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GradeValueBackfill implements CommandLineRunner {
+
+    private final SessionRepository sessionRepository;
+
+    @Override
+    @Transactional
+    public void run(String... args) {
+        if (!sessionRepository.existsByGradeValueIsNull()) {
+            return;
+        }
+
+        int updated = 0;
+        for (Grade grade : Grade.values()) {
+            updated += sessionRepository.backfillGradeValue(grade, grade.getNumericValue());
+        }
+        log.info("Backfilled grade_value for {} sessions", updated);
+    }
+}
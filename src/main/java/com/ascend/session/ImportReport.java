@@ -0,0 +1,30 @@
+package com.ascend.session;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import: totals plus the reason each rejected row was skipped.
+ */
+@Data
+@NoArgsConstructor
+public class ImportReport {
+    private int totalRows;
+    private int imported;
+    private int failed;
+    // Capped at app.sessions.import.max-reported-errors; failed always holds the full count
+    private List<RowError> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+
+    @Data
+    @AllArgsConstructor
+    public static class RowError {
+        // 1-based position of the row in the uploaded array or CSV body (header excluded)
+        private int row;
+        private String message;
+    }
+}
@@ -0,0 +1,107 @@
+package com.ascend.session;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Accumulates very large session histories in parallel. Input at or above {@code threshold}
+ * sessions is split into chunks that are accumulated on a dedicated {@link ForkJoinPool} and
+ * merged pairwise; smaller input, or any input when there is only one worker, is accumulated
+ * on the calling thread, where the cost of forking would outweigh the gain. The pool is separate from the common pool so analytics
+ * never compete with, or are starved by, unrelated parallel streams.
+ * <p>
+ * Off unless {@code threshold} is set: the size at which splitting starts to pay has not yet
+ * been measured on multi-core hardware (see BENCHMARKS.md).
+ */
+@Component
+public class ParallelAnalytics {
+
+    // Below this a chunk is not worth splitting further, however many workers are idle
+    private static final int MIN_CHUNK_SIZE = 4096;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    public ParallelAnalytics(@Value("${app.analytics.parallel.threads:0}") int threads,
+                             @Value("${app.analytics.parallel.threshold:0}") int threshold) {
+        int parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(parallelism, pool -> {
+            var worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            worker.setName("analytics-" + worker.getPoolIndex());
+            return worker;
+        }, null, false);
+        // A single worker can only add forking and merging to the same sequential work
+        this.threshold = parallelism > 1 && threshold > 0 ? threshold : Integer.MAX_VALUE;
+    }
+
+    public AnalyticsAccumulator accumulate(List<Session> sessions) {
+        if (sessions.size() < threshold) {
+            return new AnalyticsAccumulator().addSessions(sessions);
+        }
+        return pool.invoke(new Chunk((from, to) -> new AnalyticsAccumulator().addSessions(sessions.subList(from, to)),
+                chunkSize(sessions.size()), 0, sessions.size()));
+    }
+
+    AnalyticsAccumulator accumulate(SessionColumns columns, DateRange range) {
+        int start = columns.startOf(range);
+        int end = columns.endOf(range);
+        if (end - start < threshold) {
+            return columns.accumulate(new AnalyticsAccumulator(), start, end);
+        }
+        return pool.invoke(new Chunk((from, to) -> columns.accumulate(new AnalyticsAccumulator(), from, to),
+                chunkSize(end - start), start, end));
+    }
+
+    /**
+     * Aims for a few chunks per worker so an unlucky slow chunk doesn't hold up the merge.
+     */
+    private int chunkSize(int size) {
+        return Math.max(MIN_CHUNK_SIZE, size / (pool.getParallelism() * 4) + 1);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @FunctionalInterface
+    private interface Leaf {
+        AnalyticsAccumulator accumulate(int start, int end);
+    }
+
+    /**
+     * Splits {@code [start, end)} in halves down to {@code chunkSize}, accumulating leaves
+     * sequentially and merging the right half into the left on the way back up.
+     */
+    private static final class Chunk extends RecursiveTask<AnalyticsAccumulator> {
+
+        private final Leaf leaf;
+        private final int chunkSize;
+        private final int start;
+        private final int end;
+
+        Chunk(Leaf leaf, int chunkSize, int start, int end) {
+            this.leaf = leaf;
+            this.chunkSize = chunkSize;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected AnalyticsAccumulator compute() {
+            if (end - start <= chunkSize) {
+                return leaf.accumulate(start, end);
+            }
+            int middle = (start + end) >>> 1;
+            Chunk left = new Chunk(leaf, chunkSize, start, middle);
+            left.fork();
+            AnalyticsAccumulator right = new Chunk(leaf, chunkSize, middle, end).compute();
+            return left.join().merge(right);
+        }
+    }
+}
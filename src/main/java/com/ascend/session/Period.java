@@ -1,8 +1,32 @@
 package com.ascend.session;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
 public enum Period {
     WEEK,
     MONTH,
     YEAR,
-    ALL_TIME
-} 
\ No newline at end of file
+    ALL_TIME;
+
+    /**
+     * Returns the calendar window of this period that contains {@code today}.
+     * Weeks follow ISO-8601 and start on Monday.
+     */
+    public DateRange toDateRange(LocalDate today) {
+        switch (this) {
+            case WEEK:
+                LocalDate monday = today.with(DayOfWeek.MONDAY);
+                return DateRange.of(monday, monday.plusWeeks(1));
+            case MONTH:
+                LocalDate firstOfMonth = today.withDayOfMonth(1);
+                return DateRange.of(firstOfMonth, firstOfMonth.plusMonths(1));
+            case YEAR:
+                LocalDate firstOfYear = today.withDayOfYear(1);
+                return DateRange.of(firstOfYear, firstOfYear.plusYears(1));
+            case ALL_TIME:
+            default:
+                return DateRange.allTime();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.ascend.session;
 
+import com.ascend.config.TimeOrderedUuid;
 import com.ascend.user.User;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
@@ -13,11 +14,14 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "sessions")
+@Table(name = "sessions", indexes = {
+        @Index(name = "idx_sessions_user_date_id", columnList = "user_id, date, id"),
+        @Index(name = "idx_sessions_user_discipline_date_id", columnList = "user_id, discipline, date, id")
+})
 public class Session {
 
     @Id
-    @GeneratedValue
+    @TimeOrderedUuid
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -29,7 +33,7 @@ public class Session {
     @Column(nullable = false)
     private SessionDiscipline discipline;
 
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = GradeConverter.class)
     @Column(nullable = false)
     private Grade grade;
 
@@ -41,4 +45,15 @@ public class Session {
 
     @Column(nullable = false)
     private boolean sent;
+
+    // Numeric value of the grade, denormalized so that SQL can sum and average grades
+    @Column(name = "grade_value")
+    @JsonIgnore
+    private Double gradeValue;
+
+    @PrePersist
+    @PreUpdate
+    void syncGradeValue() {
+        gradeValue = grade != null ? grade.getNumericValue() : null;
+    }
 }
@@ -0,0 +1,152 @@
+package com.ascend.session;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * One user's climbing days, kept sorted by epoch day together with the maximal runs of
+ * consecutive days they form and a count of runs by length. Adding or removing a session
+ * touches only its own day and the one or two runs around it, so streaks grow, merge, shrink
+ * and split in O(log n) without rescanning the history.
+ * <p>
+ * Mutable and not thread-safe; {@link ActivityTracker} serializes access.
+ */
+final class SessionActivity {
+
+    private static final int SESSIONS = 0;
+    private static final int SENDS = 1;
+
+    // epoch day -> {sessions, sends}; only days with at least one session are present
+    private final TreeMap<Integer, int[]> days = new TreeMap<>();
+    // first day of each run -> last day of the run, inclusive
+    private final TreeMap<Integer, Integer> runs = new TreeMap<>();
+    // run length -> number of runs with that length
+    private final TreeMap<Integer, Integer> runLengths = new TreeMap<>();
+
+    static SessionActivity of(Iterable<DailyActivity> daily) {
+        SessionActivity activity = new SessionActivity();
+        for (DailyActivity day : daily) {
+            activity.add((int) day.getDate().toEpochDay(), Math.toIntExact(day.getSessionCount()),
+                    day.getSendCount() != null ? Math.toIntExact(day.getSendCount()) : 0);
+        }
+        return activity;
+    }
+
+    void add(SessionSnapshot session) {
+        add((int) session.getDate().toEpochDay(), 1, session.isSent() ? 1 : 0);
+    }
+
+    /**
+     * @return false if the user has no such session on record, leaving this unchanged
+     */
+    boolean remove(SessionSnapshot session) {
+        int day = (int) session.getDate().toEpochDay();
+        int[] counts = days.get(day);
+        // A send needs a send on that day to remove, anything else an unsent session
+        if (counts == null || (session.isSent() ? counts[SENDS] == 0 : counts[SESSIONS] == counts[SENDS])) {
+            return false;
+        }
+        counts[SESSIONS]--;
+        if (session.isSent()) {
+            counts[SENDS]--;
+        }
+        if (counts[SESSIONS] == 0) {
+            days.remove(day);
+            removeDayFromRun(day);
+        }
+        return true;
+    }
+
+    ActivityStats stats(LocalDate today) {
+        int day = (int) today.toEpochDay();
+        return ActivityStats.builder()
+                .currentStreak(currentStreak(day))
+                .longestStreak(runLengths.isEmpty() ? 0 : runLengths.lastKey())
+                .lastSessionDate(lastDayOnOrBefore(day))
+                .sessionsLast7Days(sum(day, 7, SESSIONS))
+                .sessionsLast30Days(sum(day, 30, SESSIONS))
+                .sessionsLast90Days(sum(day, 90, SESSIONS))
+                .sendsLast30Days(sum(day, 30, SENDS))
+                .build();
+    }
+
+    private void add(int day, int sessions, int sends) {
+        int[] counts = days.get(day);
+        if (counts == null) {
+            days.put(day, new int[]{sessions, sends});
+            addDayToRun(day);
+        } else {
+            counts[SESSIONS] += sessions;
+            counts[SENDS] += sends;
+        }
+    }
+
+    private void addDayToRun(int day) {
+        Map.Entry<Integer, Integer> before = runs.floorEntry(day - 1);
+        boolean joinsBefore = before != null && before.getValue() == day - 1;
+        Integer afterEnd = runs.get(day + 1);
+
+        int start = day;
+        int end = day;
+        if (joinsBefore) {
+            start = before.getKey();
+            removeRun(start, before.getValue());
+        }
+        if (afterEnd != null) {
+            end = afterEnd;
+            removeRun(day + 1, afterEnd);
+        }
+        addRun(start, end);
+    }
+
+    private void removeDayFromRun(int day) {
+        Map.Entry<Integer, Integer> run = runs.floorEntry(day);
+        int start = run.getKey();
+        int end = run.getValue();
+        removeRun(start, end);
+        if (start < day) {
+            addRun(start, day - 1);
+        }
+        if (day < end) {
+            addRun(day + 1, end);
+        }
+    }
+
+    private void addRun(int start, int end) {
+        runs.put(start, end);
+        runLengths.merge(end - start + 1, 1, Integer::sum);
+    }
+
+    private void removeRun(int start, int end) {
+        runs.remove(start);
+        runLengths.computeIfPresent(end - start + 1, (length, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private int currentStreak(int today) {
+        // A streak that reached yesterday is still alive until today ends
+        for (int day = today; day >= today - 1; day--) {
+            Map.Entry<Integer, Integer> run = runs.floorEntry(day);
+            if (run != null && run.getValue() >= day) {
+                return day - run.getKey() + 1;
+            }
+        }
+        return 0;
+    }
+
+    private LocalDate lastDayOnOrBefore(int today) {
+        Integer day = days.floorKey(today);
+        return day != null ? LocalDate.ofEpochDay(day) : null;
+    }
+
+    /**
+     * Total of one counter over the {@code length} days ending with {@code today}.
+     */
+    private int sum(int today, int length, int counter) {
+        int total = 0;
+        for (int[] counts : days.subMap(today - length + 1, true, today, true).values()) {
+            total += counts[counter];
+        }
+        return total;
+    }
+}
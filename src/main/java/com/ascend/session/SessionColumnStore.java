@@ -0,0 +1,229 @@
+package com.ascend.session;
+
+import com.ascend.user.UserDataVersions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process store of {@link SessionColumns} and {@link SessionTimeIndex SessionTimeIndexes} for
+ * recently active users, so analytics can be answered without a database round trip. The columns
+ * are optional ({@code app.analytics.columnar.enabled}); the time index, which is much smaller,
+ * is kept by default ({@code app.analytics.time-index.enabled}), on its own when the columns are
+ * off. Entries are loaded on first use, evicted least-recently-used once their estimated size
+ * exceeds {@code max-bytes}, and moved forward by {@link SessionService} writes as each write
+ * commits.
+ * <p>
+ * Every entry is pinned to the {@link UserDataVersions data version} it reflects. A write that
+ * does not follow directly on that version, or a load that overlapped a write, drops the
+ * entry instead of risking a stale copy.
+ */
+@Slf4j
+@Component
+public class SessionColumnStore {
+
+    // The time index is built on first use and then kept up to date alongside the columns;
+    // with the columns disabled, entries hold the index alone
+    private record Entry(SessionColumns columns, SessionTimeIndex index, long version) {
+        long estimatedBytes() {
+            return (columns != null ? columns.estimatedBytes() : 0) + (index != null ? index.estimatedBytes() : 0);
+        }
+    }
+
+    private final SessionRepository sessionRepository;
+    private final UserDataVersions dataVersions;
+    private final boolean enabled;
+    private final boolean timeIndexEnabled;
+    private final long maxBytes;
+
+    // Access-ordered for LRU eviction; entries and totalBytes are guarded by entries
+    private final LinkedHashMap<UUID, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public SessionColumnStore(SessionRepository sessionRepository,
+                              UserDataVersions dataVersions,
+                              @Value("${app.analytics.columnar.enabled:false}") boolean enabled,
+                              @Value("${app.analytics.time-index.enabled:true}") boolean timeIndexEnabled,
+                              @Value("${app.analytics.columnar.max-bytes:67108864}") long maxBytes) {
+        this.sessionRepository = sessionRepository;
+        this.dataVersions = dataVersions;
+        this.enabled = enabled;
+        this.timeIndexEnabled = timeIndexEnabled;
+        this.maxBytes = maxBytes;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the user's columns at the current data version, loading them if needed, or null
+     * when the store is disabled.
+     */
+    SessionColumns get(UUID userId) {
+        if (!enabled) {
+            return null;
+        }
+
+        long version = dataVersions.current(userId);
+        synchronized (entries) {
+            Entry entry = entries.get(userId);
+            if (entry != null && entry.version() == version) {
+                hits.incrementAndGet();
+                return entry.columns();
+            }
+        }
+
+        loads.incrementAndGet();
+        SessionColumns columns = SessionColumns.of(sessionRepository.findSnapshotsByUserId(userId));
+        synchronized (entries) {
+            // A write that committed during the load may or may not be in it; don't keep it
+            if (dataVersions.current(userId) == version) {
+                put(userId, new Entry(columns, null, version));
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Returns the prefix-sum index over the user's sessions at the current data version,
+     * building it from the columns if needed, or null when the index is disabled.
+     */
+    SessionTimeIndex getTimeIndex(UUID userId) {
+        if (!timeIndexEnabled) {
+            return null;
+        }
+        if (!enabled) {
+            return getIndexOnly(userId);
+        }
+
+        SessionColumns columns = get(userId);
+        if (columns == null) {
+            return null;
+        }
+        synchronized (entries) {
+            Entry entry = entries.get(userId);
+            if (entry != null && entry.columns() == columns && entry.index() != null) {
+                return entry.index();
+            }
+        }
+
+        SessionTimeIndex index = SessionTimeIndex.of(columns);
+        synchronized (entries) {
+            // Only attach it to the columns it was built from
+            Entry entry = entries.get(userId);
+            if (entry != null && entry.columns() == columns && entry.index() == null) {
+                put(userId, new Entry(columns, index, entry.version()));
+            }
+        }
+        return index;
+    }
+
+    private SessionTimeIndex getIndexOnly(UUID userId) {
+        long version = dataVersions.current(userId);
+        synchronized (entries) {
+            Entry entry = entries.get(userId);
+            if (entry != null && entry.version() == version) {
+                hits.incrementAndGet();
+                return entry.index();
+            }
+        }
+
+        loads.incrementAndGet();
+        // The columns are only a step towards the index and are not kept
+        SessionTimeIndex index = SessionTimeIndex.of(SessionColumns.of(sessionRepository.findSnapshotsByUserId(userId)));
+        synchronized (entries) {
+            if (dataVersions.current(userId) == version) {
+                put(userId, new Entry(null, index, version));
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Moves the user's columns from {@code previousVersion} to {@code version} by applying one
+     * committed write; see {@link UserDataVersions.Transition}.
+     */
+    void apply(UUID userId, long previousVersion, long version,
+               Collection<SessionSnapshot> removed, Collection<SessionSnapshot> added) {
+        if (!enabled && !timeIndexEnabled) {
+            return;
+        }
+        synchronized (entries) {
+            Entry entry = entries.get(userId);
+            if (entry == null) {
+                return;
+            }
+            if (previousVersion < 0 || entry.version() != previousVersion) {
+                remove(userId);
+                return;
+            }
+            SessionColumns columns = null;
+            if (entry.columns() != null) {
+                columns = entry.columns().apply(removed, added);
+                if (columns == null) {
+                    remove(userId);
+                    return;
+                }
+            }
+            SessionTimeIndex index = entry.index() != null ? entry.index().apply(removed, added) : null;
+            put(userId, new Entry(columns, index, version));
+        }
+    }
+
+    public Stats stats() {
+        synchronized (entries) {
+            return new Stats(hits.get(), loads.get(), evictions.get(), entries.size(), totalBytes);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.cache.stats-log-interval-ms:900000}",
+            initialDelayString = "${app.analytics.cache.stats-log-interval-ms:900000}")
+    public void logStats() {
+        if (enabled || timeIndexEnabled) {
+            log.info("Session column store: {}", stats());
+        }
+    }
+
+    private void put(UUID userId, Entry entry) {
+        remove(userId);
+        long bytes = entry.estimatedBytes();
+        if (bytes > maxBytes) {
+            // Larger than the whole budget: serve it this once but don't keep it
+            return;
+        }
+        entries.put(userId, entry);
+        totalBytes += bytes;
+
+        // The new entry is the most recently used, so it is never reached here
+        var eldest = entries.values().iterator();
+        while (totalBytes > maxBytes) {
+            totalBytes -= eldest.next().estimatedBytes();
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void remove(UUID userId) {
+        Entry removed = entries.remove(userId);
+        if (removed != null) {
+            totalBytes -= removed.estimatedBytes();
+        }
+    }
+
+    /**
+     * Point-in-time counters; {@code bytes} is the estimated size of all stored columns and indexes.
+     */
+    public record Stats(long hits, long loads, long evictions, int users, long bytes) {
+    }
+}
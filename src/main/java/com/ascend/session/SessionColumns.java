@@ -0,0 +1,205 @@
+package com.ascend.session;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable column-oriented copy of one user's sessions, holding only what analytics read:
+ * epoch day, grade and discipline ordinals and a sent bitset, sorted by day. A date window is
+ * a contiguous slice found by binary search.
+ * <p>
+ * Each session costs 6.125 bytes of payload (4 + 1 + 1 bytes and one bit), against hundreds
+ * of bytes for a managed {@link Session} entity with its dates, UUIDs, notes and Hibernate
+ * bookkeeping. Writes produce a new instance rather than mutating this one.
+ */
+final class SessionColumns {
+
+    private static final SessionDiscipline[] DISCIPLINES = SessionDiscipline.values();
+    private static final Grade[] GRADES = Grade.values();
+
+    // Object header and fields, plus four array headers
+    private static final long FIXED_OVERHEAD_BYTES = 32 + 4 * 16;
+
+    static final SessionColumns EMPTY = new SessionColumns(new int[0], new byte[0], new byte[0], new long[0]);
+
+    private final int[] epochDays;
+    private final byte[] grades;
+    private final byte[] disciplines;
+    private final long[] sent;
+
+    private SessionColumns(int[] epochDays, byte[] grades, byte[] disciplines, long[] sent) {
+        this.epochDays = epochDays;
+        this.grades = grades;
+        this.disciplines = disciplines;
+        this.sent = sent;
+    }
+
+    static SessionColumns of(Collection<SessionSnapshot> snapshots) {
+        return EMPTY.apply(List.of(), snapshots);
+    }
+
+    int size() {
+        return epochDays.length;
+    }
+
+    long estimatedBytes() {
+        return FIXED_OVERHEAD_BYTES + epochDays.length * 6L + sent.length * 8L;
+    }
+
+    /**
+     * Folds the sessions dated within {@code range} into the accumulator.
+     */
+    AnalyticsAccumulator accumulate(AnalyticsAccumulator accumulator, DateRange range) {
+        return accumulate(accumulator, startOf(range), endOf(range));
+    }
+
+    /**
+     * Folds the rows {@code [start, end)} into the accumulator, for callers that split a
+     * window into chunks.
+     */
+    AnalyticsAccumulator accumulate(AnalyticsAccumulator accumulator, int start, int end) {
+        int day = Integer.MIN_VALUE;
+        int weekKey = 0;
+        int monthKey = 0;
+        for (int i = start; i < end; i++) {
+            // Sorted by day, so the period keys only change when the day does
+            if (epochDays[i] != day) {
+                day = epochDays[i];
+                LocalDate date = LocalDate.ofEpochDay(day);
+                weekKey = AnalyticsAccumulator.weekKey(date);
+                monthKey = AnalyticsAccumulator.monthKey(date);
+            }
+            accumulator.add(DISCIPLINES[disciplines[i]], GRADES[grades[i]], weekKey, monthKey, isSent(i));
+        }
+        return accumulator;
+    }
+
+    /**
+     * Index of the first row dated within {@code range}.
+     */
+    int startOf(DateRange range) {
+        return lowerBound(range.getFrom().toEpochDay());
+    }
+
+    /**
+     * Index just past the last row dated within {@code range}.
+     */
+    int endOf(DateRange range) {
+        return lowerBound(range.getTo().toEpochDay());
+    }
+
+    /**
+     * Counts the sessions dated within {@code range} into the histogram.
+     */
+    GradeHistogram countGrades(GradeHistogram histogram, DateRange range) {
+        int end = endOf(range);
+        for (int i = startOf(range); i < end; i++) {
+            histogram.add(disciplines[i], grades[i], isSent(i));
+        }
+        return histogram;
+    }
+
+    /**
+     * Returns a copy with {@code removed} taken out and {@code added} merged in. A removed
+     * snapshot matches any row with the same fields, since analytics cannot tell them apart.
+     *
+     * @return the new columns, or null if a removed snapshot has no matching row
+     */
+    SessionColumns apply(Collection<SessionSnapshot> removed, Collection<SessionSnapshot> added) {
+        boolean[] drop = new boolean[epochDays.length];
+        for (SessionSnapshot snapshot : removed) {
+            int i = indexOf(snapshot, drop);
+            if (i < 0) {
+                return null;
+            }
+            drop[i] = true;
+        }
+
+        SessionSnapshot[] incoming = added.toArray(new SessionSnapshot[0]);
+        Arrays.sort(incoming, (a, b) -> a.getDate().compareTo(b.getDate()));
+
+        int size = epochDays.length - removed.size() + incoming.length;
+        int[] newDays = new int[size];
+        byte[] newGrades = new byte[size];
+        byte[] newDisciplines = new byte[size];
+        long[] newSent = new long[(size + 63) >>> 6];
+
+        // Merge the surviving rows with the sorted additions, both in day order
+        int out = 0;
+        int next = 0;
+        for (int i = 0; i <= epochDays.length; i++) {
+            int day = i < epochDays.length ? epochDays[i] : Integer.MAX_VALUE;
+            while (next < incoming.length && toDay(incoming[next]) <= day) {
+                SessionSnapshot snapshot = incoming[next++];
+                newDays[out] = toDay(snapshot);
+                newGrades[out] = (byte) snapshot.getGrade().ordinal();
+                newDisciplines[out] = (byte) snapshot.getDiscipline().ordinal();
+                if (snapshot.isSent()) {
+                    newSent[out >>> 6] |= 1L << out;
+                }
+                out++;
+            }
+            if (i < epochDays.length && !drop[i]) {
+                newDays[out] = epochDays[i];
+                newGrades[out] = grades[i];
+                newDisciplines[out] = disciplines[i];
+                if (isSent(i)) {
+                    newSent[out >>> 6] |= 1L << out;
+                }
+                out++;
+            }
+        }
+        return new SessionColumns(newDays, newGrades, newDisciplines, newSent);
+    }
+
+    int epochDay(int i) {
+        return epochDays[i];
+    }
+
+    int gradeOrdinal(int i) {
+        return grades[i];
+    }
+
+    int disciplineOrdinal(int i) {
+        return disciplines[i];
+    }
+
+    boolean isSent(int i) {
+        return (sent[i >>> 6] & (1L << i)) != 0;
+    }
+
+    private int indexOf(SessionSnapshot snapshot, boolean[] drop) {
+        int day = toDay(snapshot);
+        byte grade = (byte) snapshot.getGrade().ordinal();
+        byte discipline = (byte) snapshot.getDiscipline().ordinal();
+        for (int i = lowerBound(day); i < epochDays.length && epochDays[i] == day; i++) {
+            if (!drop[i] && grades[i] == grade && disciplines[i] == discipline && isSent(i) == snapshot.isSent()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Index of the first session dated on or after {@code epochDay}.
+     */
+    private int lowerBound(long epochDay) {
+        int low = 0;
+        int high = epochDays.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochDays[mid] < epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int toDay(SessionSnapshot snapshot) {
+        return (int) snapshot.getDate().toEpochDay();
+    }
+}
@@ -1,11 +1,21 @@
 package com.ascend.session;
 
-import com.ascend.auth.JwtService;
+import com.ascend.auth.AuthenticatedUser;
+import com.ascend.config.ConditionalResponses;
+import com.ascend.user.UserDataVersions;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
@@ -18,69 +28,135 @@ import java.util.Map;
 public class SessionController {
 
     private final SessionService sessionService;
-    private final JwtService jwtService;
+    private final SessionExportService sessionExportService;
+    private final SessionImportService sessionImportService;
+    private final UserDataVersions dataVersions;
+    private final SessionWriteBehind sessionWriteBehind;
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     @PostMapping
     public ResponseEntity<Session> createSession(@Valid @RequestBody CreateSessionRequest request,
-                                 @RequestHeader("Authorization") String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        UUID userId = jwtService.validateToken(token);
-        Session session = sessionService.createSession(userId, request);
+                                 AuthenticatedUser caller) {
+        UUID userId = caller.userId();
+        Session session = sessionWriteBehind.createSession(userId, request);
         return ResponseEntity.ok(session);
     }
 
+    /**
+     * Lists the user's sessions. Passing {@code limit} and/or {@code cursor} switches to keyset
+     * pagination (newest first); the token for the following page, if any, is returned in the
+     * {@value #NEXT_CURSOR_HEADER} response header. Responses carry an ETag, and a matching
+     * {@code If-None-Match} is answered with 304 without reading any sessions. Notes are included
+     * unless {@code includeNotes=false}, which leaves them out of the query and the response;
+     * {@code GET /{sessionId}} always has them.
+     */
     @GetMapping
-    public ResponseEntity<List<Session>> getUserSessions(
+    public ResponseEntity<List<SessionSummary>> getUserSessions(
             @RequestParam(required = false) SessionDiscipline discipline,
             @RequestParam(required = false) LocalDate date,
-            @RequestHeader("Authorization") String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        UUID userId = jwtService.validateToken(token);
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "true") boolean includeNotes,
+            AuthenticatedUser caller,
+            WebRequest webRequest) {
+        UUID userId = caller.userId();
+        return ConditionalResponses.withETag(webRequest, dataVersions.etag(userId),
+                () -> listSessions(userId, discipline, date, cursor, limit, includeNotes));
+    }
+
+    private ResponseEntity<List<SessionSummary>> listSessions(UUID userId, SessionDiscipline discipline, LocalDate date,
+                                                       String cursor, Integer limit, boolean includeNotes) {
+        if (cursor != null || limit != null) {
+            SessionPage page = sessionService.getSessionPage(userId, discipline, date, cursor, limit, includeNotes);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getSessions());
+        }
         
-        List<Session> sessions;
+        List<SessionSummary> sessions;
         if (discipline != null && date != null) {
             // Filter by both discipline and date
-            sessions = sessionService.getAllSessions(userId).stream()
+            sessions = sessionService.getAllSessions(userId, includeNotes).stream()
                     .filter(session -> session.getDiscipline() == discipline && session.getDate().equals(date))
                     .collect(Collectors.toList());
         } else if (discipline != null) {
-            sessions = sessionService.getSessionsByDiscipline(userId, discipline);
+            sessions = sessionService.getSessionsByDiscipline(userId, discipline, includeNotes);
         } else if (date != null) {
-            sessions = sessionService.getSessionsByDate(userId, date);
+            sessions = sessionService.getSessionsByDate(userId, date, includeNotes);
         } else {
-            sessions = sessionService.getAllSessions(userId);
+            sessions = sessionService.getAllSessions(userId, includeNotes);
         }
         
         return ResponseEntity.ok(sessions);
     }
 
+    /**
+     * Imports many sessions from a JSON array or CSV body (with a header row naming the
+     * discipline, grade, date, sent and optional notes columns). Invalid rows are skipped and
+     * reported; valid rows are saved.
+     */
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, "text/csv"})
+    public ResponseEntity<ImportReport> importSessions(
+            HttpServletRequest request,
+            AuthenticatedUser caller) throws IOException {
+        UUID userId = caller.userId();
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        ImportReport report = MediaType.APPLICATION_JSON.isCompatibleWith(contentType)
+                ? sessionImportService.importJson(userId, request.getInputStream())
+                : sessionImportService.importCsv(userId, request.getInputStream());
+        return ResponseEntity.ok(report);
+    }
+
+    /**
+     * Streams the user's full session history, oldest first, as NDJSON (default) or CSV,
+     * optionally gzip-compressed.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportSessions(
+            @RequestParam(required = false) String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            AuthenticatedUser caller) {
+        UUID userId = caller.userId();
+        ExportFormat exportFormat = ExportFormat.fromString(format);
+
+        String filename = "sessions." + exportFormat.getFileExtension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> sessionExportService.export(userId, exportFormat, gzip, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
     @GetMapping("/{sessionId}")
     public ResponseEntity<Session> getSessionById(
             @PathVariable UUID sessionId,
-            @RequestHeader("Authorization") String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        UUID userId = jwtService.validateToken(token);
+            AuthenticatedUser caller) {
+        UUID userId = caller.userId();
         Session session = sessionService.getSessionById(sessionId, userId);
         return ResponseEntity.ok(session);
     }
 
     @GetMapping("/discipline/{discipline}")
-    public ResponseEntity<List<Session>> getSessionsByDiscipline(
+    public ResponseEntity<List<SessionSummary>> getSessionsByDiscipline(
             @PathVariable SessionDiscipline discipline,
-            @RequestHeader("Authorization") String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        UUID userId = jwtService.validateToken(token);
-        List<Session> sessions = sessionService.getSessionsByDiscipline(userId, discipline);
+            @RequestParam(defaultValue = "true") boolean includeNotes,
+            AuthenticatedUser caller) {
+        UUID userId = caller.userId();
+        List<SessionSummary> sessions = sessionService.getSessionsByDiscipline(userId, discipline, includeNotes);
         return ResponseEntity.ok(sessions);
     }
 
     @GetMapping("/date/{date}")
-    public ResponseEntity<List<Session>> getSessionsByDate(
+    public ResponseEntity<List<SessionSummary>> getSessionsByDate(
             @PathVariable LocalDate date,
-            @RequestHeader("Authorization") String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        UUID userId = jwtService.validateToken(token);
-        List<Session> sessions = sessionService.getSessionsByDate(userId, date);
+            @RequestParam(defaultValue = "true") boolean includeNotes,
+            AuthenticatedUser caller) {
+        UUID userId = caller.userId();
+        List<SessionSummary> sessions = sessionService.getSessionsByDate(userId, date, includeNotes);
         return ResponseEntity.ok(sessions);
     }
 
@@ -88,9 +164,8 @@ public class SessionController {
     public ResponseEntity<Session> updateSession(
             @PathVariable UUID sessionId,
             @RequestBody UpdateSessionRequest request,
-            @RequestHeader("Authorization") String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        UUID userId = jwtService.validateToken(token);
+            AuthenticatedUser caller) {
+        UUID userId = caller.userId();
         Session session = sessionService.updateSession(sessionId, userId, request);
         return ResponseEntity.ok(session);
     }
@@ -99,9 +174,8 @@ public class SessionController {
     public ResponseEntity<Session> replaceSession(
             @PathVariable UUID sessionId,
             @Valid @RequestBody CreateSessionRequest request,
-            @RequestHeader("Authorization") String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        UUID userId = jwtService.validateToken(token);
+            AuthenticatedUser caller) {
+        UUID userId = caller.userId();
         Session session = sessionService.replaceSession(sessionId, userId, request);
         return ResponseEntity.ok(session);
     }
@@ -109,9 +183,8 @@ public class SessionController {
     @DeleteMapping("/{sessionId}")
     public ResponseEntity<Void> deleteSession(
             @PathVariable UUID sessionId,
-            @RequestHeader("Authorization") String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        UUID userId = jwtService.validateToken(token);
+            AuthenticatedUser caller) {
+        UUID userId = caller.userId();
         sessionService.deleteSession(sessionId, userId);
         return ResponseEntity.noContent().build();
     }
@@ -119,56 +192,131 @@ public class SessionController {
     @GetMapping("/analytics")
     public ResponseEntity<SessionAnalytics> getAnalytics(
             @RequestParam(required = false) String period,
-            @RequestHeader("Authorization") String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        UUID userId = jwtService.validateToken(token);
-        SessionAnalytics analytics = sessionService.getAnalytics(userId, period);
-        return ResponseEntity.ok(analytics);
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            AuthenticatedUser caller,
+            WebRequest webRequest) {
+        UUID userId = caller.userId();
+        DateRange range = sessionService.resolveRange(period, from, to);
+        return ConditionalResponses.withETag(webRequest, dataVersions.etag(userId, range),
+                () -> ResponseEntity.ok(sessionService.getAnalytics(userId, range)));
     }
 
     @GetMapping("/stats/overview")
     public ResponseEntity<SessionAnalytics> getStatsOverview(
             @RequestParam(required = false) String period,
-            @RequestHeader("Authorization") String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        UUID userId = jwtService.validateToken(token);
-        SessionAnalytics analytics = sessionService.getAnalytics(userId, period);
-        return ResponseEntity.ok(analytics);
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            AuthenticatedUser caller,
+            WebRequest webRequest) {
+        UUID userId = caller.userId();
+        DateRange range = sessionService.resolveRange(period, from, to);
+        return ConditionalResponses.withETag(webRequest, dataVersions.etag(userId, range),
+                () -> ResponseEntity.ok(sessionService.getAnalytics(userId, range)));
     }
 
     @GetMapping("/stats/progress")
     public ResponseEntity<ProgressAnalytics> getProgressStats(
             @RequestParam(required = false) String period,
-            @RequestHeader("Authorization") String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        UUID userId = jwtService.validateToken(token);
-        ProgressAnalytics progress = sessionService.getProgressAnalytics(userId, period);
-        return ResponseEntity.ok(progress);
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            AuthenticatedUser caller,
+            WebRequest webRequest) {
+        UUID userId = caller.userId();
+        DateRange range = sessionService.resolveRange(period, from, to);
+        return ConditionalResponses.withETag(webRequest, dataVersions.etag(userId, range),
+                () -> ResponseEntity.ok(sessionService.getProgressAnalytics(userId, range)));
     }
 
     @GetMapping("/stats/highest")
     public ResponseEntity<Map<SessionDiscipline, Grade>> getHighestGrades(
             @RequestParam(required = false) String period,
-            @RequestHeader("Authorization") String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        UUID userId = jwtService.validateToken(token);
-        Map<SessionDiscipline, Grade> highestGrades = sessionService.getHighestGrades(userId, period);
-        return ResponseEntity.ok(highestGrades);
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            AuthenticatedUser caller,
+            WebRequest webRequest) {
+        UUID userId = caller.userId();
+        DateRange range = sessionService.resolveRange(period, from, to);
+        return ConditionalResponses.withETag(webRequest, dataVersions.etag(userId, range),
+                () -> ResponseEntity.ok(sessionService.getHighestGrades(userId, range)));
     }
 
     @GetMapping("/stats/average")
     public ResponseEntity<Map<SessionDiscipline, Double>> getAverageGrades(
             @RequestParam(required = false) String period,
-            @RequestHeader("Authorization") String authHeader) {
-        String token = authHeader.replace("Bearer ", "");
-        UUID userId = jwtService.validateToken(token);
-        Map<SessionDiscipline, Double> averageGrades = sessionService.getAverageGrades(userId, period);
-        return ResponseEntity.ok(averageGrades);
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            AuthenticatedUser caller,
+            WebRequest webRequest) {
+        UUID userId = caller.userId();
+        DateRange range = sessionService.resolveRange(period, from, to);
+        return ConditionalResponses.withETag(webRequest, dataVersions.etag(userId, range),
+                () -> ResponseEntity.ok(sessionService.getAverageGrades(userId, range)));
+    }
+
+    /**
+     * Overview, progress, highest and average grades in one response, for screens that would
+     * otherwise call each {@code /stats} endpoint in turn.
+     */
+    @GetMapping("/stats/dashboard")
+    public ResponseEntity<SessionDashboard> getDashboard(
+            @RequestParam(required = false) String period,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            AuthenticatedUser caller,
+            WebRequest webRequest) {
+        UUID userId = caller.userId();
+        DateRange range = sessionService.resolveRange(period, from, to);
+        return ConditionalResponses.withETag(webRequest, dataVersions.etag(userId, range),
+                () -> ResponseEntity.ok(sessionService.getDashboard(userId, range)));
+    }
+
+    /**
+     * Overview totals for an explicit window, both ends inclusive and either end open when
+     * omitted. Meant for a date-range slider, so every call is cheap and nothing is cached
+     * per window.
+     */
+    @GetMapping("/stats/range")
+    public ResponseEntity<SessionAnalytics> getRangeStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            AuthenticatedUser caller,
+            WebRequest webRequest) {
+        UUID userId = caller.userId();
+        DateRange range = DateRange.ofInclusive(from, to);
+        return ConditionalResponses.withETag(webRequest, dataVersions.etag(userId, range),
+                () -> ResponseEntity.ok(sessionService.getRangeStats(userId, range)));
+    }
+
+    @GetMapping("/stats/distribution")
+    public ResponseEntity<Map<SessionDiscipline, GradeDistribution>> getGradeDistribution(
+            @RequestParam(required = false) String period,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            AuthenticatedUser caller,
+            WebRequest webRequest) {
+        UUID userId = caller.userId();
+        DateRange range = sessionService.resolveRange(period, from, to);
+        return ConditionalResponses.withETag(webRequest, dataVersions.etag(userId, range),
+                () -> ResponseEntity.ok(sessionService.getGradeDistribution(userId, range)));
+    }
+
+    /**
+     * Current and longest streaks and rolling 7/30/90-day activity for the profile screen.
+     */
+    @GetMapping("/stats/activity")
+    public ResponseEntity<ActivityStats> getActivity(
+            AuthenticatedUser caller,
+            WebRequest webRequest) {
+        UUID userId = caller.userId();
+        // Rolling windows move with the date even when the data doesn't
+        return ConditionalResponses.withETag(webRequest, dataVersions.etag(userId, LocalDate.now()),
+                () -> ResponseEntity.ok(sessionService.getActivity(userId)));
     }
 
     @GetMapping("/grades/{discipline}")
-    public ResponseEntity<Grade[]> getGradesForDiscipline(@PathVariable SessionDiscipline discipline) {
-        Grade[] grades = GradeUtils.getGradesForDiscipline(discipline);
-        return ResponseEntity.ok(grades);
+    public ResponseEntity<List<Grade>> getGradesForDiscipline(@PathVariable SessionDiscipline discipline) {
+        // Immutable and shared; serializes exactly like the array this endpoint used to return
+        return ResponseEntity.ok(Grade.forDiscipline(discipline));
     }
 }
@@ -0,0 +1,50 @@
+package com.ascend.session;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in a user's session history, ordered newest first by {@code (date, id)}.
+ * Clients only ever see the opaque token produced by {@link #encode()}.
+ */
+@Getter
+@AllArgsConstructor
+public class SessionCursor {
+
+    private static final String VERSION = "v1";
+
+    /**
+     * Position before the newest possible session, used for the first page.
+     */
+    static final SessionCursor START = new SessionCursor(DateRange.MAX_DATE, new UUID(-1L, -1L));
+
+    private final LocalDate date;
+    private final UUID id;
+
+    public static SessionCursor after(SessionSummary session) {
+        return new SessionCursor(session.getDate(), session.getId());
+    }
+
+    public String encode() {
+        String raw = VERSION + ":" + date + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SessionCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Unsupported cursor format");
+            }
+            return new SessionCursor(LocalDate.parse(parts[1]), UUID.fromString(parts[2]));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.ascend.session;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * Everything the home screen shows, computed together from one read of the user's data.
+ */
+@Data
+@Builder
+public class SessionDashboard {
+    private SessionAnalytics overview;
+    private ProgressAnalytics progress;
+    private Map<SessionDiscipline, Grade> highestGrades;
+    // Only sent routes
+    private Map<SessionDiscipline, Double> averageGrades;
+}
@@ -0,0 +1,22 @@
+package com.ascend.session;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Flat, unmanaged view of a session used by the export stream, so that rows never
+ * accumulate in the persistence context however long the history is.
+ */
+@Data
+@AllArgsConstructor
+public class SessionExportRow {
+    private UUID id;
+    private LocalDate date;
+    private SessionDiscipline discipline;
+    private Grade grade;
+    private boolean sent;
+    private String notes;
+}
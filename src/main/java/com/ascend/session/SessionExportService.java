@@ -0,0 +1,123 @@
+package com.ascend.session;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes a user's full session history straight from a database cursor to an output
+ * stream, one row at a time, so memory use does not depend on the history size.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SessionExportService {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final String CSV_HEADER = "id,date,discipline,grade,sent,notes";
+
+    private final SessionRepository sessionRepository;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    /**
+     * Streams the export; must run on the thread that writes the response, since the
+     * database cursor only lives as long as this read-only transaction.
+     */
+    @Transactional(readOnly = true)
+    public long export(UUID userId, ExportFormat format, boolean gzip, OutputStream out) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE);
+
+        long count;
+        try (Stream<SessionExportRow> rows = sessionRepository.streamExportRows(userId)) {
+            count = format == ExportFormat.CSV ? writeCsv(rows.iterator(), writer) : writeNdjson(rows.iterator(), writer);
+        }
+
+        writer.flush();
+        if (target instanceof GZIPOutputStream gzipStream) {
+            gzipStream.finish();
+        }
+        log.debug("Exported {} sessions for user {} as {}", count, userId, format);
+        return count;
+    }
+
+    private long writeNdjson(Iterator<SessionExportRow> rows, Writer writer) throws IOException {
+        long count = 0;
+        JsonGenerator generator = jsonFactory.createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+        while (rows.hasNext()) {
+            SessionExportRow row = rows.next();
+            generator.writeStartObject();
+            generator.writeStringField("id", row.getId().toString());
+            generator.writeStringField("date", row.getDate().toString());
+            generator.writeStringField("discipline", row.getDiscipline().name());
+            generator.writeStringField("grade", row.getGrade().getDisplayValue());
+            generator.writeBooleanField("sent", row.isSent());
+            if (row.getNotes() != null) {
+                generator.writeStringField("notes", row.getNotes());
+            }
+            generator.writeEndObject();
+            count++;
+        }
+        if (count > 0) {
+            generator.writeRaw('\n');
+        }
+        generator.close();
+        return count;
+    }
+
+    private long writeCsv(Iterator<SessionExportRow> rows, Writer writer) throws IOException {
+        long count = 0;
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        while (rows.hasNext()) {
+            SessionExportRow row = rows.next();
+            writer.write(row.getId().toString());
+            writer.write(',');
+            writer.write(row.getDate().toString());
+            writer.write(',');
+            writer.write(row.getDiscipline().name());
+            writer.write(',');
+            writer.write(row.getGrade().getDisplayValue());
+            writer.write(',');
+            writer.write(row.isSent() ? "true" : "false");
+            writer.write(',');
+            writeCsvField(row.getNotes(), writer);
+            writer.write("\r\n");
+            count++;
+        }
+        return count;
+    }
+
+    // RFC 4180: quote fields containing separators, quotes or line breaks, doubling inner quotes
+    private void writeCsvField(String value, Writer writer) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        boolean needsQuotes = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,297 @@
+package com.ascend.session;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk session import from a streamed JSON array or CSV body. Rows are parsed and validated
+ * one at a time, and valid rows are written in fixed-size chunks, each in its own transaction,
+ * so that memory use is bounded by the chunk size rather than the upload size.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SessionImportService {
+
+    private static final List<String> REQUIRED_CSV_COLUMNS = List.of("discipline", "grade", "date", "sent");
+
+    private final SessionService sessionService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${app.sessions.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.sessions.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public ImportReport importJson(UUID userId, InputStream body) throws IOException {
+        ImportBatch batch = new ImportBatch(userId);
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new RuntimeException("Import body must be a JSON array of sessions");
+            }
+            int row = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (parser.currentToken() == null) {
+                    throw new RuntimeException("Import body ended before the JSON array was closed");
+                }
+                row++;
+                JsonNode node = parser.readValueAsTree();
+                try {
+                    batch.accept(row, objectMapper.treeToValue(node, CreateSessionRequest.class));
+                } catch (JsonProcessingException e) {
+                    batch.reject(row, describe(e));
+                }
+            }
+        } catch (JsonProcessingException e) {
+            // Rows before the syntax error are kept; nothing after it can be located reliably
+            batch.reject(batch.lastRow() + 1, "Malformed JSON, import stopped: " + e.getOriginalMessage());
+        }
+        return batch.finish();
+    }
+
+    public ImportReport importCsv(UUID userId, InputStream body) throws IOException {
+        ImportBatch batch = new ImportBatch(userId);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+
+        List<String> header = readCsvRecord(reader);
+        if (header == null) {
+            return batch.finish();
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        List<String> missing = REQUIRED_CSV_COLUMNS.stream()
+                .filter(column -> !columns.containsKey(column))
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            throw new RuntimeException("CSV header is missing required columns: " + String.join(", ", missing));
+        }
+
+        int row = 0;
+        try {
+            List<String> record;
+            while ((record = readCsvRecord(reader)) != null) {
+                row++;
+                try {
+                    batch.accept(row, toRequest(record, columns));
+                } catch (IllegalArgumentException e) {
+                    batch.reject(row, e.getMessage());
+                }
+            }
+        } catch (IllegalStateException e) {
+            batch.reject(row + 1, e.getMessage());
+        }
+        return batch.finish();
+    }
+
+    private CreateSessionRequest toRequest(List<String> record, Map<String, Integer> columns) {
+        CreateSessionRequest request = new CreateSessionRequest();
+
+        String discipline = field(record, columns, "discipline");
+        try {
+            request.setDiscipline(SessionDiscipline.valueOf(discipline.toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid discipline: " + discipline);
+        }
+
+        String grade = field(record, columns, "grade");
+        try {
+            request.setGrade(Grade.valueOf(grade));
+        } catch (IllegalArgumentException e) {
+            try {
+                request.setGrade(Grade.fromString(grade));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Invalid grade: " + grade);
+            }
+        }
+
+        String date = field(record, columns, "date");
+        try {
+            request.setDate(LocalDate.parse(date));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date: " + date);
+        }
+
+        String sent = field(record, columns, "sent");
+        if (!"true".equalsIgnoreCase(sent) && !"false".equalsIgnoreCase(sent)) {
+            throw new IllegalArgumentException("Invalid sent value: " + sent);
+        }
+        request.setSent(Boolean.parseBoolean(sent));
+
+        Integer notesColumn = columns.get("notes");
+        if (notesColumn != null && notesColumn < record.size() && !record.get(notesColumn).isEmpty()) {
+            request.setNotes(record.get(notesColumn));
+        }
+        return request;
+    }
+
+    private String field(List<String> record, Map<String, Integer> columns, String name) {
+        int index = columns.get(name);
+        String value = index < record.size() ? record.get(index).trim() : "";
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException("Missing " + name);
+        }
+        return value;
+    }
+
+    /**
+     * Reads one RFC 4180 record, which may span several lines when a quoted field contains
+     * line breaks. Blank lines are skipped; returns null at end of input.
+     */
+    private List<String> readCsvRecord(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        while (line != null && line.isEmpty()) {
+            line = reader.readLine();
+        }
+        if (line == null) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            if (!quoted) {
+                break;
+            }
+            line = reader.readLine();
+            if (line == null) {
+                throw new IllegalStateException("CSV ended inside a quoted field, import stopped");
+            }
+            field.append('\n');
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private String describe(JsonProcessingException e) {
+        if (e instanceof JsonMappingException mapping && !mapping.getPath().isEmpty()) {
+            String fieldName = mapping.getPath().get(mapping.getPath().size() - 1).getFieldName();
+            if (fieldName != null) {
+                return "Invalid " + fieldName;
+            }
+        }
+        return "Invalid session: " + e.getOriginalMessage();
+    }
+
+    /**
+     * Accumulates validated rows for one import and flushes them chunk by chunk.
+     */
+    private class ImportBatch {
+
+        private final UUID userId;
+        private final ImportReport report = new ImportReport();
+        private final List<CreateSessionRequest> chunk = new ArrayList<>();
+        private final List<Integer> chunkRows = new ArrayList<>();
+
+        ImportBatch(UUID userId) {
+            this.userId = userId;
+        }
+
+        void accept(int row, CreateSessionRequest request) {
+            report.setTotalRows(row);
+            Set<ConstraintViolation<CreateSessionRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                reject(row, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+            chunk.add(request);
+            chunkRows.add(row);
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        int lastRow() {
+            return report.getTotalRows();
+        }
+
+        void reject(int row, String message) {
+            report.setTotalRows(row);
+            report.setFailed(report.getFailed() + 1);
+            if (report.getErrors().size() < maxReportedErrors) {
+                report.getErrors().add(new ImportReport.RowError(row, message));
+            } else {
+                report.setErrorsTruncated(true);
+            }
+        }
+
+        ImportReport finish() {
+            flush();
+            log.info("Imported {} of {} sessions for user {}", report.getImported(), report.getTotalRows(), userId);
+            return report;
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            try {
+                report.setImported(report.getImported() + sessionService.createSessions(userId, chunk));
+            } catch (RuntimeException e) {
+                if ("User not found".equals(e.getMessage())) {
+                    throw e;
+                }
+                // The chunk's transaction rolled back as a whole
+                log.warn("Import chunk of {} sessions failed for user {}", chunk.size(), userId, e);
+                for (Integer row : chunkRows) {
+                    reject(row, "Could not be saved: " + e.getMessage());
+                }
+            }
+            chunk.clear();
+            chunkRows.clear();
+        }
+    }
+}
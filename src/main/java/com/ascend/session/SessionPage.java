@@ -0,0 +1,17 @@
+package com.ascend.session;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of a user's session history, newest first.
+ */
+@Data
+@AllArgsConstructor
+public class SessionPage {
+    private List<SessionSummary> sessions;
+    // Opaque token for the next page, null on the last page
+    private String nextCursor;
+}
@@ -1,12 +1,164 @@
 package com.ascend.session;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface SessionRepository extends JpaRepository<Session, UUID> {
-    List<Session> findByUserId(UUID userId);
-    List<Session> findByUserIdAndDiscipline(UUID userId, SessionDiscipline discipline);
-    List<Session> findByUserIdAndDate(UUID userId, java.time.LocalDate date);
+    // Spelled out because the derived findByUserId joins users, which hides idx_sessions_user_date_id
+    @Query("SELECT s FROM Session s WHERE s.user.id = :userId")
+    List<Session> findByUserId(@Param("userId") UUID userId);
+
+    // List endpoints read SessionSummary rows rather than entities. Notes, the widest column, are
+    // only returned when includeNotes is set; in the same query, so the list is still one statement
+    @Query("SELECT new com.ascend.session.SessionSummary(s.id, s.discipline, s.grade, s.date, " +
+            "CASE WHEN :includeNotes = true THEN s.notes ELSE NULL END, s.sent) " +
+            "FROM Session s WHERE s.user.id = :userId")
+    List<SessionSummary> findSummariesByUserId(@Param("userId") UUID userId,
+                                               @Param("includeNotes") boolean includeNotes);
+
+    @Query("SELECT new com.ascend.session.SessionSummary(s.id, s.discipline, s.grade, s.date, " +
+            "CASE WHEN :includeNotes = true THEN s.notes ELSE NULL END, s.sent) " +
+            "FROM Session s WHERE s.user.id = :userId AND s.discipline = :discipline")
+    List<SessionSummary> findSummariesByUserIdAndDiscipline(@Param("userId") UUID userId,
+                                                            @Param("discipline") SessionDiscipline discipline,
+                                                            @Param("includeNotes") boolean includeNotes);
+
+    @Query("SELECT new com.ascend.session.SessionSummary(s.id, s.discipline, s.grade, s.date, " +
+            "CASE WHEN :includeNotes = true THEN s.notes ELSE NULL END, s.sent) " +
+            "FROM Session s WHERE s.user.id = :userId AND s.date = :date")
+    List<SessionSummary> findSummariesByUserIdAndDate(@Param("userId") UUID userId, @Param("date") LocalDate date,
+                                                      @Param("includeNotes") boolean includeNotes);
+
+    @Query("SELECT s FROM Session s WHERE s.user.id = :userId AND s.date >= :from AND s.date < :to")
+    List<Session> findByUserIdInRange(@Param("userId") UUID userId,
+                                      @Param("from") LocalDate from,
+                                      @Param("to") LocalDate to);
+
+    // Keyset pages, newest first: rows strictly after (:date, :id) in (date DESC, id DESC) order,
+    // served by a range scan on idx_sessions_user_date_id
+    @Query("SELECT new com.ascend.session.SessionSummary(s.id, s.discipline, s.grade, s.date, " +
+            "CASE WHEN :includeNotes = true THEN s.notes ELSE NULL END, s.sent) " +
+            "FROM Session s WHERE s.user.id = :userId " +
+            "AND s.date >= :from AND s.date < :to " +
+            "AND s.date <= :date AND (s.date < :date OR s.id < :id) " +
+            "ORDER BY s.date DESC, s.id DESC")
+    List<SessionSummary> findPage(@Param("userId") UUID userId,
+                                  @Param("from") LocalDate from,
+                                  @Param("to") LocalDate to,
+                                  @Param("date") LocalDate date,
+                                  @Param("id") UUID id,
+                                  @Param("includeNotes") boolean includeNotes,
+                                  Pageable pageable);
+
+    @Query("SELECT new com.ascend.session.SessionSummary(s.id, s.discipline, s.grade, s.date, " +
+            "CASE WHEN :includeNotes = true THEN s.notes ELSE NULL END, s.sent) " +
+            "FROM Session s WHERE s.user.id = :userId AND s.discipline = :discipline " +
+            "AND s.date >= :from AND s.date < :to " +
+            "AND s.date <= :date AND (s.date < :date OR s.id < :id) " +
+            "ORDER BY s.date DESC, s.id DESC")
+    List<SessionSummary> findPageByDiscipline(@Param("userId") UUID userId,
+                                              @Param("discipline") SessionDiscipline discipline,
+                                              @Param("from") LocalDate from,
+                                              @Param("to") LocalDate to,
+                                              @Param("date") LocalDate date,
+                                              @Param("id") UUID id,
+                                              @Param("includeNotes") boolean includeNotes,
+                                              Pageable pageable);
+
+    // Forward-only cursor over unmanaged rows; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.ascend.session.SessionExportRow(s.id, s.date, s.discipline, s.grade, s.sent, s.notes) " +
+            "FROM Session s WHERE s.user.id = :userId ORDER BY s.date, s.id")
+    Stream<SessionExportRow> streamExportRows(@Param("userId") UUID userId);
+
+    // Only the columns analytics read, oldest first, for SessionColumnStore
+    @Query("SELECT new com.ascend.session.SessionSnapshot(s.discipline, s.grade, s.date, s.sent) " +
+            "FROM Session s WHERE s.user.id = :userId ORDER BY s.date")
+    List<SessionSnapshot> findSnapshotsByUserId(@Param("userId") UUID userId);
+
+    // One row per climbing day, oldest first, for ActivityTracker
+    @Query("SELECT new com.ascend.session.DailyActivity(s.date, COUNT(s), " +
+            "SUM(CASE WHEN s.sent = true THEN 1 ELSE 0 END)) " +
+            "FROM Session s WHERE s.user.id = :userId GROUP BY s.date ORDER BY s.date")
+    List<DailyActivity> findDailyActivity(@Param("userId") UUID userId);
+
+    @Query("SELECT new com.ascend.session.DisciplineAggregate(s.discipline, COUNT(s), SUM(s.gradeValue), " +
+            "SUM(CASE WHEN s.sent = true THEN 1 ELSE 0 END)) " +
+            "FROM Session s WHERE s.user.id = :userId GROUP BY s.discipline")
+    List<DisciplineAggregate> aggregateByDiscipline(@Param("userId") UUID userId);
+
+    @Query("SELECT new com.ascend.session.DisciplineAggregate(s.discipline, COUNT(s), SUM(s.gradeValue), " +
+            "SUM(CASE WHEN s.sent = true THEN 1 ELSE 0 END)) " +
+            "FROM Session s WHERE s.user.id = :userId AND s.date >= :from AND s.date < :to GROUP BY s.discipline")
+    List<DisciplineAggregate> aggregateByDisciplineInRange(@Param("userId") UUID userId,
+                                                           @Param("from") LocalDate from,
+                                                           @Param("to") LocalDate to);
+
+    @Query("SELECT new com.ascend.session.GradeCountAggregate(s.discipline, s.grade, COUNT(s), " +
+            "SUM(CASE WHEN s.sent = true THEN 1 ELSE 0 END)) " +
+            "FROM Session s WHERE s.user.id = :userId AND s.date >= :from AND s.date < :to " +
+            "GROUP BY s.discipline, s.grade")
+    List<GradeCountAggregate> countByGradeInRange(@Param("userId") UUID userId,
+                                                  @Param("from") LocalDate from,
+                                                  @Param("to") LocalDate to);
+
+    @Query("SELECT s.grade FROM Session s WHERE s.user.id = :userId AND s.discipline = :discipline " +
+            "AND s.date >= :from AND s.date < :to ORDER BY s.gradeValue DESC")
+    List<Grade> findGradesInRangeHighestFirst(@Param("userId") UUID userId,
+                                              @Param("discipline") SessionDiscipline discipline,
+                                              @Param("from") LocalDate from,
+                                              @Param("to") LocalDate to,
+                                              Pageable pageable);
+
+    // Ownership-checked reads and writes: the owner is part of the predicate, so another user's
+    // session is never matched and no User row is loaded to compare against
+    @Query("SELECT new com.ascend.session.SessionSnapshot(s.discipline, s.grade, s.date, s.sent) " +
+            "FROM Session s WHERE s.id = :id AND s.user.id = :userId")
+    Optional<SessionSnapshot> findOwnedSnapshot(@Param("id") UUID id, @Param("userId") UUID userId);
+
+    @Query("SELECT new com.ascend.session.SessionUpdateRow(s.discipline, s.grade, s.date, s.sent, s.notes) " +
+            "FROM Session s WHERE s.id = :id AND s.user.id = :userId")
+    Optional<SessionUpdateRow> findOwnedUpdateRow(@Param("id") UUID id, @Param("userId") UUID userId);
+
+    @Modifying
+    @Query("DELETE FROM Session s WHERE s.id = :id AND s.user.id = :userId")
+    int deleteOwned(@Param("id") UUID id, @Param("userId") UUID userId);
+
+    // Bulk updates skip entity callbacks, so gradeValue is passed in rather than derived
+    @Modifying
+    @Query("UPDATE Session s SET s.discipline = :discipline, s.grade = :grade, s.gradeValue = :gradeValue, " +
+            "s.date = :date, s.notes = :notes, s.sent = :sent WHERE s.id = :id AND s.user.id = :userId")
+    int updateOwned(@Param("id") UUID id,
+                    @Param("userId") UUID userId,
+                    @Param("discipline") SessionDiscipline discipline,
+                    @Param("grade") Grade grade,
+                    @Param("gradeValue") double gradeValue,
+                    @Param("date") LocalDate date,
+                    @Param("notes") String notes,
+                    @Param("sent") boolean sent);
+
+    @Query("SELECT s.id FROM Session s WHERE s.id IN :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT DISTINCT s.user.id FROM Session s")
+    List<UUID> findDistinctUserIds();
+
+    boolean existsByGradeValueIsNull();
+
+    @Modifying
+    @Query("UPDATE Session s SET s.gradeValue = :value WHERE s.grade = :grade AND s.gradeValue IS NULL")
+    int backfillGradeValue(@Param("grade") Grade grade, @Param("value") double value);
 }
@@ -0,0 +1,79 @@
+package com.ascend.session;
+
+import com.ascend.config.TimeOrderedUuid;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Pre-aggregated session totals for one user, discipline and bucket.
+ * A bucket is an ISO week clipped to calendar-month boundaries, so that week,
+ * month and year windows can all be answered by summing whole buckets.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "session_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_session_rollups_user_bucket_discipline",
+                columnNames = {"user_id", "bucket_start", "discipline"})
+})
+public class SessionRollup {
+
+    @Id
+    @TimeOrderedUuid
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private SessionDiscipline discipline;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDate bucketStart;
+
+    @Column(name = "session_count", nullable = false)
+    private int sessionCount;
+
+    @Column(name = "grade_value_sum", nullable = false)
+    private double gradeValueSum;
+
+    @Column(name = "sent_count", nullable = false)
+    private int sentCount;
+
+    @Column(name = "sent_grade_value_sum", nullable = false)
+    private double sentGradeValueSum;
+
+    @Convert(converter = GradeConverter.class)
+    @Column(name = "max_grade", nullable = false)
+    private Grade maxGrade;
+
+    /**
+     * First day of the bucket containing {@code date}: the later of its ISO week's Monday
+     * and the first day of its month.
+     */
+    public static LocalDate bucketStart(LocalDate date) {
+        LocalDate monday = date.with(DayOfWeek.MONDAY);
+        LocalDate firstOfMonth = date.withDayOfMonth(1);
+        return monday.isBefore(firstOfMonth) ? firstOfMonth : monday;
+    }
+
+    /**
+     * First day after the bucket that starts on {@code bucketStart}.
+     */
+    public static LocalDate bucketEnd(LocalDate bucketStart) {
+        LocalDate nextMonday = bucketStart.with(DayOfWeek.MONDAY).plusWeeks(1);
+        LocalDate nextMonth = bucketStart.withDayOfMonth(1).plusMonths(1);
+        return nextMonday.isBefore(nextMonth) ? nextMonday : nextMonth;
+    }
+
+    public static boolean isBucketBoundary(LocalDate date) {
+        return date.getDayOfWeek() == DayOfWeek.MONDAY || date.getDayOfMonth() == 1;
+    }
+}
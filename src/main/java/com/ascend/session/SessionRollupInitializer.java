@@ -0,0 +1,60 @@
+package com.ascend.session;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Builds session rollups for data written before the rollup table existed and,
+ * when enabled, checks every user's rollups against a full recompute on startup.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SessionRollupInitializer implements CommandLineRunner {
+
+    private final SessionRollupService rollupService;
+    private final SessionRollupRepository rollupRepository;
+    private final SessionRepository sessionRepository;
+
+    @Value("${app.analytics.rollup.verify-on-startup:false}")
+    private boolean verifyOnStartup;
+
+    @Override
+    public void run(String... args) {
+        if (rollupRepository.count() == 0 && sessionRepository.count() > 0) {
+            log.info("Building session rollups from existing sessions...");
+            int rollups = 0;
+            for (UUID userId : sessionRepository.findDistinctUserIds()) {
+                rollups += rollupService.rebuild(userId);
+            }
+            log.info("Built {} session rollups", rollups);
+        } else if (verifyOnStartup) {
+            verifyAndRepair();
+        }
+    }
+
+    void verifyAndRepair() {
+        // Users with rollups but no sessions left are included, so their orphaned rollups are removed
+        Set<UUID> userIds = new LinkedHashSet<>(sessionRepository.findDistinctUserIds());
+        userIds.addAll(rollupRepository.findDistinctUserIds());
+
+        int repaired = 0;
+        for (UUID userId : userIds) {
+            List<String> mismatches = rollupService.verify(userId);
+            if (!mismatches.isEmpty()) {
+                log.warn("Session rollups for user {} are inconsistent, rebuilding: {}", userId, mismatches);
+                rollupService.rebuild(userId);
+                repaired++;
+            }
+        }
+        log.info("Session rollup verification finished, {} users repaired", repaired);
+    }
+}
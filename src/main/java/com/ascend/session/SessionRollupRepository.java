@@ -0,0 +1,90 @@
+package com.ascend.session;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface SessionRollupRepository extends JpaRepository<SessionRollup, UUID> {
+
+    List<SessionRollup> findByUserIdOrderByBucketStart(UUID userId);
+
+    @Query("SELECT r FROM SessionRollup r WHERE r.userId = :userId AND r.bucketStart >= :from " +
+            "AND r.bucketStart < :to ORDER BY r.bucketStart")
+    List<SessionRollup> findByUserIdInRange(@Param("userId") UUID userId,
+                                            @Param("from") LocalDate from,
+                                            @Param("to") LocalDate to);
+
+    @Query("SELECT DISTINCT r.userId FROM SessionRollup r")
+    List<UUID> findDistinctUserIds();
+
+    @Modifying
+    @Query("DELETE FROM SessionRollup r WHERE r.userId = :userId")
+    int deleteByUserId(@Param("userId") UUID userId);
+
+    // Incremental writes go through the statements below rather than loaded entities. The UPDATE
+    // locks the bucket's row until the transaction ends, so writers to one bucket take turns
+    // instead of overwriting each other's totals.
+
+    @Modifying
+    @Query("UPDATE SessionRollup r SET r.sessionCount = r.sessionCount + :sessions, " +
+            "r.gradeValueSum = r.gradeValueSum + :gradeValueSum, r.sentCount = r.sentCount + :sent, " +
+            "r.sentGradeValueSum = r.sentGradeValueSum + :sentGradeValueSum " +
+            "WHERE r.userId = :userId AND r.discipline = :discipline AND r.bucketStart = :bucketStart")
+    int addTotals(@Param("userId") UUID userId,
+                  @Param("discipline") SessionDiscipline discipline,
+                  @Param("bucketStart") LocalDate bucketStart,
+                  @Param("sessions") int sessions,
+                  @Param("gradeValueSum") double gradeValueSum,
+                  @Param("sent") int sent,
+                  @Param("sentGradeValueSum") double sentGradeValueSum);
+
+    // Creates the bucket unless a concurrent transaction already did (uk_session_rollups_user_bucket_discipline);
+    // returns 0 in that case rather than failing the transaction
+    @Modifying
+    @Query(value = "INSERT INTO session_rollups (id, user_id, discipline, bucket_start, session_count, " +
+            "grade_value_sum, sent_count, sent_grade_value_sum, max_grade) " +
+            "VALUES (:id, :userId, :discipline, :bucketStart, :sessions, :gradeValueSum, :sent, " +
+            ":sentGradeValueSum, :maxGrade) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("id") UUID id,
+                       @Param("userId") UUID userId,
+                       @Param("discipline") String discipline,
+                       @Param("bucketStart") LocalDate bucketStart,
+                       @Param("sessions") int sessions,
+                       @Param("gradeValueSum") double gradeValueSum,
+                       @Param("sent") int sent,
+                       @Param("sentGradeValueSum") double sentGradeValueSum,
+                       @Param("maxGrade") short maxGrade);
+
+    @Query("SELECT r.sessionCount AS sessionCount, r.maxGrade AS maxGrade FROM SessionRollup r " +
+            "WHERE r.userId = :userId AND r.discipline = :discipline AND r.bucketStart = :bucketStart")
+    Optional<BucketState> findBucketState(@Param("userId") UUID userId,
+                                          @Param("discipline") SessionDiscipline discipline,
+                                          @Param("bucketStart") LocalDate bucketStart);
+
+    @Modifying
+    @Query("UPDATE SessionRollup r SET r.maxGrade = :maxGrade " +
+            "WHERE r.userId = :userId AND r.discipline = :discipline AND r.bucketStart = :bucketStart")
+    int updateMaxGrade(@Param("userId") UUID userId,
+                       @Param("discipline") SessionDiscipline discipline,
+                       @Param("bucketStart") LocalDate bucketStart,
+                       @Param("maxGrade") Grade maxGrade);
+
+    @Modifying
+    @Query("DELETE FROM SessionRollup r WHERE r.userId = :userId AND r.discipline = :discipline " +
+            "AND r.bucketStart = :bucketStart AND r.sessionCount <= 0")
+    int deleteIfEmpty(@Param("userId") UUID userId,
+                      @Param("discipline") SessionDiscipline discipline,
+                      @Param("bucketStart") LocalDate bucketStart);
+
+    interface BucketState {
+        int getSessionCount();
+
+        Grade getMaxGrade();
+    }
+}
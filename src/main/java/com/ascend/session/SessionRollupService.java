@@ -0,0 +1,298 @@
+package com.ascend.session;
+
+import com.ascend.config.UuidV7;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Maintains {@link SessionRollup} rows alongside session writes and answers analytics
+ * queries from them. Writes must run inside the caller's transaction and after the
+ * session change itself has been flushed, so that a bucket's max grade can be
+ * recomputed from the database when the current maximum is removed. Totals are changed
+ * with relative UPDATEs and new buckets are inserted with ON CONFLICT DO NOTHING, so
+ * concurrent first writes to a bucket neither lose counts nor fail on the unique key.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SessionRollupService {
+
+    private static final double EPSILON = 1e-6;
+    private static final Pageable FIRST = PageRequest.of(0, 1);
+    private static final int MERGE_ATTEMPTS = 3;
+
+    private final SessionRollupRepository rollupRepository;
+    private final SessionRepository sessionRepository;
+
+    @Value("${app.analytics.rollup.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Whether analytics for {@code range} can be answered from rollups: the range must
+     * start and end on bucket boundaries so that every bucket is either fully in or out.
+     */
+    public boolean canServe(DateRange range) {
+        if (!enabled) {
+            return false;
+        }
+        boolean fromAligned = DateRange.MIN_DATE.equals(range.getFrom()) || SessionRollup.isBucketBoundary(range.getFrom());
+        boolean toAligned = DateRange.MAX_DATE.equals(range.getTo()) || SessionRollup.isBucketBoundary(range.getTo());
+        return fromAligned && toAligned;
+    }
+
+    public List<SessionRollup> getRollups(UUID userId, DateRange range) {
+        if (range.isAllTime()) {
+            return rollupRepository.findByUserIdOrderByBucketStart(userId);
+        }
+        return rollupRepository.findByUserIdInRange(userId, range.getFrom(), range.getTo());
+    }
+
+    @Transactional
+    public void add(UUID userId, SessionSnapshot session) {
+        SessionRollup delta = emptyRollup(userId, session);
+        include(delta, session);
+        merge(delta);
+    }
+
+    /**
+     * Adds many sessions at once, touching each affected rollup row a single time. Buckets are
+     * written in key order so that concurrent batches lock shared rows in the same order.
+     */
+    @Transactional
+    public void addAll(UUID userId, Collection<SessionSnapshot> sessions) {
+        Map<RollupKey, SessionRollup> deltas = new TreeMap<>();
+        for (SessionSnapshot session : sessions) {
+            include(deltas.computeIfAbsent(RollupKey.of(session), key -> emptyRollup(userId, session)), session);
+        }
+        deltas.values().forEach(this::merge);
+    }
+
+    @Transactional
+    public void remove(UUID userId, SessionSnapshot session) {
+        RollupKey key = RollupKey.of(session);
+        if (!applyTotals(userId, key, session, -1)) {
+            log.warn("Missing session rollup for user {} ({} {}); rebuild required",
+                    userId, session.getDiscipline(), session.getDate());
+            return;
+        }
+        settle(userId, key, session.getGrade(), null);
+    }
+
+    @Transactional
+    public void replace(UUID userId, SessionSnapshot before, SessionSnapshot after) {
+        if (before.equals(after)) {
+            return;
+        }
+
+        RollupKey key = RollupKey.of(before);
+        if (!key.equals(RollupKey.of(after))) {
+            remove(userId, before);
+            add(userId, after);
+            return;
+        }
+
+        // Same bucket: adjust the row in place rather than deleting and re-inserting it
+        if (!applyTotals(userId, key, before, -1)) {
+            log.warn("Missing session rollup for user {} ({} {}); rebuild required",
+                    userId, before.getDiscipline(), before.getDate());
+            add(userId, after);
+            return;
+        }
+        applyTotals(userId, key, after, 1);
+        settle(userId, key, before.getGrade(), after.getGrade());
+    }
+
+    /**
+     * Recomputes all rollups of one user from their raw sessions.
+     */
+    @Transactional
+    public int rebuild(UUID userId) {
+        rollupRepository.deleteByUserId(userId);
+        List<SessionRollup> rollups = new ArrayList<>(recompute(userId).values());
+        rollupRepository.saveAll(rollups);
+        return rollups.size();
+    }
+
+    /**
+     * Compares the stored rollups of one user with a full recompute from raw sessions.
+     *
+     * @return a description of every mismatching bucket, empty when consistent
+     */
+    @Transactional(readOnly = true)
+    public List<String> verify(UUID userId) {
+        Map<RollupKey, SessionRollup> expected = recompute(userId);
+        Map<RollupKey, SessionRollup> actual = new HashMap<>();
+        for (SessionRollup rollup : rollupRepository.findByUserIdOrderByBucketStart(userId)) {
+            actual.put(RollupKey.of(rollup), rollup);
+        }
+
+        List<String> mismatches = new ArrayList<>();
+        for (Map.Entry<RollupKey, SessionRollup> entry : expected.entrySet()) {
+            SessionRollup stored = actual.remove(entry.getKey());
+            if (stored == null) {
+                mismatches.add("Missing rollup " + entry.getKey());
+            } else if (!sameTotals(stored, entry.getValue())) {
+                mismatches.add("Rollup " + entry.getKey() + " differs: stored " + describe(stored)
+                        + ", expected " + describe(entry.getValue()));
+            }
+        }
+        for (RollupKey orphan : actual.keySet()) {
+            mismatches.add("Unexpected rollup " + orphan);
+        }
+        return mismatches;
+    }
+
+    private Map<RollupKey, SessionRollup> recompute(UUID userId) {
+        return recompute(userId, sessionRepository.findByUserId(userId));
+    }
+
+    private Map<RollupKey, SessionRollup> recompute(UUID userId, Collection<Session> sessions) {
+        Map<RollupKey, SessionRollup> rollups = new HashMap<>();
+        for (Session session : sessions) {
+            SessionSnapshot snapshot = SessionSnapshot.of(session);
+            SessionRollup rollup = rollups.computeIfAbsent(RollupKey.of(snapshot),
+                    key -> emptyRollup(userId, snapshot));
+            include(rollup, snapshot);
+        }
+        return rollups;
+    }
+
+    private SessionRollup emptyRollup(UUID userId, SessionSnapshot session) {
+        return SessionRollup.builder()
+                .userId(userId)
+                .discipline(session.getDiscipline())
+                .bucketStart(SessionRollup.bucketStart(session.getDate()))
+                .build();
+    }
+
+    private void include(SessionRollup rollup, SessionSnapshot session) {
+        double gradeValue = session.getGradeValue();
+        if (rollup.getSessionCount() == 0 || gradeValue > rollup.getMaxGrade().getNumericValue()) {
+            rollup.setMaxGrade(session.getGrade());
+        }
+        rollup.setSessionCount(rollup.getSessionCount() + 1);
+        rollup.setGradeValueSum(rollup.getGradeValueSum() + gradeValue);
+        if (session.isSent()) {
+            rollup.setSentCount(rollup.getSentCount() + 1);
+            rollup.setSentGradeValueSum(rollup.getSentGradeValueSum() + gradeValue);
+        }
+    }
+
+    /**
+     * Adds a delta's totals to its bucket, creating the bucket when it does not exist yet. If a
+     * concurrent transaction creates it first, the insert does nothing (Postgres waits for that
+     * transaction to commit), and the next UPDATE finds the row.
+     */
+    private void merge(SessionRollup delta) {
+        RollupKey key = RollupKey.of(delta);
+        for (int attempt = 0; attempt < MERGE_ATTEMPTS; attempt++) {
+            if (rollupRepository.addTotals(delta.getUserId(), key.discipline(), key.bucketStart(),
+                    delta.getSessionCount(), delta.getGradeValueSum(), delta.getSentCount(),
+                    delta.getSentGradeValueSum()) > 0) {
+                settle(delta.getUserId(), key, null, delta.getMaxGrade());
+                return;
+            }
+            if (rollupRepository.insertIfAbsent(UuidV7.next(), delta.getUserId(), key.discipline().name(),
+                    key.bucketStart(), delta.getSessionCount(), delta.getGradeValueSum(), delta.getSentCount(),
+                    delta.getSentGradeValueSum(), delta.getMaxGrade().getCode()) > 0) {
+                return;
+            }
+        }
+        // Only reachable if the bucket keeps being deleted and recreated between the two statements
+        throw new IllegalStateException("Could not write session rollup " + key + " for user " + delta.getUserId());
+    }
+
+    /**
+     * Adds ({@code sign} 1) or subtracts ({@code sign} -1) one session's totals.
+     *
+     * @return false when the bucket does not exist
+     */
+    private boolean applyTotals(UUID userId, RollupKey key, SessionSnapshot session, int sign) {
+        double gradeValue = session.getGradeValue();
+        int sent = session.isSent() ? 1 : 0;
+        return rollupRepository.addTotals(userId, key.discipline(), key.bucketStart(), sign, sign * gradeValue,
+                sign * sent, sign * sent * gradeValue) > 0;
+    }
+
+    /**
+     * Finishes a change to a bucket whose totals were just updated, so its row is locked: deletes
+     * the bucket once it is empty and otherwise brings its max grade in line with the removed
+     * and added grades (either may be null).
+     */
+    private void settle(UUID userId, RollupKey key, Grade removed, Grade added) {
+        SessionRollupRepository.BucketState state = rollupRepository
+                .findBucketState(userId, key.discipline(), key.bucketStart())
+                .orElseThrow(() -> new IllegalStateException("Session rollup " + key + " vanished while locked"));
+        if (state.getSessionCount() <= 0) {
+            rollupRepository.deleteIfEmpty(userId, key.discipline(), key.bucketStart());
+            return;
+        }
+
+        Grade max = state.getMaxGrade();
+        if (removed != null && removed.getNumericValue() >= max.getNumericValue() - EPSILON) {
+            // The session table already reflects the write, so this is the new maximum
+            max = sessionRepository.findGradesInRangeHighestFirst(userId, key.discipline(),
+                            key.bucketStart(), SessionRollup.bucketEnd(key.bucketStart()), FIRST)
+                    .stream().findFirst()
+                    .orElse(max);
+        } else if (added != null && added.getNumericValue() > max.getNumericValue()) {
+            max = added;
+        }
+        if (max != state.getMaxGrade()) {
+            rollupRepository.updateMaxGrade(userId, key.discipline(), key.bucketStart(), max);
+        }
+    }
+
+    private boolean sameTotals(SessionRollup a, SessionRollup b) {
+        return a.getSessionCount() == b.getSessionCount()
+                && a.getSentCount() == b.getSentCount()
+                && Math.abs(a.getGradeValueSum() - b.getGradeValueSum()) < EPSILON
+                && Math.abs(a.getSentGradeValueSum() - b.getSentGradeValueSum()) < EPSILON
+                && a.getMaxGrade() == b.getMaxGrade();
+    }
+
+    private String describe(SessionRollup rollup) {
+        return String.format("{count=%d, gradeSum=%.2f, sent=%d, sentGradeSum=%.2f, max=%s}",
+                rollup.getSessionCount(), rollup.getGradeValueSum(), rollup.getSentCount(),
+                rollup.getSentGradeValueSum(), rollup.getMaxGrade());
+    }
+
+    private record RollupKey(SessionDiscipline discipline, LocalDate bucketStart) implements Comparable<RollupKey> {
+
+        private static final Comparator<RollupKey> ORDER =
+                Comparator.comparing(RollupKey::discipline).thenComparing(RollupKey::bucketStart);
+
+        static RollupKey of(SessionRollup rollup) {
+            return new RollupKey(rollup.getDiscipline(), rollup.getBucketStart());
+        }
+
+        static RollupKey of(SessionSnapshot session) {
+            return new RollupKey(session.getDiscipline(), SessionRollup.bucketStart(session.getDate()));
+        }
+
+        @Override
+        public int compareTo(RollupKey other) {
+            return ORDER.compare(this, other);
+        }
+
+        @Override
+        public String toString() {
+            return discipline + "@" + bucketStart;
+        }
+    }
+}
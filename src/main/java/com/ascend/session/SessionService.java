@@ -1,18 +1,27 @@
 package com.ascend.session;
 
 import com.ascend.user.User;
+import com.ascend.user.UserDataVersions;
 import com.ascend.user.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.time.YearMonth;
-import java.time.temporal.WeekFields;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -20,24 +29,139 @@ public class SessionService {
 
     private final SessionRepository sessionRepository;
     private final UserRepository userRepository;
-
+    private final SessionRollupService rollupService;
+    private final AnalyticsCache analyticsCache;
+    private final UserDataVersions dataVersions;
+    private final SessionColumnStore columnStore;
+    private final ParallelAnalytics parallelAnalytics;
+    private final ActivityTracker activityTracker;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.sessions.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${app.sessions.page.max-size:200}")
+    private int maxPageSize;
+
+    /**
+     * Creates a session. The user is attached by reference without being loaded; a user that
+     * no longer exists surfaces as a foreign key violation when the insert is flushed.
+     */
+    @Transactional
     public Session createSession(UUID userId, CreateSessionRequest request) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
         Session session = Session.builder()
-                .user(user)
+                .user(userRepository.getReferenceById(userId))
                 .discipline(request.getDiscipline())
                 .grade(request.getGrade())
                 .date(request.getDate())
                 .notes(request.getNotes())
                 .sent(request.isSent())
                 .build();
-        return sessionRepository.save(session);
+        Session saved;
+        try {
+            saved = sessionRepository.saveAndFlush(session);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("User not found");
+        }
+        SessionSnapshot added = SessionSnapshot.of(saved);
+        rollupService.add(userId, added);
+        recordWrite(userId, List.of(), List.of(added));
+        return saved;
+    }
+
+    /**
+     * Inserts already-validated sessions in one transaction. Inserts are JDBC-batched and the
+     * persistence context is cleared as soon as they are flushed, so that chunked imports run in
+     * constant memory and the rollup statements that follow do not dirty-check every inserted
+     * session each time they auto-flush.
+     */
+    @Transactional
+    public int createSessions(UUID userId, List<CreateSessionRequest> requests) {
+        User user = userRepository.getReferenceById(userId);
+
+        List<Session> sessions = new ArrayList<>(requests.size());
+        List<SessionSnapshot> snapshots = new ArrayList<>(requests.size());
+        for (CreateSessionRequest request : requests) {
+            Session session = Session.builder()
+                    .user(user)
+                    .discipline(request.getDiscipline())
+                    .grade(request.getGrade())
+                    .date(request.getDate())
+                    .notes(request.getNotes())
+                    .sent(request.isSent())
+                    .build();
+            sessions.add(session);
+            snapshots.add(SessionSnapshot.of(session));
+        }
+
+        try {
+            sessionRepository.saveAll(sessions);
+            sessionRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("User not found");
+        }
+        entityManager.clear();
+        rollupService.addAll(userId, snapshots);
+        recordWrite(userId, List.of(), snapshots);
+        return sessions.size();
+    }
+
+    /**
+     * Inserts sessions accepted by {@link SessionWriteBehind}, which already carry their ids, for
+     * any number of users in one JDBC-batched transaction. Users are referenced by id without
+     * being loaded.
+     * <p>
+     * Safe to repeat: sessions whose id is already stored are skipped, so replaying a spool that
+     * was partly written before succeeds. Sessions of users deleted since they were queued are
+     * skipped as well, which is what the user's deletion would have done to them once written.
+     */
+    @Transactional
+    public void insertPending(List<SessionWriteBehind.PendingSession> pending) {
+        Set<UUID> ids = new HashSet<>();
+        Set<UUID> userIds = new HashSet<>();
+        for (SessionWriteBehind.PendingSession row : pending) {
+            ids.add(row.id());
+            userIds.add(row.userId());
+        }
+        Set<UUID> written = new HashSet<>(sessionRepository.findExistingIds(ids));
+        Set<UUID> users = new HashSet<>(userRepository.findExistingIds(userIds));
+
+        Map<UUID, List<SessionSnapshot>> snapshotsByUser = new LinkedHashMap<>();
+        for (SessionWriteBehind.PendingSession row : pending) {
+            if (written.contains(row.id()) || !users.contains(row.userId())) {
+                continue;
+            }
+            Session session = row.toSession();
+            session.setUser(userRepository.getReferenceById(row.userId()));
+            // persist, not save: the id is already assigned, so save would merge and select first
+            entityManager.persist(session);
+            snapshotsByUser.computeIfAbsent(row.userId(), userId -> new ArrayList<>()).add(SessionSnapshot.of(session));
+        }
+        // Written and detached before the rollup statements, as in createSessions
+        entityManager.flush();
+        entityManager.clear();
+
+        snapshotsByUser.forEach((userId, snapshots) -> {
+            rollupService.addAll(userId, snapshots);
+            recordWrite(userId, List.of(), snapshots);
+        });
+    }
+
+    /**
+     * Bumps the user's data version and, once the write commits, moves the in-memory views of
+     * the user's sessions forward by exactly the sessions it removed and added.
+     */
+    private void recordWrite(UUID userId, Collection<SessionSnapshot> removed, Collection<SessionSnapshot> added) {
+        dataVersions.bump(userId, (previous, version) -> {
+            columnStore.apply(userId, previous, version, removed, added);
+            activityTracker.apply(userId, previous, version, removed, added);
+        });
     }
 
-    public List<Session> getAllSessions(UUID userId) {
-        return sessionRepository.findByUserId(userId);
+    public List<SessionSummary> getAllSessions(UUID userId, boolean includeNotes) {
+        return sessionRepository.findSummariesByUserId(userId, includeNotes);
     }
 
     public Optional<Session> getSessionById(UUID id) {
@@ -55,333 +179,290 @@ public class SessionService {
         return session;
     }
 
+    @Transactional
     public void deleteSession(UUID sessionId, UUID userId) {
-        Session session = sessionRepository.findById(sessionId)
-                .orElseThrow(() -> new RuntimeException("Session not found"));
-        
-        if (!session.getUser().getId().equals(userId)) {
-            throw new RuntimeException("Unauthorized to delete this session");
+        SessionSnapshot removed = sessionRepository.findOwnedSnapshot(sessionId, userId)
+                .orElseThrow(() -> notOwned(sessionId, "delete"));
+
+        if (sessionRepository.deleteOwned(sessionId, userId) == 0) {
+            // Deleted by a concurrent request since it was read
+            throw new RuntimeException("Session not found");
         }
-        
-        sessionRepository.deleteById(sessionId);
+        rollupService.remove(userId, removed);
+        recordWrite(userId, List.of(removed), List.of());
     }
 
+    @Transactional
     public Session updateSession(UUID sessionId, UUID userId, UpdateSessionRequest request) {
-        Session session = sessionRepository.findById(sessionId)
-                .orElseThrow(() -> new RuntimeException("Session not found"));
-        
-        if (!session.getUser().getId().equals(userId)) {
-            throw new RuntimeException("Unauthorized to update this session");
-        }
-        
+        SessionUpdateRow current = sessionRepository.findOwnedUpdateRow(sessionId, userId)
+                .orElseThrow(() -> notOwned(sessionId, "update"));
+
         // Update only non-null fields
-        if (request.getDiscipline() != null) {
-            session.setDiscipline(request.getDiscipline());
-        }
-        if (request.getGrade() != null) {
-            session.setGrade(request.getGrade());
-        }
-        if (request.getDate() != null) {
-            session.setDate(request.getDate());
-        }
-        if (request.getSent() != null) {
-            session.setSent(request.getSent());
-        }
-        if (request.getNotes() != null) {
-            session.setNotes(request.getNotes());
-        }
-        
-        return sessionRepository.save(session);
+        Session updated = Session.builder()
+                .id(sessionId)
+                .discipline(request.getDiscipline() != null ? request.getDiscipline() : current.getDiscipline())
+                .grade(request.getGrade() != null ? request.getGrade() : current.getGrade())
+                .date(request.getDate() != null ? request.getDate() : current.getDate())
+                .sent(request.getSent() != null ? request.getSent() : current.isSent())
+                .notes(request.getNotes() != null ? request.getNotes() : current.getNotes())
+                .build();
+        return writeOwned(userId, current.toSnapshot(), updated);
     }
 
+    @Transactional
     public Session replaceSession(UUID sessionId, UUID userId, CreateSessionRequest request) {
-        Session session = sessionRepository.findById(sessionId)
-                .orElseThrow(() -> new RuntimeException("Session not found"));
-        
-        if (!session.getUser().getId().equals(userId)) {
-            throw new RuntimeException("Unauthorized to update this session");
-        }
-        
+        // Every field is replaced, so only the values derived data depends on are read
+        SessionSnapshot current = sessionRepository.findOwnedSnapshot(sessionId, userId)
+                .orElseThrow(() -> notOwned(sessionId, "update"));
+
         // Replace all fields
-        session.setDiscipline(request.getDiscipline());
-        session.setGrade(request.getGrade());
-        session.setDate(request.getDate());
-        session.setNotes(request.getNotes());
-        session.setSent(request.isSent());
-        
-        return sessionRepository.save(session);
+        Session replaced = Session.builder()
+                .id(sessionId)
+                .discipline(request.getDiscipline())
+                .grade(request.getGrade())
+                .date(request.getDate())
+                .notes(request.getNotes())
+                .sent(request.isSent())
+                .build();
+        return writeOwned(userId, current, replaced);
     }
 
-    public Session updateSession(Session session) {
-        return sessionRepository.save(session);
+    /**
+     * Writes the new values of a session the user owns in one ownership-checked UPDATE, without
+     * loading the entity, then moves derived data from the old values to the new ones.
+     */
+    private Session writeOwned(UUID userId, SessionSnapshot before, Session updated) {
+        updated.syncGradeValue();
+        int rows = sessionRepository.updateOwned(updated.getId(), userId, updated.getDiscipline(),
+                updated.getGrade(), updated.getGradeValue(), updated.getDate(), updated.getNotes(), updated.isSent());
+        if (rows == 0) {
+            // Deleted by a concurrent request since it was read
+            throw new RuntimeException("Session not found");
+        }
+
+        SessionSnapshot after = SessionSnapshot.of(updated);
+        rollupService.replace(userId, before, after);
+        recordWrite(userId, List.of(before), List.of(after));
+        return updated;
     }
 
-    public List<Session> getSessionsByDiscipline(UUID userId, SessionDiscipline discipline) {
-        return sessionRepository.findByUserIdAndDiscipline(userId, discipline);
+    /**
+     * Explains why an ownership-checked lookup matched nothing. Only runs on that failure path,
+     * so successful writes never pay for the extra query.
+     */
+    private RuntimeException notOwned(UUID sessionId, String action) {
+        return sessionRepository.existsById(sessionId)
+                ? new RuntimeException("Unauthorized to " + action + " this session")
+                : new RuntimeException("Session not found");
     }
 
-    public List<Session> getSessionsByDate(UUID userId, LocalDate date) {
-        return sessionRepository.findByUserIdAndDate(userId, date);
+    /**
+     * Returns one page of the user's sessions, newest first, optionally filtered by
+     * discipline and/or a single date.
+     *
+     * @param cursor       token from the previous page, or null for the first page
+     * @param limit        page size, or null for the configured default; capped at the configured maximum
+     * @param includeNotes whether to read the notes, which are otherwise null
+     */
+    public SessionPage getSessionPage(UUID userId, SessionDiscipline discipline, LocalDate date,
+                                      String cursor, Integer limit, boolean includeNotes) {
+        int pageSize = limit != null ? limit : defaultPageSize;
+        if (pageSize < 1) {
+            throw new RuntimeException("Page size must be at least 1");
+        }
+        pageSize = Math.min(pageSize, maxPageSize);
+
+        SessionCursor position = cursor != null ? SessionCursor.decode(cursor) : SessionCursor.START;
+        DateRange range = date != null ? DateRange.of(date, date.plusDays(1)) : DateRange.allTime();
+        // Fetch one extra row to learn whether another page follows
+        PageRequest window = PageRequest.of(0, pageSize + 1);
+
+        List<SessionSummary> sessions = discipline != null
+                ? sessionRepository.findPageByDiscipline(userId, discipline, range.getFrom(), range.getTo(),
+                        position.getDate(), position.getId(), includeNotes, window)
+                : sessionRepository.findPage(userId, range.getFrom(), range.getTo(),
+                        position.getDate(), position.getId(), includeNotes, window);
+
+        if (sessions.size() <= pageSize) {
+            return new SessionPage(sessions, null);
+        }
+        List<SessionSummary> page = sessions.subList(0, pageSize);
+        return new SessionPage(page, SessionCursor.after(page.get(pageSize - 1)).encode());
     }
 
-    private List<Session> getSessionsByPeriod(UUID userId, String period) {
-        List<Session> allSessions = getAllSessions(userId);
-        
+    public List<SessionSummary> getSessionsByDiscipline(UUID userId, SessionDiscipline discipline, boolean includeNotes) {
+        return sessionRepository.findSummariesByUserIdAndDiscipline(userId, discipline, includeNotes);
+    }
+
+    public List<SessionSummary> getSessionsByDate(UUID userId, LocalDate date, boolean includeNotes) {
+        return sessionRepository.findSummariesByUserIdAndDate(userId, date, includeNotes);
+    }
+
+    /**
+     * Resolves the window an analytics request covers. Explicit {@code from}/{@code to}
+     * dates (both inclusive) take precedence over a named period.
+     */
+    public DateRange resolveRange(String period, LocalDate from, LocalDate to) {
+        if (from != null || to != null) {
+            return DateRange.ofInclusive(from, to);
+        }
+        return parsePeriod(period).toDateRange(LocalDate.now());
+    }
+
+    private Period parsePeriod(String period) {
         if (period == null || period.trim().isEmpty()) {
-            return allSessions; // Default to all time
+            return Period.ALL_TIME; // Default to all time
         }
-        
+
         try {
-            Period periodEnum = Period.valueOf(period.toUpperCase());
-            return filterSessionsByPeriod(allSessions, periodEnum);
+            return Period.valueOf(period.toUpperCase());
         } catch (IllegalArgumentException e) {
-            // If period is not recognized, return all sessions
-            return allSessions;
+            // If period is not recognized, fall back to all time
+            return Period.ALL_TIME;
         }
     }
 
-    private List<Session> filterSessionsByPeriod(List<Session> sessions, Period period) {
-        LocalDate now = LocalDate.now();
-        
-        return sessions.stream()
-                .filter(session -> isSessionInPeriod(session.getDate(), now, period))
-                .collect(Collectors.toList());
-    }
-
-    private boolean isSessionInPeriod(LocalDate sessionDate, LocalDate currentDate, Period period) {
-        switch (period) {
-            case WEEK:
-                return isInCurrentWeek(sessionDate, currentDate);
-            case MONTH:
-                return isInCurrentMonth(sessionDate, currentDate);
-            case YEAR:
-                return isInCurrentYear(sessionDate, currentDate);
-            case ALL_TIME:
-            default:
-                return true;
+    private List<Session> getSessionsInRange(UUID userId, DateRange range) {
+        if (range.isAllTime()) {
+            return sessionRepository.findByUserId(userId);
         }
+        return sessionRepository.findByUserIdInRange(userId, range.getFrom(), range.getTo());
     }
 
-    private boolean isInCurrentWeek(LocalDate sessionDate, LocalDate currentDate) {
-        WeekFields weekFields = WeekFields.ISO;
-        int sessionWeek = sessionDate.get(weekFields.weekOfWeekBasedYear());
-        int currentWeek = currentDate.get(weekFields.weekOfWeekBasedYear());
-        int sessionYear = sessionDate.get(weekFields.weekBasedYear());
-        int currentYear = currentDate.get(weekFields.weekBasedYear());
-        
-        return sessionYear == currentYear && sessionWeek == currentWeek;
+    public SessionAnalytics getAnalytics(UUID userId) {
+        return getAnalytics(userId, DateRange.allTime());
     }
 
-    private boolean isInCurrentMonth(LocalDate sessionDate, LocalDate currentDate) {
-        YearMonth sessionYearMonth = YearMonth.from(sessionDate);
-        YearMonth currentYearMonth = YearMonth.from(currentDate);
-        
-        return sessionYearMonth.equals(currentYearMonth);
+    public SessionAnalytics getAnalytics(UUID userId, String period) {
+        return getAnalytics(userId, resolveRange(period, null, null));
     }
 
-    private boolean isInCurrentYear(LocalDate sessionDate, LocalDate currentDate) {
-        return sessionDate.getYear() == currentDate.getYear();
+    public SessionAnalytics getAnalytics(UUID userId, DateRange range) {
+        return analyticsCache.get(userId, AnalyticsCache.View.ANALYTICS, range, () -> computeAnalytics(userId, range));
     }
 
-    public SessionAnalytics getAnalytics(UUID userId) {
-        return getAnalytics(userId, null);
+    /**
+     * Totals for an arbitrary window, for interactive range selection. Not cached, since nearly
+     * every request asks for a different window; each call is two lookups in the user's
+     * prefix-sum index, which is kept in memory unless {@code app.analytics.time-index.enabled}
+     * is off.
+     */
+    public SessionAnalytics getRangeStats(UUID userId, DateRange range) {
+        return computeAnalytics(userId, range);
     }
 
-    public SessionAnalytics getAnalytics(UUID userId, String period) {
-        List<Session> sessions = getSessionsByPeriod(userId, period);
-        
-        if (sessions.isEmpty()) {
-            return SessionAnalytics.builder()
-                    .totalSessions(0)
-                    .averageDifficulty(0.0)
-                    .sentPercentage(0.0)
-                    .sessionsByDiscipline(Map.of())
-                    .averageDifficultyByDiscipline(Map.of())
-                    .sentPercentageByDiscipline(Map.of())
-                    .build();
+    private SessionAnalytics computeAnalytics(UUID userId, DateRange range) {
+        // Totals come from the in-memory prefix sums when enabled, from the rollup table when
+        // the window is bucket-aligned, otherwise the database aggregates the window without
+        // loading any sessions
+        AnalyticsAccumulator accumulator = new AnalyticsAccumulator();
+        SessionTimeIndex index = columnStore.getTimeIndex(userId);
+        if (index != null) {
+            accumulator.addAggregates(index.aggregate(range));
+        } else if (rollupService.canServe(range)) {
+            accumulator.addRollups(rollupService.getRollups(userId, range));
+        } else if (range.isAllTime()) {
+            accumulator.addAggregates(sessionRepository.aggregateByDiscipline(userId));
+        } else {
+            accumulator.addAggregates(sessionRepository.aggregateByDisciplineInRange(userId, range.getFrom(), range.getTo()));
         }
 
-        // Calculate overall metrics
-        double averageDifficulty = sessions.stream()
-                .mapToDouble(session -> session.getGrade().getNumericValue())
-                .average()
-                .orElse(0.0);
-        
-        double sentPercentage = sessions.stream()
-                .filter(Session::isSent)
-                .count() * 100.0 / sessions.size();
-
-        // Calculate metrics by discipline
-        Map<SessionDiscipline, List<Session>> sessionsByDiscipline = sessions.stream()
-                .collect(Collectors.groupingBy(Session::getDiscipline));
-
-        Map<SessionDiscipline, Integer> disciplineCounts = sessionsByDiscipline.entrySet().stream()
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        entry -> entry.getValue().size()
-                ));
-
-        Map<SessionDiscipline, Double> avgDifficultyByDiscipline = sessionsByDiscipline.entrySet().stream()
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        entry -> entry.getValue().stream()
-                                .mapToDouble(session -> session.getGrade().getNumericValue())
-                                .average()
-                                .orElse(0.0)
-                ));
-
-        Map<SessionDiscipline, Double> sentPercentageByDiscipline = sessionsByDiscipline.entrySet().stream()
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        entry -> {
-                            List<Session> disciplineSessions = entry.getValue();
-                            return disciplineSessions.stream()
-                                    .filter(Session::isSent)
-                                    .count() * 100.0 / disciplineSessions.size();
-                        }
-                ));
-
-        return SessionAnalytics.builder()
-                .totalSessions(sessions.size())
-                .averageDifficulty(averageDifficulty)
-                .sentPercentage(sentPercentage)
-                .sessionsByDiscipline(disciplineCounts)
-                .averageDifficultyByDiscipline(avgDifficultyByDiscipline)
-                .sentPercentageByDiscipline(sentPercentageByDiscipline)
-                .build();
+        return accumulator.toSessionAnalytics();
+    }
+
+    /**
+     * Folds the window into a single accumulator: from the in-memory columns when enabled, from
+     * stored rollups when the window is bucket-aligned, otherwise over the sessions in the
+     * window. Column and session scans of very large histories run on {@link ParallelAnalytics}.
+     */
+    private AnalyticsAccumulator accumulate(UUID userId, DateRange range) {
+        SessionColumns columns = columnStore.get(userId);
+        if (columns != null) {
+            return parallelAnalytics.accumulate(columns, range);
+        }
+        if (rollupService.canServe(range)) {
+            return new AnalyticsAccumulator().addRollups(rollupService.getRollups(userId, range));
+        }
+        return parallelAnalytics.accumulate(getSessionsInRange(userId, range));
     }
 
     public ProgressAnalytics getProgressAnalytics(UUID userId) {
-        return getProgressAnalytics(userId, null);
+        return getProgressAnalytics(userId, DateRange.allTime());
     }
 
     public ProgressAnalytics getProgressAnalytics(UUID userId, String period) {
-        List<Session> sessions = getSessionsByPeriod(userId, period);
-        
-        if (sessions.isEmpty()) {
-            return ProgressAnalytics.builder()
-                    .totalSessions(0)
-                    .sentRate(0.0)
-                    .avgDifficulty(0.0)
-                    .progressByWeek(List.of())
-                    .progressByMonth(List.of())
-                    .build();
-        }
+        return getProgressAnalytics(userId, resolveRange(period, null, null));
+    }
 
-        // Calculate overall metrics
-        double avgDifficulty = sessions.stream()
-                .mapToDouble(session -> session.getGrade().getNumericValue())
-                .average()
-                .orElse(0.0);
-        
-        double sentRate = sessions.stream()
-                .filter(Session::isSent)
-                .count() * 100.0 / sessions.size();
-
-        // Group by week and month
-        Map<String, List<Session>> weeklySessions = sessions.stream()
-                .collect(Collectors.groupingBy(session -> {
-                    LocalDate date = session.getDate();
-                    int year = date.getYear();
-                    int weekOfYear = date.getDayOfYear() / 7 + 1;
-                    return String.format("%d-W%02d", year, weekOfYear);
-                }));
-
-        Map<String, List<Session>> monthlySessions = sessions.stream()
-                .collect(Collectors.groupingBy(session -> {
-                    LocalDate date = session.getDate();
-                    return String.format("%d-%02d", date.getYear(), date.getMonthValue());
-                }));
-
-        // Build weekly progress
-        List<ProgressAnalytics.WeeklyProgress> weeklyProgress = weeklySessions.entrySet().stream()
-                .map(entry -> {
-                    List<Session> weekSessions = entry.getValue();
-                    double weekAvgDifficulty = weekSessions.stream()
-                            .mapToDouble(session -> session.getGrade().getNumericValue())
-                            .average()
-                            .orElse(0.0);
-                    double weekSentRate = weekSessions.stream()
-                            .filter(Session::isSent)
-                            .count() * 100.0 / weekSessions.size();
-                    
-                    return ProgressAnalytics.WeeklyProgress.builder()
-                            .week(entry.getKey())
-                            .avgDifficulty(weekAvgDifficulty)
-                            .sessionCount(weekSessions.size())
-                            .sentRate(weekSentRate)
-                            .build();
-                })
-                .sorted((a, b) -> a.getWeek().compareTo(b.getWeek()))
-                .collect(Collectors.toList());
-
-        // Build monthly progress
-        List<ProgressAnalytics.MonthlyProgress> monthlyProgress = monthlySessions.entrySet().stream()
-                .map(entry -> {
-                    List<Session> monthSessions = entry.getValue();
-                    double monthAvgDifficulty = monthSessions.stream()
-                            .mapToDouble(session -> session.getGrade().getNumericValue())
-                            .average()
-                            .orElse(0.0);
-                    double monthSentRate = monthSessions.stream()
-                            .filter(Session::isSent)
-                            .count() * 100.0 / monthSessions.size();
-                    
-                    return ProgressAnalytics.MonthlyProgress.builder()
-                            .month(entry.getKey())
-                            .avgDifficulty(monthAvgDifficulty)
-                            .sessionCount(monthSessions.size())
-                            .sentRate(monthSentRate)
-                            .build();
-                })
-                .sorted((a, b) -> a.getMonth().compareTo(b.getMonth()))
-                .collect(Collectors.toList());
-
-        return ProgressAnalytics.builder()
-                .totalSessions(sessions.size())
-                .sentRate(sentRate)
-                .avgDifficulty(avgDifficulty)
-                .progressByWeek(weeklyProgress)
-                .progressByMonth(monthlyProgress)
-                .build();
+    public ProgressAnalytics getProgressAnalytics(UUID userId, DateRange range) {
+        return analyticsCache.get(userId, AnalyticsCache.View.PROGRESS, range,
+                () -> accumulate(userId, range).toProgressAnalytics());
     }
 
     public Map<SessionDiscipline, Grade> getHighestGrades(UUID userId) {
-        return getHighestGrades(userId, null);
+        return getHighestGrades(userId, DateRange.allTime());
     }
 
     public Map<SessionDiscipline, Grade> getHighestGrades(UUID userId, String period) {
-        List<Session> sessions = getSessionsByPeriod(userId, period);
-        
-        if (sessions.isEmpty()) {
-            return Map.of();
-        }
+        return getHighestGrades(userId, resolveRange(period, null, null));
+    }
+
+    public Map<SessionDiscipline, Grade> getHighestGrades(UUID userId, DateRange range) {
+        return analyticsCache.get(userId, AnalyticsCache.View.HIGHEST, range,
+                () -> accumulate(userId, range).toHighestGrades());
+    }
+
+    /**
+     * Overview, progress, highest and average grades for the window from a single accumulation,
+     * so the dashboard costs one read instead of one per statistic.
+     */
+    public SessionDashboard getDashboard(UUID userId, DateRange range) {
+        return analyticsCache.get(userId, AnalyticsCache.View.DASHBOARD, range, () -> {
+            AnalyticsAccumulator accumulator = accumulate(userId, range);
+            return SessionDashboard.builder()
+                    .overview(accumulator.toSessionAnalytics())
+                    .progress(accumulator.toProgressAnalytics())
+                    .highestGrades(accumulator.toHighestGrades())
+                    .averageGrades(accumulator.toAverageGrades())
+                    .build();
+        });
+    }
+
+    /**
+     * Streaks and rolling-window counts as of today.
+     */
+    public ActivityStats getActivity(UUID userId) {
+        return activityTracker.getStats(userId, LocalDate.now());
+    }
 
-        return sessions.stream()
-                .collect(Collectors.groupingBy(Session::getDiscipline,
-                        Collectors.maxBy((s1, s2) -> 
-                                Double.compare(s1.getGrade().getNumericValue(), s2.getGrade().getNumericValue()))))
-                .entrySet().stream()
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        entry -> entry.getValue().orElseThrow().getGrade()
-                ));
+    /**
+     * Attempts and sends per grade with median and 90th percentile grades, per discipline.
+     * Counted from the in-memory columns when enabled, otherwise grouped by the database.
+     */
+    public Map<SessionDiscipline, GradeDistribution> getGradeDistribution(UUID userId, DateRange range) {
+        return analyticsCache.get(userId, AnalyticsCache.View.DISTRIBUTION, range, () -> {
+            GradeHistogram histogram = new GradeHistogram();
+            SessionColumns columns = columnStore.get(userId);
+            if (columns != null) {
+                columns.countGrades(histogram, range);
+            } else {
+                histogram.addAggregates(sessionRepository.countByGradeInRange(userId, range.getFrom(), range.getTo()));
+            }
+            return histogram.toDistributions();
+        });
     }
 
     public Map<SessionDiscipline, Double> getAverageGrades(UUID userId) {
-        return getAverageGrades(userId, null);
+        return getAverageGrades(userId, DateRange.allTime());
     }
 
     public Map<SessionDiscipline, Double> getAverageGrades(UUID userId, String period) {
-        List<Session> sessions = getSessionsByPeriod(userId, period);
-        
-        if (sessions.isEmpty()) {
-            return Map.of();
-        }
+        return getAverageGrades(userId, resolveRange(period, null, null));
+    }
 
-        return sessions.stream()
-                .filter(Session::isSent) // Only sent routes
-                .collect(Collectors.groupingBy(Session::getDiscipline,
-                        Collectors.averagingDouble(session -> session.getGrade().getNumericValue())));
+    public Map<SessionDiscipline, Double> getAverageGrades(UUID userId, DateRange range) {
+        // Only sent routes
+        return analyticsCache.get(userId, AnalyticsCache.View.AVERAGE, range,
+                () -> accumulate(userId, range).toAverageGrades());
     }
 }
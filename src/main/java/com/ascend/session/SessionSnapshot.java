@@ -0,0 +1,27 @@
+package com.ascend.session;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * The analytics-relevant fields of a session, captured before or after a write so that
+ * derived data (rollups, caches) can be adjusted by exactly the change that was made.
+ */
+@Data
+@AllArgsConstructor
+public class SessionSnapshot {
+    private SessionDiscipline discipline;
+    private Grade grade;
+    private LocalDate date;
+    private boolean sent;
+
+    public static SessionSnapshot of(Session session) {
+        return new SessionSnapshot(session.getDiscipline(), session.getGrade(), session.getDate(), session.isSent());
+    }
+
+    public double getGradeValue() {
+        return grade.getNumericValue();
+    }
+}
@@ -0,0 +1,26 @@
+package com.ascend.session;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * A session as the list endpoints return it, selected as an unmanaged projection: no user
+ * reference, no denormalized grade value and no persistence-context snapshot per row. Notes are
+ * null when the caller passed {@code includeNotes=false}, and then left out of the JSON;
+ * otherwise serializes to the same JSON as {@link Session}.
+ */
+@Data
+@AllArgsConstructor
+public class SessionSummary {
+    private UUID id;
+    private SessionDiscipline discipline;
+    private Grade grade;
+    private LocalDate date;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String notes;
+    private boolean sent;
+}
@@ -0,0 +1,192 @@
+package com.ascend.session;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable prefix sums over one user's sessions by epoch day: for each discipline, the
+ * running session count, sent count and grade-value sum up to each distinct day. Totals for
+ * any {@code [from, to)} window are two binary searches and a subtraction, however wide the
+ * window. Grade values are summed in exact tenths so the subtraction never drifts.
+ * <p>
+ * Writes produce a new instance rather than mutating this one; applying a write costs one
+ * pass over the distinct days after the earliest day it touches.
+ */
+final class SessionTimeIndex {
+
+    private static final SessionDiscipline[] DISCIPLINES = SessionDiscipline.values();
+    private static final long[] GRADE_TENTHS = Arrays.stream(Grade.values())
+            .mapToLong(grade -> Math.round(grade.getNumericValue() * 10))
+            .toArray();
+
+    // Object header and fields, the day array and three arrays of per-discipline rows
+    private static final long FIXED_OVERHEAD_BYTES = 32 + 16 + 3 * (16 + DISCIPLINES.length * 16L);
+
+    // Distinct days, ascending; row i + 1 of each prefix array covers days[0..i]
+    private final int[] days;
+    private final long[][] counts;
+    private final long[][] sent;
+    private final long[][] gradeTenths;
+
+    private SessionTimeIndex(int[] days, long[][] counts, long[][] sent, long[][] gradeTenths) {
+        this.days = days;
+        this.counts = counts;
+        this.sent = sent;
+        this.gradeTenths = gradeTenths;
+    }
+
+    static SessionTimeIndex of(SessionColumns columns) {
+        int distinct = 0;
+        for (int i = 0; i < columns.size(); i++) {
+            if (i == 0 || columns.epochDay(i) != columns.epochDay(i - 1)) {
+                distinct++;
+            }
+        }
+
+        int[] days = new int[distinct];
+        long[][] counts = new long[DISCIPLINES.length][distinct + 1];
+        long[][] sent = new long[DISCIPLINES.length][distinct + 1];
+        long[][] gradeTenths = new long[DISCIPLINES.length][distinct + 1];
+        int row = 0;
+        for (int i = 0; i < columns.size(); i++) {
+            if (i == 0 || columns.epochDay(i) != columns.epochDay(i - 1)) {
+                days[row++] = columns.epochDay(i);
+                for (int d = 0; d < DISCIPLINES.length; d++) {
+                    counts[d][row] = counts[d][row - 1];
+                    sent[d][row] = sent[d][row - 1];
+                    gradeTenths[d][row] = gradeTenths[d][row - 1];
+                }
+            }
+            int d = columns.disciplineOrdinal(i);
+            counts[d][row]++;
+            gradeTenths[d][row] += GRADE_TENTHS[columns.gradeOrdinal(i)];
+            if (columns.isSent(i)) {
+                sent[d][row]++;
+            }
+        }
+        return new SessionTimeIndex(days, counts, sent, gradeTenths);
+    }
+
+    long estimatedBytes() {
+        return FIXED_OVERHEAD_BYTES + days.length * (4L + 3L * 8 * DISCIPLINES.length);
+    }
+
+    /**
+     * Per-discipline totals for the sessions dated within {@code range}; disciplines with no
+     * sessions in the window are left out, as the database aggregate does.
+     */
+    List<DisciplineAggregate> aggregate(DateRange range) {
+        int low = lowerBound(range.getFrom().toEpochDay());
+        int high = lowerBound(range.getTo().toEpochDay());
+        List<DisciplineAggregate> aggregates = new ArrayList<>(DISCIPLINES.length);
+        for (int d = 0; d < DISCIPLINES.length; d++) {
+            long count = counts[d][high] - counts[d][low];
+            if (count > 0) {
+                aggregates.add(new DisciplineAggregate(DISCIPLINES[d], count,
+                        (gradeTenths[d][high] - gradeTenths[d][low]) / 10.0,
+                        sent[d][high] - sent[d][low]));
+            }
+        }
+        return aggregates;
+    }
+
+    /**
+     * Returns a copy with {@code removed} subtracted and {@code added} included.
+     */
+    SessionTimeIndex apply(Collection<SessionSnapshot> removed, Collection<SessionSnapshot> added) {
+        // Make room for any day the index has not seen yet, then adjust the sums in place
+        int[] newDays = added.stream()
+                .mapToInt(snapshot -> (int) snapshot.getDate().toEpochDay())
+                .filter(day -> Arrays.binarySearch(days, day) < 0)
+                .distinct()
+                .sorted()
+                .toArray();
+        SessionTimeIndex copy = newDays.length == 0 ? copy() : withDays(newDays);
+        for (SessionSnapshot snapshot : removed) {
+            copy.adjust(snapshot, -1);
+        }
+        for (SessionSnapshot snapshot : added) {
+            copy.adjust(snapshot, 1);
+        }
+        return copy;
+    }
+
+    private void adjust(SessionSnapshot snapshot, int sign) {
+        int d = snapshot.getDiscipline().ordinal();
+        long tenths = GRADE_TENTHS[snapshot.getGrade().ordinal()];
+        long sentDelta = snapshot.isSent() ? sign : 0;
+        // Every prefix row that includes the snapshot's day moves by the same amount
+        for (int row = lowerBound(snapshot.getDate().toEpochDay()) + 1; row <= days.length; row++) {
+            counts[d][row] += sign;
+            sent[d][row] += sentDelta;
+            gradeTenths[d][row] += sign * tenths;
+        }
+    }
+
+    private SessionTimeIndex copy() {
+        return new SessionTimeIndex(days, deepCopy(counts), deepCopy(sent), deepCopy(gradeTenths));
+    }
+
+    /**
+     * A copy with {@code extra} (sorted, none already present) merged into the days. A new day
+     * carries the running totals of the day before it until sessions are added to it.
+     */
+    private SessionTimeIndex withDays(int[] extra) {
+        int size = days.length + extra.length;
+        int[] mergedDays = new int[size];
+        // Row i + 1 of the merged index takes its totals from old row source[i] + 1
+        int[] source = new int[size];
+        int next = 0;
+        int out = 0;
+        for (int i = 0; i < days.length; i++) {
+            while (next < extra.length && extra[next] < days[i]) {
+                mergedDays[out] = extra[next++];
+                source[out++] = i - 1;
+            }
+            mergedDays[out] = days[i];
+            source[out++] = i;
+        }
+        while (next < extra.length) {
+            mergedDays[out] = extra[next++];
+            source[out++] = days.length - 1;
+        }
+        return new SessionTimeIndex(mergedDays, remap(counts, source), remap(sent, source), remap(gradeTenths, source));
+    }
+
+    private static long[][] remap(long[][] prefix, int[] source) {
+        long[][] remapped = new long[prefix.length][source.length + 1];
+        for (int d = 0; d < prefix.length; d++) {
+            for (int i = 0; i < source.length; i++) {
+                remapped[d][i + 1] = prefix[d][source[i] + 1];
+            }
+        }
+        return remapped;
+    }
+
+    private static long[][] deepCopy(long[][] prefix) {
+        long[][] copy = new long[prefix.length][];
+        for (int d = 0; d < prefix.length; d++) {
+            copy[d] = prefix[d].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * Index of the first distinct day on or after {@code epochDay}.
+     */
+    private int lowerBound(long epochDay) {
+        int low = 0;
+        int high = days.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (days[mid] < epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,24 @@
+package com.ascend.session;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * The current values a partial update falls back to for fields the request leaves out. Read
+ * by an ownership-checked query, so it only exists for the caller's own sessions.
+ */
+@Data
+@AllArgsConstructor
+public class SessionUpdateRow {
+    private SessionDiscipline discipline;
+    private Grade grade;
+    private LocalDate date;
+    private boolean sent;
+    private String notes;
+
+    public SessionSnapshot toSnapshot() {
+        return new SessionSnapshot(discipline, grade, date, sent);
+    }
+}
@@ -0,0 +1,428 @@
+package com.ascend.session;
+
+import com.ascend.config.UuidV7;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional write-behind path for session creation. When enabled, a new session gets its
+ * time-ordered id in the application and is queued; a single flusher thread inserts queued
+ * sessions in batches of up to {@code batch-size}, for any mix of users, in one transaction
+ * each. Bursts of logging then cost one connection and one JDBC batch instead of a
+ * transaction and a user lookup per session.
+ * <ul>
+ *     <li>Backpressure: when the bounded queue stays full for {@code offer-timeout-ms}, the
+ *     caller inserts its session itself, which slows it down to the database's pace.</li>
+ *     <li>Read-your-writes: requests from a user with queued sessions wait (up to
+ *     {@code read-wait-ms}) for them to be flushed before reading; see
+ *     {@link com.ascend.config.PendingWritesInterceptor}. The queue is per node, so this
+ *     holds for requests served by the node that accepted the write.</li>
+ *     <li>Shutdown: the queue is drained before the database goes away. Whatever cannot be
+ *     written is appended to {@code spool-file} and inserted on the next start. The spool must
+ *     outlive the container, so write-behind refuses to start unless {@code spool-file} is an
+ *     absolute path, which should be on a persistent volume.</li>
+ * </ul>
+ * Sessions have already been acknowledged to their callers, so nothing is dropped. While the
+ * database is unreachable, rows are spooled and the flusher retries the spool whenever it has
+ * been idle for {@code spool-retry-ms}. Any other failed batch is retried one session at a time
+ * so a single bad row only holds back itself; rows the database still rejects, and spool lines
+ * that cannot be read, are logged and moved to {@code <spool-file>.rejected} for an operator,
+ * so they never block the rows behind them. Writes are idempotent (see
+ * {@link SessionService#insertPending}), so a spooled row that did reach the database is not
+ * counted twice.
+ */
+@Slf4j
+@Component
+public class SessionWriteBehind {
+
+    private static final long POLL_INTERVAL_MS = 100;
+
+    /**
+     * A session accepted for writing but not yet inserted.
+     */
+    public record PendingSession(UUID id, UUID userId, SessionDiscipline discipline, Grade grade,
+                                 LocalDate date, String notes, boolean sent) {
+
+        Session toSession() {
+            return Session.builder()
+                    .id(id)
+                    .discipline(discipline)
+                    .grade(grade)
+                    .date(date)
+                    .notes(notes)
+                    .sent(sent)
+                    .build();
+        }
+    }
+
+    private final SessionService sessionService;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long offerTimeoutMs;
+    private final long readWaitMs;
+    private final Path spoolFile;
+    private final Path rejectedFile;
+    private final long spoolRetryMs;
+
+    private final BlockingQueue<PendingSession> queue;
+    // Queued or in-flight sessions per user; a user is absent once all are written
+    private final ConcurrentMap<UUID, Integer> pending = new ConcurrentHashMap<>();
+    private final Object flushed = new Object();
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public SessionWriteBehind(SessionService sessionService,
+                              ObjectMapper objectMapper,
+                              @Value("${app.sessions.write-behind.enabled:false}") boolean enabled,
+                              @Value("${app.sessions.write-behind.queue-capacity:10000}") int queueCapacity,
+                              @Value("${app.sessions.write-behind.batch-size:500}") int batchSize,
+                              @Value("${app.sessions.write-behind.offer-timeout-ms:100}") long offerTimeoutMs,
+                              @Value("${app.sessions.write-behind.read-wait-ms:5000}") long readWaitMs,
+                              @Value("${app.sessions.write-behind.spool-file:}") String spoolFile,
+                              @Value("${app.sessions.write-behind.spool-retry-ms:60000}") long spoolRetryMs) {
+        this.sessionService = sessionService;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.readWaitMs = readWaitMs;
+        this.spoolFile = Path.of(spoolFile);
+        this.rejectedFile = this.spoolFile.resolveSibling(this.spoolFile.getFileName() + ".rejected");
+        this.spoolRetryMs = spoolRetryMs;
+        if (enabled && !this.spoolFile.isAbsolute()) {
+            // A relative path lands in the container's working directory, which a redeploy discards
+            throw new IllegalStateException("app.sessions.write-behind.spool-file must be an absolute path on a "
+                    + "persistent volume when write-behind is enabled, but is '" + spoolFile + "'");
+        }
+        this.queue = new ArrayBlockingQueue<>(enabled ? queueCapacity : 1);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        replaySpool();
+        running = true;
+        flusher = new Thread(this::flushLoop, "session-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Creates a session: queued for a batched insert when write-behind is on and the queue has
+     * room, otherwise inserted right away. Either way the returned session carries its id.
+     */
+    public Session createSession(UUID userId, CreateSessionRequest request) {
+        if (!running) {
+            return sessionService.createSession(userId, request);
+        }
+
+        PendingSession session = new PendingSession(UuidV7.next(), userId, request.getDiscipline(),
+                request.getGrade(), request.getDate(), request.getNotes(), request.isSent());
+        pending.merge(userId, 1, Integer::sum);
+        boolean queued;
+        try {
+            queued = queue.offer(session, offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            // Backpressure: the caller pays for its own insert
+            markWritten(List.of(session));
+            return sessionService.createSession(userId, request);
+        }
+        return session.toSession();
+    }
+
+    public boolean hasPending(UUID userId) {
+        return pending.containsKey(userId);
+    }
+
+    /**
+     * Blocks until every session queued for the user so far has been written, or until
+     * {@code read-wait-ms} has passed.
+     *
+     * @return false if the wait timed out with sessions still queued
+     */
+    public boolean awaitFlushed(UUID userId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(readWaitMs);
+        synchronized (flushed) {
+            while (hasPending(userId)) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return false;
+                }
+                flushed.wait(remaining);
+            }
+        }
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(30));
+
+        List<PendingSession> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            spool(remaining);
+            markWritten(remaining);
+        }
+    }
+
+    private void flushLoop() {
+        List<PendingSession> batch = new ArrayList<>(batchSize);
+        long lastReplay = System.nanoTime();
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingSession first = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (running && System.nanoTime() - lastReplay >= TimeUnit.MILLISECONDS.toNanos(spoolRetryMs)) {
+                        lastReplay = System.nanoTime();
+                        replaySpool();
+                    }
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Session write-behind flush failed", e);
+            } finally {
+                markWritten(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingSession> batch) {
+        try {
+            sessionService.insertPending(batch);
+        } catch (RuntimeException e) {
+            if (!running || isUnavailable(e)) {
+                // Shutting down, when the database is likely going too, or it is unreachable
+                log.warn("Spooling {} queued sessions after a failed flush: {}", batch.size(), e.getMessage());
+                spool(batch);
+                return;
+            }
+            log.warn("Batch insert of {} queued sessions failed, retrying one by one: {}", batch.size(), e.getMessage());
+            List<PendingSession> unwritten = writeOneByOne(batch);
+            if (!unwritten.isEmpty()) {
+                log.error("Spooling {} queued sessions that could not be written", unwritten.size());
+                spool(unwritten);
+            }
+        }
+    }
+
+    /**
+     * Writes the batch one session at a time, quarantining the sessions the database rejects.
+     *
+     * @return the sessions left unwritten because the database became unreachable
+     */
+    private List<PendingSession> writeOneByOne(List<PendingSession> batch) {
+        List<PendingSession> rejected = new ArrayList<>();
+        List<PendingSession> unwritten = List.of();
+        for (int i = 0; i < batch.size(); i++) {
+            PendingSession session = batch.get(i);
+            try {
+                sessionService.insertPending(List.of(session));
+            } catch (RuntimeException e) {
+                if (isUnavailable(e)) {
+                    unwritten = batch.subList(i, batch.size());
+                    break;
+                }
+                log.error("Rejected queued session {} for user {}, moving it to {}: {}",
+                        session.id(), session.userId(), rejectedFile, e.getMessage());
+                rejected.add(session);
+            }
+        }
+        reject(rejected);
+        return unwritten;
+    }
+
+    /**
+     * Whether the failure says the database could not be reached, rather than that it refused
+     * the rows: the rows are then worth retrying later as they are.
+     */
+    static boolean isUnavailable(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataAccessResourceFailureException
+                    || cause instanceof TransientDataAccessException
+                    || cause instanceof CannotCreateTransactionException
+                    || cause instanceof SQLTransientException
+                    || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+            // SQLState class 08 is "connection exception"
+            if (cause instanceof SQLException sql && sql.getSQLState() != null && sql.getSQLState().startsWith("08")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void markWritten(Collection<PendingSession> sessions) {
+        for (PendingSession session : sessions) {
+            pending.computeIfPresent(session.userId(), (userId, count) -> count > 1 ? count - 1 : null);
+        }
+        synchronized (flushed) {
+            flushed.notifyAll();
+        }
+    }
+
+    private void spool(Collection<PendingSession> sessions) {
+        try {
+            append(spoolFile, toLines(sessions));
+        } catch (IOException e) {
+            log.error("Could not spool {} queued sessions to {}; they are lost", sessions.size(), spoolFile, e);
+        }
+    }
+
+    private void reject(Collection<PendingSession> sessions) {
+        if (sessions.isEmpty()) {
+            return;
+        }
+        try {
+            append(rejectedFile, toLines(sessions));
+        } catch (IOException e) {
+            log.error("Could not move {} rejected sessions to {}; they are lost", sessions.size(), rejectedFile, e);
+        }
+    }
+
+    /**
+     * Inserts spooled sessions, then rewrites the spool with only the sessions that are still
+     * unwritten, or removes it when none are. Unreadable lines and sessions the database rejects
+     * are moved to the rejected file. Once the database turns out to be unreachable, the rest of
+     * the spool is kept as it is for the next attempt. Sessions already stored count as written.
+     * Never throws: the spool is replayed on startup, which a bad spool must not prevent.
+     */
+    private void replaySpool() {
+        if (!Files.exists(spoolFile)) {
+            return;
+        }
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(spoolFile);
+        } catch (IOException e) {
+            log.error("Could not read spooled sessions from {}; will retry", spoolFile, e);
+            return;
+        }
+
+        List<PendingSession> spooled = new ArrayList<>();
+        List<String> unreadable = new ArrayList<>();
+        for (String line : lines) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                spooled.add(objectMapper.readValue(line, PendingSession.class));
+            } catch (JsonProcessingException e) {
+                log.error("Unreadable spooled session, moving it to {}: {}", rejectedFile, e.getOriginalMessage());
+                unreadable.add(line);
+            }
+        }
+
+        List<PendingSession> unwritten = new ArrayList<>();
+        for (int start = 0; start < spooled.size(); start += batchSize) {
+            int end = Math.min(start + batchSize, spooled.size());
+            List<PendingSession> batch = spooled.subList(start, end);
+            try {
+                sessionService.insertPending(batch);
+            } catch (RuntimeException e) {
+                List<PendingSession> left = isUnavailable(e) ? batch : writeOneByOne(batch);
+                if (!left.isEmpty()) {
+                    log.warn("Database unavailable while replaying spooled sessions: {}", e.getMessage());
+                    unwritten.addAll(left);
+                    unwritten.addAll(spooled.subList(end, spooled.size()));
+                    break;
+                }
+            }
+        }
+
+        try {
+            if (!unreadable.isEmpty()) {
+                append(rejectedFile, unreadable);
+            }
+            if (unwritten.isEmpty()) {
+                Files.delete(spoolFile);
+                log.info("Replayed {} spooled sessions from {}", spooled.size(), spoolFile);
+            } else {
+                rewriteSpool(toLines(unwritten));
+                log.error("Replayed {} of {} spooled sessions from {}; keeping the rest for the next attempt",
+                        spooled.size() - unwritten.size(), spooled.size(), spoolFile);
+            }
+        } catch (IOException e) {
+            log.error("Could not update the session spool {}; it will be replayed again", spoolFile, e);
+        }
+    }
+
+    /**
+     * Replaces the spool with {@code lines} through a temporary file, so a crash midway
+     * leaves either the old spool or the new one.
+     */
+    private void rewriteSpool(List<String> lines) throws IOException {
+        Path temp = spoolFile.resolveSibling(spoolFile.getFileName() + ".tmp");
+        Files.write(temp, lines);
+        Files.move(temp, spoolFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private List<String> toLines(Collection<PendingSession> sessions) throws JsonProcessingException {
+        List<String> lines = new ArrayList<>(sessions.size());
+        for (PendingSession session : sessions) {
+            lines.add(objectMapper.writeValueAsString(session));
+        }
+        return lines;
+    }
+
+    private static void append(Path file, List<String> lines) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+    }
+}
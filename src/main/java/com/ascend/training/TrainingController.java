@@ -1,13 +1,17 @@
 package com.ascend.training;
 
+import com.ascend.auth.AuthenticatedUser;
+import com.ascend.config.ConditionalResponses;
 import com.ascend.training.dto.*;
 import com.ascend.user.User;
+import com.ascend.user.UserDataVersions;
+import com.ascend.user.UserRepository;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -21,6 +25,8 @@ import java.util.UUID;
 public class TrainingController {
 
     private final TrainingService trainingService;
+    private final UserDataVersions dataVersions;
+    private final UserRepository userRepository;
 
     @GetMapping("/templates")
     public ResponseEntity<List<TrainingPlanTemplateDto>> getTemplates(
@@ -42,8 +48,9 @@ public class TrainingController {
 
     @PostMapping("/user-plans")
     public ResponseEntity<?> startPlan(
-            @AuthenticationPrincipal User user,
+            AuthenticatedUser caller,
             @Valid @RequestBody StartPlanRequest request) {
+        User user = userOf(caller);
         
         try {
             UserTrainingPlanDto plan = trainingService.startPlan(user, request);
@@ -56,25 +63,32 @@ public class TrainingController {
 
     @GetMapping("/user-plans")
     public ResponseEntity<List<UserTrainingPlanDto>> getUserPlans(
-            @AuthenticationPrincipal User user) {
+            AuthenticatedUser caller,
+            WebRequest webRequest) {
+        User user = userOf(caller);
         
-        List<UserTrainingPlanDto> plans = trainingService.getUserPlans(user);
-        return ResponseEntity.ok(plans);
+        return ConditionalResponses.withETag(webRequest, dataVersions.etag(user.getId()),
+                () -> ResponseEntity.ok(trainingService.getUserPlans(user)));
     }
 
     @GetMapping("/user-plans/active")
     public ResponseEntity<UserTrainingPlanDto> getActivePlan(
-            @AuthenticationPrincipal User user) {
+            AuthenticatedUser caller,
+            WebRequest webRequest) {
+        User user = userOf(caller);
         
-        Optional<UserTrainingPlanDto> activePlan = trainingService.getActivePlan(user);
-        return activePlan.map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        return ConditionalResponses.withETag(webRequest, dataVersions.etag(user.getId()), () -> {
+            Optional<UserTrainingPlanDto> activePlan = trainingService.getActivePlan(user);
+            return activePlan.map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        });
     }
 
     @GetMapping("/user-plans/{planId}")
     public ResponseEntity<UserTrainingPlanDto> getPlanDetails(
-            @AuthenticationPrincipal User user,
+            AuthenticatedUser caller,
             @PathVariable String planId) {
+        User user = userOf(caller);
         
         try {
             UUID planUuid = UUID.fromString(planId);
@@ -91,10 +105,11 @@ public class TrainingController {
 
     @PostMapping("/user-plans/{planId}/sessions/{sessionId}/complete")
     public ResponseEntity<UserTrainingPlanDto> completeSession(
-            @AuthenticationPrincipal User user,
+            AuthenticatedUser caller,
             @PathVariable String planId,
             @PathVariable String sessionId,
             @Valid @RequestBody CompleteSessionRequest request) {
+        User user = userOf(caller);
         
         try {
             UUID planUuid = UUID.fromString(planId);
@@ -121,8 +136,9 @@ public class TrainingController {
 
     @PostMapping("/user-plans/{planId}/pause")
     public ResponseEntity<UserTrainingPlanDto> pausePlan(
-            @AuthenticationPrincipal User user,
+            AuthenticatedUser caller,
             @PathVariable String planId) {
+        User user = userOf(caller);
         
         try {
             UUID planUuid = UUID.fromString(planId);
@@ -139,8 +155,9 @@ public class TrainingController {
 
     @PostMapping("/user-plans/{planId}/resume")
     public ResponseEntity<UserTrainingPlanDto> resumePlan(
-            @AuthenticationPrincipal User user,
+            AuthenticatedUser caller,
             @PathVariable String planId) {
+        User user = userOf(caller);
         
         try {
             UUID planUuid = UUID.fromString(planId);
@@ -157,8 +174,9 @@ public class TrainingController {
 
     @GetMapping("/user-plans/{planId}/progress")
     public ResponseEntity<UserTrainingPlanDto> getPlanProgress(
-            @AuthenticationPrincipal User user,
+            AuthenticatedUser caller,
             @PathVariable String planId) {
+        User user = userOf(caller);
         
         try {
             UUID planUuid = UUID.fromString(planId);
@@ -172,4 +190,9 @@ public class TrainingController {
             return ResponseEntity.notFound().build();
         }
     }
-} 
\ No newline at end of file
+
+    // The plan services only use the user's id and as an association, so a reference will do
+    private User userOf(AuthenticatedUser caller) {
+        return userRepository.getReferenceById(caller.userId());
+    }
+}
@@ -2,6 +2,7 @@ package com.ascend.training;
 
 import com.ascend.training.dto.*;
 import com.ascend.user.User;
+import com.ascend.user.UserDataVersions;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -22,6 +23,7 @@ public class TrainingService {
     private final TrainingPlanTemplateRepository templateRepository;
     private final UserTrainingPlanRepository userPlanRepository;
     private final UserTrainingSessionRepository userSessionRepository;
+    private final UserDataVersions dataVersions;
 
     public List<TrainingPlanTemplateDto> getAvailableTemplates() {
         List<TrainingPlanTemplate> templates = templateRepository.findByIsActiveTrue();
@@ -71,6 +73,7 @@ public class TrainingService {
 
         // Create user training weeks and sessions
         createUserTrainingWeeksAndSessions(userPlan, template);
+        dataVersions.bump(user.getId());
 
         return convertToUserPlanDto(userPlan);
     }
@@ -128,6 +131,7 @@ public class TrainingService {
 
         // Update plan progress
         updatePlanProgress(plan);
+        dataVersions.bump(user.getId());
 
         return convertToUserPlanDto(plan);
     }
@@ -149,6 +153,7 @@ public class TrainingService {
         plan.setLastActivityAt(LocalDateTime.now());
 
         userPlanRepository.save(plan);
+        dataVersions.bump(user.getId());
 
         return convertToUserPlanDto(plan);
     }
@@ -170,6 +175,7 @@ public class TrainingService {
         plan.setLastActivityAt(LocalDateTime.now());
 
         userPlanRepository.save(plan);
+        dataVersions.bump(user.getId());
 
         return convertToUserPlanDto(plan);
     }
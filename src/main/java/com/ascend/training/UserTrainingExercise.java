@@ -1,5 +1,6 @@
 package com.ascend.training;
 
+import com.ascend.config.TimeOrderedUuid;
 import jakarta.persistence.*;
 import lombok.*;
 import java.util.UUID;
@@ -14,7 +15,7 @@ import java.time.LocalDateTime;
 public class UserTrainingExercise {
 
     @Id
-    @GeneratedValue
+    @TimeOrderedUuid
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -1,5 +1,6 @@
 package com.ascend.training;
 
+import com.ascend.config.TimeOrderedUuid;
 import com.ascend.user.User;
 import jakarta.persistence.*;
 import lombok.*;
@@ -16,7 +17,7 @@ import java.util.List;
 public class UserTrainingPlan {
 
     @Id
-    @GeneratedValue
+    @TimeOrderedUuid
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
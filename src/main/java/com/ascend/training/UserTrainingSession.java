@@ -1,5 +1,6 @@
 package com.ascend.training;
 
+import com.ascend.config.TimeOrderedUuid;
 import jakarta.persistence.*;
 import lombok.*;
 import java.util.UUID;
@@ -15,7 +16,7 @@ import java.util.List;
 public class UserTrainingSession {
 
     @Id
-    @GeneratedValue
+    @TimeOrderedUuid
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -1,14 +1,12 @@
 package com.ascend.user;
 
+import com.ascend.auth.AuthenticatedUser;
 import com.ascend.auth.UserResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.bind.MissingRequestHeaderException;
 import jakarta.validation.Valid;
 
-import com.ascend.auth.JwtService;
-
 import java.util.NoSuchElementException;
 import java.util.UUID;
 
@@ -18,12 +16,12 @@ import java.util.UUID;
 public class UserController {
 
     private final UserService userService;
-    private final JwtService jwtService;
+    private final UserProfileCache userProfiles;
 
     @PostMapping
     public ResponseEntity<UserResponse> createUser(@Valid @RequestBody CreateUserRequest request) {
         User user = userService.createUser(request.getEmail(), request.getPassword(), request.getFirstName(), request.getLastName());
-        UserResponse response = new UserResponse(user.getId(), user.getEmail(), user.getCreatedAt(), user.getFirstName(), user.getLastName());
+        UserResponse response = UserResponse.of(user);
         return ResponseEntity.ok(response);
     }
 
@@ -31,21 +29,14 @@ public class UserController {
     public ResponseEntity<UserResponse> getUserById(@PathVariable UUID id) {
         User user = userService.getUserById(id)
                 .orElseThrow(() -> new NoSuchElementException("User not found"));
-        UserResponse response = new UserResponse(user.getId(), user.getEmail(), user.getCreatedAt(), user.getFirstName(), user.getLastName());
+        UserResponse response = UserResponse.of(user);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/me")
-    public ResponseEntity<UserResponse> getCurrentUser(@RequestHeader("Authorization") String authHeader) {
-        try {
-            String token = authHeader.replace("Bearer ", "");
-            UUID userId = jwtService.validateToken(token);
-            User user = userService.getUserById(userId)
-                    .orElseThrow(() -> new NoSuchElementException("User not found"));
-            UserResponse response = new UserResponse(user.getId(), user.getEmail(), user.getCreatedAt(), user.getFirstName(), user.getLastName());
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            throw new RuntimeException("Unauthorized");
-        }
+    public ResponseEntity<UserResponse> getCurrentUser(AuthenticatedUser caller) {
+        UserResponse response = userProfiles.get(caller)
+                .orElseThrow(() -> new RuntimeException("Unauthorized"));
+        return ResponseEntity.ok(response);
     }
 }
\ No newline at end of file
@@ -0,0 +1,144 @@
+package com.ascend.user;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory, monotonically increasing version of each user's data, bumped by every session and
+ * training write. Read endpoints derive strong ETags from it, so conditional requests can be
+ * answered without touching the database.
+ *
+ * <p>Versions live in this process only. ETags embed a per-process epoch so that tags issued
+ * before a restart never match afterwards.
+ *
+ * <p>At most {@code max-users} users are tracked; beyond that the users tracked longest are
+ * dropped. A dropped user's last version is folded into a shared floor, which is what untracked
+ * users report and where their counter restarts, so a user's version never goes backwards and a
+ * tag issued before the drop cannot match data written after it.
+ */
+@Component
+public class UserDataVersions {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final int maxUsers;
+    private final ConcurrentMap<UUID, Long> versions = new ConcurrentHashMap<>();
+    // Tracked users, oldest first; each tracked user appears exactly once
+    private final Queue<UUID> trackedOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicLong floor = new AtomicLong();
+
+    public UserDataVersions(@Value("${app.users.data-versions.max-users:100000}") int maxUsers) {
+        this.maxUsers = Math.max(1, maxUsers);
+    }
+
+    public long current(UUID userId) {
+        Long version = versions.get(userId);
+        return version != null ? version : floor.get();
+    }
+
+    /**
+     * Advances the user's version around a write. Inside a transaction the version moves once
+     * just before commit and again on completion, so anything read or computed while the
+     * commit is in flight is tagged with a version that is already outdated afterwards.
+     */
+    public void bump(UUID userId) {
+        bump(userId, (previousVersion, newVersion) -> { });
+    }
+
+    /**
+     * Advances the user's version as {@link #bump(UUID)} does and, if the write committed,
+     * reports the transition so derived in-memory state can follow it.
+     */
+    public void bump(UUID userId, Transition onCommitted) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private long started;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    started = increment(userId);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    long completed = increment(userId);
+                    if (status == STATUS_COMMITTED) {
+                        onCommitted.committed(previous(started, completed), completed);
+                    }
+                }
+            });
+        } else {
+            long started = increment(userId);
+            long completed = increment(userId);
+            onCommitted.committed(previous(started, completed), completed);
+        }
+    }
+
+    /**
+     * Strong ETag for a representation of the user's data at the current version. {@code variant}
+     * distinguishes representations whose content also depends on something other than the
+     * stored data, such as a period resolved against today's date.
+     */
+    public String etag(UUID userId, Object... variant) {
+        StringBuilder etag = new StringBuilder("\"").append(epoch).append('-').append(current(userId));
+        if (variant.length > 0) {
+            etag.append('-').append(Integer.toHexString(Arrays.hashCode(variant)));
+        }
+        return etag.append('"').toString();
+    }
+
+    // The version the data had right before the write, unless another write overlapped it
+    private static long previous(long started, long completed) {
+        return completed == started + 1 ? started - 1 : -1L;
+    }
+
+    private long increment(UUID userId) {
+        boolean[] added = new boolean[1];
+        // The floor is read inside compute, so it cannot be raised for this user halfway through
+        long version = versions.compute(userId, (id, current) -> {
+            if (current != null) {
+                return current + 1;
+            }
+            added[0] = true;
+            return floor.get() + 1;
+        });
+        if (added[0]) {
+            trackedOrder.add(userId);
+            evictOverflow();
+        }
+        return version;
+    }
+
+    private void evictOverflow() {
+        while (versions.size() > maxUsers) {
+            UUID oldest = trackedOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            versions.computeIfPresent(oldest, (id, last) -> {
+                floor.accumulateAndGet(last, Math::max);
+                return null;
+            });
+        }
+    }
+
+    @FunctionalInterface
+    public interface Transition {
+
+        /**
+         * @param previousVersion the version the data had immediately before the write, or -1 if
+         *                        another write to the same user overlapped it
+         * @param newVersion      the version the data has now
+         */
+        void committed(long previousVersion, long newVersion);
+    }
+}
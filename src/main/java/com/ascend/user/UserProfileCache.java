@@ -0,0 +1,99 @@
+package com.ascend.user;
+
+import com.ascend.auth.AuthenticatedUser;
+import com.ascend.auth.UserResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Profiles of recently seen users, so that {@code /api/users/me} and {@code /api/auth/validate}
+ * do not read the user row on every call. Entries live for {@code ttl} and at most
+ * {@code max-entries} are held, least recently used first out. Writes to a user call
+ * {@link #invalidate(UUID)}; the TTL bounds how stale a profile can get if a write is missed.
+ * <p>
+ * A caller whose token carries its profile ({@code jwt.profile-claims}) is answered from the
+ * token without touching the cache.
+ */
+@Component
+public class UserProfileCache {
+
+    private record Entry(UserResponse profile, long loadedAt) {
+    }
+
+    private final UserRepository userRepository;
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    // Access-ordered for LRU eviction; entries and invalidations are guarded by entries
+    private final LinkedHashMap<UUID, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    };
+    private long invalidations;
+
+    public UserProfileCache(UserRepository userRepository,
+                            @Value("${app.users.profile-cache.max-entries:10000}") int maxEntries,
+                            @Value("${app.users.profile-cache.ttl:PT5M}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public Optional<UserResponse> get(AuthenticatedUser caller) {
+        return caller.profile() != null ? Optional.of(caller.profile()) : get(caller.userId());
+    }
+
+    public Optional<UserResponse> get(UUID userId) {
+        long now = System.nanoTime();
+        long generation;
+        synchronized (entries) {
+            Entry entry = entries.get(userId);
+            if (entry != null && now - entry.loadedAt() < ttlNanos) {
+                return Optional.of(entry.profile());
+            }
+            generation = invalidations;
+        }
+
+        Optional<UserResponse> profile = userRepository.findById(userId).map(UserResponse::of);
+        synchronized (entries) {
+            // An invalidation during the load may not be reflected in it; don't keep it
+            if (profile.isPresent() && maxEntries > 0 && invalidations == generation) {
+                entries.put(userId, new Entry(profile.get(), now));
+            }
+        }
+        return profile;
+    }
+
+    /**
+     * Drops the user's profile. Inside a transaction it is dropped again on completion, so a
+     * read that reloaded the old row while the write was in flight does not linger.
+     */
+    public void invalidate(UUID userId) {
+        evict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(userId);
+                }
+            });
+        }
+    }
+
+    private void evict(UUID userId) {
+        synchronized (entries) {
+            invalidations++;
+            entries.remove(userId);
+        }
+    }
+}
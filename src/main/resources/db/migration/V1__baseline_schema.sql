@@ -0,0 +1,182 @@
+-- Baseline schema, matching what ddl-auto=update produced, plus indexes for every repository finder.
+-- IF NOT EXISTS keeps this safe to apply on databases that were created by Hibernate before
+-- migrations existed (Flyway baselines them at version 0).
+
+CREATE TABLE IF NOT EXISTS users (
+    id         UUID         NOT NULL PRIMARY KEY,
+    email      VARCHAR(255) NOT NULL,
+    password   VARCHAR(255) NOT NULL,
+    first_name VARCHAR(255) NOT NULL,
+    last_name  VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS sessions (
+    id          UUID             NOT NULL PRIMARY KEY,
+    user_id     UUID             NOT NULL,
+    discipline  VARCHAR(255)     NOT NULL,
+    grade       VARCHAR(255)     NOT NULL,
+    date        DATE             NOT NULL,
+    notes       VARCHAR(1000),
+    sent        BOOLEAN          NOT NULL,
+    grade_value DOUBLE PRECISION,
+    CONSTRAINT fk_sessions_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS session_rollups (
+    id                   UUID             NOT NULL PRIMARY KEY,
+    user_id              UUID             NOT NULL,
+    discipline           VARCHAR(255)     NOT NULL,
+    bucket_start         DATE             NOT NULL,
+    session_count        INTEGER          NOT NULL,
+    grade_value_sum      DOUBLE PRECISION NOT NULL,
+    sent_count           INTEGER          NOT NULL,
+    sent_grade_value_sum DOUBLE PRECISION NOT NULL,
+    max_grade            VARCHAR(255)     NOT NULL,
+    CONSTRAINT uk_session_rollups_user_bucket_discipline UNIQUE (user_id, bucket_start, discipline)
+);
+
+CREATE TABLE IF NOT EXISTS password_reset_tokens (
+    id         UUID         NOT NULL PRIMARY KEY,
+    user_id    UUID         NOT NULL,
+    code       VARCHAR(6)   NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL,
+    attempts   INTEGER      NOT NULL,
+    used       BOOLEAN      NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_password_reset_tokens_code UNIQUE (code),
+    CONSTRAINT fk_password_reset_tokens_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS training_plan_templates (
+    id                UUID         NOT NULL PRIMARY KEY,
+    name              VARCHAR(255) NOT NULL,
+    description       TEXT,
+    total_weeks       INTEGER      NOT NULL,
+    sessions_per_week INTEGER      NOT NULL,
+    difficulty        VARCHAR(255) NOT NULL,
+    category          VARCHAR(255) NOT NULL,
+    is_active         BOOLEAN,
+    created_at        TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS training_week_templates (
+    id          UUID         NOT NULL PRIMARY KEY,
+    template_id UUID         NOT NULL,
+    week_number INTEGER      NOT NULL,
+    description TEXT,
+    focus       VARCHAR(255) NOT NULL,
+    CONSTRAINT fk_training_week_templates_template FOREIGN KEY (template_id) REFERENCES training_plan_templates (id)
+);
+
+CREATE TABLE IF NOT EXISTS training_session_templates (
+    id                         UUID         NOT NULL PRIMARY KEY,
+    week_template_id           UUID         NOT NULL,
+    session_number             INTEGER      NOT NULL,
+    name                       VARCHAR(255) NOT NULL,
+    description                TEXT,
+    estimated_duration_minutes INTEGER      NOT NULL,
+    session_type               VARCHAR(255) NOT NULL,
+    CONSTRAINT fk_training_session_templates_week FOREIGN KEY (week_template_id) REFERENCES training_week_templates (id)
+);
+
+CREATE TABLE IF NOT EXISTS training_exercise_templates (
+    id                  UUID         NOT NULL PRIMARY KEY,
+    session_template_id UUID         NOT NULL,
+    name                VARCHAR(255) NOT NULL,
+    description         TEXT,
+    exercise_type       VARCHAR(255) NOT NULL,
+    order_in_session    INTEGER      NOT NULL,
+    sets                INTEGER      NOT NULL,
+    reps                INTEGER      NOT NULL,
+    duration_seconds    INTEGER,
+    rest_seconds        INTEGER,
+    instructions        TEXT,
+    equipment           VARCHAR(255),
+    CONSTRAINT fk_training_exercise_templates_session FOREIGN KEY (session_template_id) REFERENCES training_session_templates (id)
+);
+
+CREATE TABLE IF NOT EXISTS user_training_plans (
+    id               UUID         NOT NULL PRIMARY KEY,
+    user_id          UUID         NOT NULL,
+    template_id      UUID         NOT NULL,
+    name             VARCHAR(255) NOT NULL,
+    description      TEXT,
+    status           VARCHAR(255) NOT NULL,
+    current_week     INTEGER,
+    current_session  INTEGER,
+    started_at       TIMESTAMP(6) NOT NULL,
+    paused_at        TIMESTAMP(6),
+    completed_at     TIMESTAMP(6),
+    last_activity_at TIMESTAMP(6),
+    CONSTRAINT fk_user_training_plans_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_user_training_plans_template FOREIGN KEY (template_id) REFERENCES training_plan_templates (id)
+);
+
+CREATE TABLE IF NOT EXISTS user_training_weeks (
+    id               UUID         NOT NULL PRIMARY KEY,
+    user_plan_id     UUID         NOT NULL,
+    week_template_id UUID         NOT NULL,
+    week_number      INTEGER      NOT NULL,
+    status           VARCHAR(255) NOT NULL,
+    started_at       TIMESTAMP(6),
+    completed_at     TIMESTAMP(6),
+    CONSTRAINT fk_user_training_weeks_plan FOREIGN KEY (user_plan_id) REFERENCES user_training_plans (id),
+    CONSTRAINT fk_user_training_weeks_template FOREIGN KEY (week_template_id) REFERENCES training_week_templates (id)
+);
+
+CREATE TABLE IF NOT EXISTS user_training_sessions (
+    id                      UUID         NOT NULL PRIMARY KEY,
+    user_week_id            UUID         NOT NULL,
+    session_template_id     UUID         NOT NULL,
+    session_number          INTEGER      NOT NULL,
+    status                  VARCHAR(255) NOT NULL,
+    started_at              TIMESTAMP(6),
+    completed_at            TIMESTAMP(6),
+    actual_duration_minutes INTEGER,
+    notes                   TEXT,
+    CONSTRAINT fk_user_training_sessions_week FOREIGN KEY (user_week_id) REFERENCES user_training_weeks (id),
+    CONSTRAINT fk_user_training_sessions_template FOREIGN KEY (session_template_id) REFERENCES training_session_templates (id)
+);
+
+CREATE TABLE IF NOT EXISTS user_training_exercises (
+    id                      UUID         NOT NULL PRIMARY KEY,
+    user_session_id         UUID         NOT NULL,
+    exercise_template_id    UUID         NOT NULL,
+    order_in_session        INTEGER      NOT NULL,
+    status                  VARCHAR(255) NOT NULL,
+    actual_sets             INTEGER,
+    actual_reps             INTEGER,
+    actual_duration_seconds INTEGER,
+    completed_at            TIMESTAMP(6),
+    notes                   TEXT,
+    CONSTRAINT fk_user_training_exercises_session FOREIGN KEY (user_session_id) REFERENCES user_training_sessions (id),
+    CONSTRAINT fk_user_training_exercises_template FOREIGN KEY (exercise_template_id) REFERENCES training_exercise_templates (id)
+);
+
+-- sessions: history listing, date windows, keyset pages and export (user_id, date, id);
+-- discipline listing, discipline pages and per-bucket max grade (user_id, discipline, date, id)
+DROP INDEX IF EXISTS idx_sessions_user_date;
+CREATE INDEX IF NOT EXISTS idx_sessions_user_date_id ON sessions (user_id, date, id);
+CREATE INDEX IF NOT EXISTS idx_sessions_user_discipline_date_id ON sessions (user_id, discipline, date, id);
+
+-- password_reset_tokens: code lookups use uk_password_reset_tokens_code;
+-- valid-token check and invalidation per user; expiry sweep
+CREATE INDEX IF NOT EXISTS idx_password_reset_tokens_user_used_expires ON password_reset_tokens (user_id, used, expires_at);
+CREATE INDEX IF NOT EXISTS idx_password_reset_tokens_expires ON password_reset_tokens (expires_at);
+
+-- user_training_plans: plans by user and status, newest first
+CREATE INDEX IF NOT EXISTS idx_user_training_plans_user_status_started ON user_training_plans (user_id, status, started_at);
+CREATE INDEX IF NOT EXISTS idx_user_training_plans_user_started ON user_training_plans (user_id, started_at);
+
+-- user training hierarchy: child rows by parent, in display order
+CREATE INDEX IF NOT EXISTS idx_user_training_weeks_plan_week ON user_training_weeks (user_plan_id, week_number);
+CREATE INDEX IF NOT EXISTS idx_user_training_sessions_week_number ON user_training_sessions (user_week_id, session_number);
+CREATE INDEX IF NOT EXISTS idx_user_training_sessions_week_status ON user_training_sessions (user_week_id, status);
+CREATE INDEX IF NOT EXISTS idx_user_training_exercises_session_order ON user_training_exercises (user_session_id, order_in_session);
+
+-- template hierarchy: children by parent
+CREATE INDEX IF NOT EXISTS idx_training_week_templates_template ON training_week_templates (template_id, week_number);
+CREATE INDEX IF NOT EXISTS idx_training_session_templates_week ON training_session_templates (week_template_id, session_number);
+CREATE INDEX IF NOT EXISTS idx_training_exercise_templates_session ON training_exercise_templates (session_template_id, order_in_session);
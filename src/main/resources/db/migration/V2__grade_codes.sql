@@ -0,0 +1,109 @@
+-- Store grades as the two-byte Grade.code (see GradeConverter) instead of the enum name.
+-- Codes increase with difficulty within a scale: V grades are 0-99, YDS grades start at 100.
+-- An unknown name leaves the code NULL, so SET NOT NULL fails and the migration rolls back.
+
+ALTER TABLE sessions ADD COLUMN grade_code SMALLINT;
+UPDATE sessions SET grade_code = CASE grade
+        WHEN 'V0' THEN 0
+        WHEN 'V1' THEN 1
+        WHEN 'V2' THEN 2
+        WHEN 'V3' THEN 3
+        WHEN 'V4' THEN 4
+        WHEN 'V5' THEN 5
+        WHEN 'V6' THEN 6
+        WHEN 'V7' THEN 7
+        WHEN 'V8' THEN 8
+        WHEN 'V9' THEN 9
+        WHEN 'V10' THEN 10
+        WHEN 'V11' THEN 11
+        WHEN 'V12' THEN 12
+        WHEN 'V13' THEN 13
+        WHEN 'V14' THEN 14
+        WHEN 'V15' THEN 15
+        WHEN 'V16' THEN 16
+        WHEN 'V17' THEN 17
+        WHEN 'YDS_5_6' THEN 100
+        WHEN 'YDS_5_7' THEN 101
+        WHEN 'YDS_5_8' THEN 102
+        WHEN 'YDS_5_9' THEN 103
+        WHEN 'YDS_5_10A' THEN 104
+        WHEN 'YDS_5_10B' THEN 105
+        WHEN 'YDS_5_10C' THEN 106
+        WHEN 'YDS_5_10D' THEN 107
+        WHEN 'YDS_5_11A' THEN 108
+        WHEN 'YDS_5_11B' THEN 109
+        WHEN 'YDS_5_11C' THEN 110
+        WHEN 'YDS_5_11D' THEN 111
+        WHEN 'YDS_5_12A' THEN 112
+        WHEN 'YDS_5_12B' THEN 113
+        WHEN 'YDS_5_12C' THEN 114
+        WHEN 'YDS_5_12D' THEN 115
+        WHEN 'YDS_5_13A' THEN 116
+        WHEN 'YDS_5_13B' THEN 117
+        WHEN 'YDS_5_13C' THEN 118
+        WHEN 'YDS_5_13D' THEN 119
+        WHEN 'YDS_5_14A' THEN 120
+        WHEN 'YDS_5_14B' THEN 121
+        WHEN 'YDS_5_14C' THEN 122
+        WHEN 'YDS_5_14D' THEN 123
+        WHEN 'YDS_5_15A' THEN 124
+        WHEN 'YDS_5_15B' THEN 125
+        WHEN 'YDS_5_15C' THEN 126
+        WHEN 'YDS_5_15D' THEN 127
+    END;
+ALTER TABLE sessions ALTER COLUMN grade_code SET NOT NULL;
+ALTER TABLE sessions DROP COLUMN grade;
+ALTER TABLE sessions RENAME COLUMN grade_code TO grade;
+
+ALTER TABLE session_rollups ADD COLUMN max_grade_code SMALLINT;
+UPDATE session_rollups SET max_grade_code = CASE max_grade
+        WHEN 'V0' THEN 0
+        WHEN 'V1' THEN 1
+        WHEN 'V2' THEN 2
+        WHEN 'V3' THEN 3
+        WHEN 'V4' THEN 4
+        WHEN 'V5' THEN 5
+        WHEN 'V6' THEN 6
+        WHEN 'V7' THEN 7
+        WHEN 'V8' THEN 8
+        WHEN 'V9' THEN 9
+        WHEN 'V10' THEN 10
+        WHEN 'V11' THEN 11
+        WHEN 'V12' THEN 12
+        WHEN 'V13' THEN 13
+        WHEN 'V14' THEN 14
+        WHEN 'V15' THEN 15
+        WHEN 'V16' THEN 16
+        WHEN 'V17' THEN 17
+        WHEN 'YDS_5_6' THEN 100
+        WHEN 'YDS_5_7' THEN 101
+        WHEN 'YDS_5_8' THEN 102
+        WHEN 'YDS_5_9' THEN 103
+        WHEN 'YDS_5_10A' THEN 104
+        WHEN 'YDS_5_10B' THEN 105
+        WHEN 'YDS_5_10C' THEN 106
+        WHEN 'YDS_5_10D' THEN 107
+        WHEN 'YDS_5_11A' THEN 108
+        WHEN 'YDS_5_11B' THEN 109
+        WHEN 'YDS_5_11C' THEN 110
+        WHEN 'YDS_5_11D' THEN 111
+        WHEN 'YDS_5_12A' THEN 112
+        WHEN 'YDS_5_12B' THEN 113
+        WHEN 'YDS_5_12C' THEN 114
+        WHEN 'YDS_5_12D' THEN 115
+        WHEN 'YDS_5_13A' THEN 116
+        WHEN 'YDS_5_13B' THEN 117
+        WHEN 'YDS_5_13C' THEN 118
+        WHEN 'YDS_5_13D' THEN 119
+        WHEN 'YDS_5_14A' THEN 120
+        WHEN 'YDS_5_14B' THEN 121
+        WHEN 'YDS_5_14C' THEN 122
+        WHEN 'YDS_5_14D' THEN 123
+        WHEN 'YDS_5_15A' THEN 124
+        WHEN 'YDS_5_15B' THEN 125
+        WHEN 'YDS_5_15C' THEN 126
+        WHEN 'YDS_5_15D' THEN 127
+    END;
+ALTER TABLE session_rollups ALTER COLUMN max_grade_code SET NOT NULL;
+ALTER TABLE session_rollups DROP COLUMN max_grade;
+ALTER TABLE session_rollups RENAME COLUMN max_grade_code TO max_grade;
@@ -0,0 +1,5 @@
+-- V1 declares grade_value in CREATE TABLE IF NOT EXISTS sessions, which is a no-op on databases
+-- that Hibernate created before migrations existed (baselined at version 0), so add it here.
+-- GradeValueBackfill fills it in on startup.
+
+ALTER TABLE sessions ADD COLUMN IF NOT EXISTS grade_value DOUBLE PRECISION;
@@ -0,0 +1,103 @@
+package com.ascend.auth;
+
+import com.ascend.user.User;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String OLD_SECRET = "oldSecretKeyForTestingPurposesOnlyDoNotUseInProduction";
+    private static final String NEW_SECRET = "newSecretKeyForTestingPurposesOnlyDoNotUseInProduction";
+
+    @Test
+    void authenticate_ShouldReadCallerFromGeneratedToken() {
+        JwtService jwtService = new JwtService(NEW_SECRET, List.of(), 0, false);
+        UUID userId = UUID.randomUUID();
+
+        AuthenticatedUser caller = jwtService.authenticate(jwtService.generateToken(userId));
+
+        assertEquals(userId, caller.userId());
+        assertNotNull(caller.issuedAt());
+        assertTrue(caller.expiresAt().isAfter(caller.issuedAt()));
+    }
+
+    @Test
+    void authenticate_AfterRotation_ShouldAcceptTokensSignedWithPreviousSecret() {
+        UUID userId = UUID.randomUUID();
+        String oldToken = new JwtService(OLD_SECRET, List.of(), 0, false).generateToken(userId);
+
+        JwtService rotated = new JwtService(NEW_SECRET, List.of(OLD_SECRET), 0, false);
+        assertEquals(userId, rotated.validateToken(oldToken));
+        assertEquals(userId, rotated.validateToken(rotated.generateToken(userId)));
+
+        // Once the old secret is retired its tokens are rejected
+        JwtService retired = new JwtService(NEW_SECRET, List.of(), 0, false);
+        RuntimeException e = assertThrows(RuntimeException.class, () -> retired.validateToken(oldToken));
+        assertEquals("Invalid token", e.getMessage());
+    }
+
+    @Test
+    void authenticate_WithTokenWithoutKeyId_ShouldVerifyAgainstSigningKey() {
+        UUID userId = UUID.randomUUID();
+        String legacyToken = Jwts.builder()
+                .setSubject(userId.toString())
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(NEW_SECRET.getBytes()))
+                .compact();
+
+        assertEquals(userId, new JwtService(NEW_SECRET, List.of(), 0, false).validateToken(legacyToken));
+        assertThrows(RuntimeException.class, () -> new JwtService(OLD_SECRET, List.of(), 0, false).validateToken(legacyToken));
+    }
+
+    @Test
+    void generateToken_WithProfileClaims_ShouldCarryProfile() {
+        User user = User.builder()
+                .id(UUID.randomUUID())
+                .email("claims@example.com")
+                .firstName("Claims")
+                .lastName("User")
+                .createdAt(LocalDateTime.of(2024, 5, 1, 9, 30))
+                .build();
+
+        JwtService withClaims = new JwtService(NEW_SECRET, List.of(), 0, true);
+        assertEquals(UserResponse.of(user), withClaims.authenticate(withClaims.generateToken(user)).profile());
+
+        JwtService withoutClaims = new JwtService(NEW_SECRET, List.of(), 0, false);
+        assertNull(withoutClaims.authenticate(withoutClaims.generateToken(user)).profile());
+    }
+
+    @Test
+    void authenticate_WithCache_ShouldAnswerRepeatedTokenFromMemory() {
+        JwtService jwtService = new JwtService(NEW_SECRET, List.of(), 2, false);
+        String token = jwtService.generateToken(UUID.randomUUID());
+
+        assertSame(jwtService.authenticate(token), jwtService.authenticate(token));
+    }
+
+    @Test
+    void authenticate_WithExpiredOrTamperedToken_ShouldThrow() {
+        JwtService jwtService = new JwtService(NEW_SECRET, List.of(), 2, false);
+        String expired = Jwts.builder()
+                .setSubject(UUID.randomUUID().toString())
+                .setExpiration(new Date(System.currentTimeMillis() - 1_000))
+                .signWith(Keys.hmacShaKeyFor(NEW_SECRET.getBytes()))
+                .compact();
+        String token = jwtService.generateToken(UUID.randomUUID());
+        int signature = token.lastIndexOf('.') + 1;
+        char replacement = token.charAt(signature) == 'A' ? 'B' : 'A';
+        String tampered = token.substring(0, signature) + replacement + token.substring(signature + 1);
+
+        assertThrows(RuntimeException.class, () -> jwtService.authenticate(expired));
+        assertThrows(RuntimeException.class, () -> jwtService.authenticate(tampered));
+        assertThrows(RuntimeException.class, () -> jwtService.authenticate("not.a.token"));
+    }
+}
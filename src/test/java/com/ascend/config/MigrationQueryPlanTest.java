@@ -0,0 +1,179 @@
+package com.ascend.config;
+
+import com.ascend.auth.PasswordResetTokenRepository;
+import com.ascend.session.SessionDiscipline;
+import com.ascend.session.SessionRepository;
+import com.ascend.training.UserTrainingPlan;
+import com.ascend.training.UserTrainingPlanRepository;
+import com.ascend.training.UserTrainingSessionRepository;
+import com.ascend.training.UserTrainingWeek;
+import com.ascend.user.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Builds the schema from the Flyway migrations and checks that every per-user finder is
+ * served by an index rather than a full table scan.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migrationsdb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.ascend.config.MigrationQueryPlanTest$RecordingStatementInspector"
+})
+class MigrationQueryPlanTest {
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private UserTrainingPlanRepository planRepository;
+
+    @Autowired
+    private UserTrainingSessionRepository trainingSessionRepository;
+
+    @Autowired
+    private PasswordResetTokenRepository tokenRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private UUID userId;
+    private User user;
+    private UserTrainingWeek week;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        user = entityManager.getReference(User.class, userId);
+        week = entityManager.getReference(UserTrainingWeek.class, UUID.randomUUID());
+    }
+
+    @Test
+    void sessionFindersUseIndexes() {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 2, 1);
+
+        assertIndexed(() -> sessionRepository.findByUserId(userId));
+        assertIndexed(() -> sessionRepository.findSummariesByUserId(userId, true));
+        assertIndexed(() -> sessionRepository.findSummariesByUserIdAndDiscipline(userId, SessionDiscipline.BOULDER, true));
+        assertIndexed(() -> sessionRepository.findSummariesByUserIdAndDate(userId, from, true));
+        assertIndexed(() -> sessionRepository.findByUserIdInRange(userId, from, to));
+        assertIndexed(() -> sessionRepository.findPage(userId, from, to, to, UUID.randomUUID(), true, PageRequest.ofSize(51)));
+        assertIndexed(() -> sessionRepository.findPageByDiscipline(userId, SessionDiscipline.BOULDER, from, to, to,
+                UUID.randomUUID(), true, PageRequest.ofSize(51)));
+        assertIndexed(() -> sessionRepository.findSnapshotsByUserId(userId));
+        assertIndexed(() -> sessionRepository.findOwnedSnapshot(UUID.randomUUID(), userId));
+        assertIndexed(() -> sessionRepository.findOwnedUpdateRow(UUID.randomUUID(), userId));
+        assertIndexed(() -> sessionRepository.findDailyActivity(userId));
+        assertIndexed(() -> sessionRepository.aggregateByDiscipline(userId));
+        assertIndexed(() -> sessionRepository.aggregateByDisciplineInRange(userId, from, to));
+        assertIndexed(() -> sessionRepository.countByGradeInRange(userId, from, to));
+        assertIndexed(() -> sessionRepository.findGradesInRangeHighestFirst(userId, SessionDiscipline.BOULDER, from, to,
+                PageRequest.ofSize(1)));
+        assertIndexed(() -> {
+            try (var rows = sessionRepository.streamExportRows(userId)) {
+                rows.count();
+            }
+        });
+    }
+
+    @Test
+    void trainingPlanFindersUseIndexes() {
+        assertIndexed(() -> planRepository.findByUserOrderByStartedAtDesc(user));
+        assertIndexed(() -> planRepository.findByUserAndStatusOrderByStartedAtDesc(user, UserTrainingPlan.PlanStatus.ACTIVE));
+        assertIndexed(() -> planRepository.findByUserAndStatus(user, UserTrainingPlan.PlanStatus.ACTIVE));
+        assertIndexed(() -> planRepository.findActivePlansByUser(user));
+        assertIndexed(() -> planRepository.findActivePlanByUser(user));
+        assertIndexed(() -> planRepository.existsByUserAndStatus(user, UserTrainingPlan.PlanStatus.PAUSED));
+    }
+
+    @Test
+    void trainingSessionFindersUseIndexes() {
+        UUID planId = UUID.randomUUID();
+
+        assertIndexed(() -> trainingSessionRepository.findByUserWeekOrderBySessionNumber(week));
+        assertIndexed(() -> trainingSessionRepository.findByUserWeekAndSessionNumber(week, 1));
+        assertIndexed(() -> trainingSessionRepository.findByPlanIdAndSessionNumber(planId, 1));
+        assertIndexed(() -> trainingSessionRepository.countCompletedSessionsByPlanId(planId));
+        assertIndexed(() -> trainingSessionRepository.countTotalSessionsByPlanId(planId));
+    }
+
+    @Test
+    void passwordResetTokenFindersUseIndexes() {
+        // deleteExpiredAndUsedTokens is a periodic sweep over an OR predicate and is deliberately excluded
+        assertIndexed(() -> tokenRepository.findByCode("123456"));
+        assertIndexed(() -> tokenRepository.findByCodeAndUsedFalse("123456"));
+        assertIndexed(() -> tokenRepository.existsValidTokenForUser(userId, LocalDateTime.now()));
+        assertIndexed(() -> tokenRepository.markAllTokensAsUsedForUser(userId));
+    }
+
+    private void assertIndexed(Runnable finder) {
+        RecordingStatementInspector.clear();
+        finder.run();
+        List<String> statements = RecordingStatementInspector.drain();
+        assertFalse(statements.isEmpty(), "finder issued no SQL");
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        for (String sql : statements) {
+            // Plain EXPLAIN only plans the statement, so the bind parameters can stay unset
+            String plan = jdbcTemplate.query(connection -> connection.prepareStatement("EXPLAIN " + sql),
+                    rs -> rs.next() ? rs.getString(1) : "");
+            assertFalse(plan.contains("tableScan"), () -> "Full table scan for:\n" + sql + "\nplan:\n" + plan);
+        }
+    }
+
+    /**
+     * Captures the SQL Hibernate sends so each finder's statements can be explained.
+     */
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        private static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            synchronized (STATEMENTS) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+
+        static void clear() {
+            synchronized (STATEMENTS) {
+                STATEMENTS.clear();
+            }
+        }
+
+        static List<String> drain() {
+            synchronized (STATEMENTS) {
+                List<String> drained = new ArrayList<>(STATEMENTS);
+                STATEMENTS.clear();
+                return drained;
+            }
+        }
+    }
+}
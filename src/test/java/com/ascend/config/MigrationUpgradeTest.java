@@ -0,0 +1,70 @@
+package com.ascend.config;
+
+import com.ascend.session.Grade;
+import com.ascend.session.Session;
+import com.ascend.session.SessionRepository;
+import com.ascend.session.SessionRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Upgrades a database that Hibernate created before migrations existed: Flyway baselines it at
+ * version 0 and applies every migration, then Hibernate validates the result against the entities.
+ * Context startup fails if any column the entities map is missing or has the wrong type.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class MigrationUpgradeTest {
+
+    private static final String URL = "jdbc:h2:mem:upgradedb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+    private static final UUID LEGACY_USER = UUID.fromString("0190a0c0-0000-7000-8000-000000000001");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private SessionRollupRepository rollupRepository;
+
+    @DynamicPropertySource
+    static void preMigrationDatabase(DynamicPropertyRegistry registry) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "")) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/pre-migration-schema.sql"));
+        }
+        registry.add("spring.datasource.url", () -> URL);
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    }
+
+    @Test
+    void preMigrationDatabase_ShouldMigrateAndValidate() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "SELECT \"version\" FROM \"flyway_schema_history\" WHERE \"success\" ORDER BY \"installed_rank\"", String.class);
+        assertTrue(versions.containsAll(List.of("0", "1", "2", "3")), "Applied versions: " + versions);
+
+        List<Session> sessions = sessionRepository.findByUserId(LEGACY_USER);
+        sessions.sort(Comparator.comparing(Session::getDate));
+        assertEquals(List.of(Grade.V5, Grade.YDS_5_10A), sessions.stream().map(Session::getGrade).toList());
+        // Backfilled on startup into the column the migrations added
+        assertEquals(List.of(5.0, 10.1), sessions.stream().map(Session::getGradeValue).toList());
+        assertEquals(2, rollupRepository.findByUserIdOrderByBucketStart(LEGACY_USER).size());
+    }
+}
@@ -0,0 +1,18 @@
+package com.ascend.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PendingWritesInterceptorTest {
+
+    @Test
+    void isCreate_ShouldRecognizeEveryEncodingOfTheCreatePath() {
+        assertTrue(PendingWritesInterceptor.isCreate(new MockHttpServletRequest("POST", "/api/sessions")));
+        assertTrue(PendingWritesInterceptor.isCreate(new MockHttpServletRequest("POST", "/api/%73essions")));
+        assertTrue(PendingWritesInterceptor.isCreate(new MockHttpServletRequest("POST", "/api//sessions")));
+        assertFalse(PendingWritesInterceptor.isCreate(new MockHttpServletRequest("GET", "/api/sessions")));
+        assertFalse(PendingWritesInterceptor.isCreate(new MockHttpServletRequest("POST", "/api/sessions/import")));
+    }
+}
@@ -0,0 +1,151 @@
+package com.ascend.config;
+
+import com.ascend.config.RateLimitPolicy.KeyType;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private static final RateLimitPolicy LOGIN =
+            new RateLimitPolicy("login", "POST", "/api/auth/login", KeyType.CLIENT_IP, 2, Duration.ofMinutes(1));
+    private static final RateLimitPolicy API =
+            new RateLimitPolicy("api", null, "/api/**", KeyType.USER, 5, Duration.ofMinutes(1));
+
+    @Test
+    void match_ShouldPreferExactPathsAndSkipUnprotectedRoutes() {
+        RateLimiter limiter = new RateLimiter(List.of(LOGIN, API), 100);
+
+        assertSame(LOGIN, limiter.match("POST", "/api/auth/login").policy);
+        // Same path, other method: falls through to the prefix policy
+        assertSame(API, limiter.match("GET", "/api/auth/login").policy);
+        assertSame(API, limiter.match("GET", "/api/sessions/stats").policy);
+        assertNull(limiter.match("GET", "/health"));
+        assertNull(limiter.match("GET", "/apiary"));
+    }
+
+    @Test
+    void tryConsume_ShouldKeepOneBucketPerKeyAndCountOutcomes() {
+        RateLimiter limiter = new RateLimiter(List.of(LOGIN), 100);
+        RateLimiter.Route login = limiter.match("POST", "/api/auth/login");
+
+        assertTrue(login.tryConsume("10.0.0.1").isConsumed());
+        assertTrue(login.tryConsume("10.0.0.1").isConsumed());
+        assertFalse(login.tryConsume("10.0.0.1").isConsumed());
+        // Another client is unaffected by the first one's exhausted bucket
+        assertTrue(login.tryConsume("10.0.0.2").isConsumed());
+
+        assertEquals(List.of(new RateLimiter.Stats("login", 3, 1, 2)), limiter.stats());
+    }
+
+    @Test
+    void keys_ShouldBeCappedAndEvictedOnceIdleForAPeriod() {
+        RateLimiter limiter = new RateLimiter(List.of(LOGIN), 2);
+        RateLimiter.Route login = limiter.match("POST", "/api/auth/login");
+
+        login.tryConsume("10.0.0.1");
+        login.tryConsume("10.0.0.2");
+        login.tryConsume("10.0.0.3");
+        assertEquals(2, limiter.stats().get(0).keys());
+
+        limiter.evictIdle(System.nanoTime());
+        assertEquals(2, limiter.stats().get(0).keys());
+        limiter.evictIdle(System.nanoTime() + LOGIN.period().toNanos());
+        assertEquals(0, limiter.stats().get(0).keys());
+    }
+
+    @Test
+    void keys_OverTheCap_ShouldEvictTheLeastRecentlyUsed() {
+        RateLimiter limiter = new RateLimiter(List.of(LOGIN), 10);
+        RateLimiter.Route login = limiter.match("POST", "/api/auth/login");
+
+        for (int i = 0; i < 10; i++) {
+            login.tryConsume("10.0.0." + i);
+        }
+        login.tryConsume("10.0.0.0");
+        login.tryConsume("10.0.0.10");
+
+        assertEquals(10, limiter.stats().get(0).keys());
+        // 10.0.0.0 was used recently, so its drained bucket survived
+        assertFalse(login.tryConsume("10.0.0.0").isConsumed());
+        // 10.0.0.1 was the least recently used and starts over with a full bucket
+        assertTrue(login.tryConsume("10.0.0.1").isConsumed());
+        assertTrue(login.tryConsume("10.0.0.1").isConsumed());
+    }
+
+    @Test
+    void clientIp_ShouldOnlyTrustForwardedHeadersFromConfiguredProxies() {
+        RateLimiter limiter = new RateLimiter(List.of(LOGIN), 100);
+        RateLimitInterceptor direct = new RateLimitInterceptor(limiter, List.of());
+        RateLimitInterceptor proxied = new RateLimitInterceptor(limiter, List.of("10.0.0.1", " 192.168.0.0/16 "));
+
+        MockHttpServletRequest spoofed = login("203.0.113.9");
+        spoofed.addHeader("X-Forwarded-For", "1.2.3.4");
+        spoofed.addHeader("X-Real-IP", "1.2.3.4");
+        assertEquals("203.0.113.9", direct.getClientIpAddress(spoofed));
+        assertEquals("203.0.113.9", proxied.getClientIpAddress(spoofed));
+
+        // The client's own entry is on the left; trusted hops on the right are skipped
+        MockHttpServletRequest chained = login("10.0.0.1");
+        chained.addHeader("X-Forwarded-For", "1.2.3.4, 198.51.100.7 , 192.168.4.2");
+        assertEquals("198.51.100.7", proxied.getClientIpAddress(chained));
+        assertEquals("10.0.0.1", direct.getClientIpAddress(chained));
+
+        MockHttpServletRequest realIp = login("10.0.0.1");
+        realIp.addHeader("X-Real-IP", " 198.51.100.8 ");
+        assertEquals("198.51.100.8", proxied.getClientIpAddress(realIp));
+
+        MockHttpServletRequest unknown = login("10.0.0.1");
+        unknown.addHeader("X-Forwarded-For", "1.2.3.4, unknown");
+        assertEquals("10.0.0.1", proxied.getClientIpAddress(unknown));
+    }
+
+    @Test
+    void interceptor_WhenLimitIsExceeded_ShouldRejectWithRetryAfter() throws Exception {
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(new RateLimiter(List.of(LOGIN), 100), List.of());
+
+        for (int i = 0; i < 2; i++) {
+            assertTrue(interceptor.preHandle(login("10.0.0.1"), new MockHttpServletResponse(), null));
+        }
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(login("10.0.0.1"), rejected, null));
+        assertEquals(429, rejected.getStatus());
+        assertNotNull(rejected.getHeader("Retry-After"));
+
+        assertTrue(interceptor.preHandle(login("10.0.0.2"), new MockHttpServletResponse(), null));
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest("GET", "/health"), new MockHttpServletResponse(), null));
+    }
+
+    @Test
+    void interceptor_ShouldLimitEveryEncodingOfAPath() throws Exception {
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(new RateLimiter(List.of(LOGIN), 100), List.of("none"));
+
+        assertTrue(interceptor.preHandle(login("10.0.0.1"), new MockHttpServletResponse(), null));
+        MockHttpServletRequest encoded = new MockHttpServletRequest("POST", "/api/auth/%6Cogin");
+        encoded.setRemoteAddr("10.0.0.1");
+        assertTrue(interceptor.preHandle(encoded, new MockHttpServletResponse(), null));
+        MockHttpServletRequest doubledSlash = new MockHttpServletRequest("POST", "/api//auth/login");
+        doubledSlash.setRemoteAddr("10.0.0.1");
+        assertFalse(interceptor.preHandle(doubledSlash, new MockHttpServletResponse(), null));
+    }
+
+    @Test
+    void rateLimiter_WhenEnabledWithoutTrustedProxies_ShouldRefuseToStart() {
+        RateLimitConfig config = new RateLimitConfig();
+
+        assertThrows(IllegalStateException.class, () -> config.rateLimiter(true, 100, " "));
+        assertFalse(config.rateLimiter(true, 100, "none").stats().isEmpty());
+        assertTrue(config.rateLimiter(false, 100, "").stats().isEmpty());
+    }
+
+    private static MockHttpServletRequest login(String clientIp) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr(clientIp);
+        return request;
+    }
+}
@@ -0,0 +1,43 @@
+package com.ascend.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7Test {
+
+    @Test
+    void next_ShouldSetVersionVariantAndTimestamp() {
+        long now = System.currentTimeMillis();
+        UUID uuid = UuidV7.next();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertTrue(Math.abs(UuidV7.timestamp(uuid) - now) < 1000);
+    }
+
+    @Test
+    void next_WithinOneMillisecond_ShouldStayStrictlyIncreasing() {
+        long millis = System.currentTimeMillis();
+        List<UUID> ids = new ArrayList<>();
+        // More ids than the 12-bit counter holds, forcing a carry into the timestamp
+        for (int i = 0; i < 5000; i++) {
+            ids.add(UuidV7.next(millis));
+        }
+
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(compareUnsigned(ids.get(i - 1), ids.get(i)) < 0, "id " + i + " is not increasing");
+        }
+        assertTrue(UuidV7.timestamp(ids.get(0)) >= millis);
+    }
+
+    // Byte-wise order, as used by PostgreSQL and H2 (UUID.compareTo compares signed longs)
+    private int compareUnsigned(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
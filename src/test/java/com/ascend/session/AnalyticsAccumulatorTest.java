@@ -0,0 +1,108 @@
+package com.ascend.session;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalyticsAccumulatorTest {
+
+    @Test
+    void toSessionAnalytics_ShouldAggregatePerDiscipline() {
+        SessionAnalytics analytics = new AnalyticsAccumulator()
+                .add(SessionDiscipline.BOULDER, Grade.V4, LocalDate.of(2024, 1, 10), true)
+                .add(SessionDiscipline.BOULDER, Grade.V6, LocalDate.of(2024, 1, 11), false)
+                .add(SessionDiscipline.LEAD, Grade.YDS_5_10A, LocalDate.of(2024, 2, 1), true)
+                .toSessionAnalytics();
+
+        assertEquals(3, analytics.getTotalSessions());
+        assertEquals((4.0 + 6.0 + 10.1) / 3, analytics.getAverageDifficulty(), 0.0001);
+        assertEquals(200.0 / 3, analytics.getSentPercentage(), 0.0001);
+        assertEquals(2, analytics.getSessionsByDiscipline().get(SessionDiscipline.BOULDER));
+        assertEquals(5.0, analytics.getAverageDifficultyByDiscipline().get(SessionDiscipline.BOULDER), 0.0001);
+        assertEquals(50.0, analytics.getSentPercentageByDiscipline().get(SessionDiscipline.BOULDER), 0.0001);
+        assertFalse(analytics.getSessionsByDiscipline().containsKey(SessionDiscipline.TOP_ROPE));
+    }
+
+    @Test
+    void toProgressAnalytics_WithUnorderedDates_ShouldEmitSortedIsoWeeksAndMonths() {
+        ProgressAnalytics progress = new AnalyticsAccumulator()
+                .add(SessionDiscipline.BOULDER, Grade.V5, LocalDate.of(2025, 3, 3), true)
+                // 2024-12-30 belongs to ISO week 1 of 2025 but to December 2024
+                .add(SessionDiscipline.BOULDER, Grade.V3, LocalDate.of(2024, 12, 30), false)
+                .add(SessionDiscipline.LEAD, Grade.YDS_5_9, LocalDate.of(2023, 6, 15), true)
+                .add(SessionDiscipline.BOULDER, Grade.V7, LocalDate.of(2025, 3, 5), true)
+                .toProgressAnalytics();
+
+        assertEquals(4, progress.getTotalSessions());
+        assertEquals(List.of("2023-W24", "2025-W01", "2025-W10"),
+                progress.getProgressByWeek().stream().map(ProgressAnalytics.WeeklyProgress::getWeek).toList());
+        assertEquals(List.of("2023-06", "2024-12", "2025-03"),
+                progress.getProgressByMonth().stream().map(ProgressAnalytics.MonthlyProgress::getMonth).toList());
+
+        ProgressAnalytics.WeeklyProgress march = progress.getProgressByWeek().get(2);
+        assertEquals(2, march.getSessionCount());
+        assertEquals(6.0, march.getAvgDifficulty(), 0.0001);
+        assertEquals(100.0, march.getSentRate(), 0.0001);
+    }
+
+    @Test
+    void toProgressAnalytics_WithOutlierDates_ShouldStaySortedAcrossDenseAndSparseSeries() {
+        LocalDate first = LocalDate.of(1, 1, 1);
+        LocalDate last = LocalDate.of(9999, 12, 31);
+        AnalyticsAccumulator recent = new AnalyticsAccumulator()
+                .add(SessionDiscipline.BOULDER, Grade.V4, LocalDate.of(2024, 1, 10), true)
+                .add(SessionDiscipline.BOULDER, Grade.V6, LocalDate.of(2024, 1, 11), false);
+        AnalyticsAccumulator outliers = new AnalyticsAccumulator()
+                .add(SessionDiscipline.BOULDER, Grade.V2, last, true)
+                .add(SessionDiscipline.BOULDER, Grade.V1, first, true);
+
+        ProgressAnalytics progress = recent.merge(outliers).toProgressAnalytics();
+
+        assertEquals(4, progress.getTotalSessions());
+        assertEquals(List.of(AnalyticsAccumulator.weekLabel(AnalyticsAccumulator.weekKey(first)), "2024-W02",
+                        AnalyticsAccumulator.weekLabel(AnalyticsAccumulator.weekKey(last))),
+                progress.getProgressByWeek().stream().map(ProgressAnalytics.WeeklyProgress::getWeek).toList());
+        assertEquals(List.of("1-01", "2024-01", "9999-12"),
+                progress.getProgressByMonth().stream().map(ProgressAnalytics.MonthlyProgress::getMonth).toList());
+        assertEquals(2, progress.getProgressByWeek().get(1).getSessionCount());
+        assertEquals(5.0, progress.getProgressByWeek().get(1).getAvgDifficulty(), 0.0001);
+    }
+
+    @Test
+    void addRollups_ShouldMatchAddingTheUnderlyingSessions() {
+        LocalDate date = LocalDate.of(2024, 5, 6);
+        SessionRollup rollup = SessionRollup.builder()
+                .discipline(SessionDiscipline.BOULDER)
+                .bucketStart(SessionRollup.bucketStart(date))
+                .sessionCount(2)
+                .gradeValueSum(9.0)
+                .sentCount(1)
+                .sentGradeValueSum(5.0)
+                .maxGrade(Grade.V5)
+                .build();
+
+        AnalyticsAccumulator fromRollups = new AnalyticsAccumulator().addRollups(List.of(rollup));
+        AnalyticsAccumulator fromSessions = new AnalyticsAccumulator()
+                .add(SessionDiscipline.BOULDER, Grade.V5, date, true)
+                .add(SessionDiscipline.BOULDER, Grade.V4, date.plusDays(1), false);
+
+        assertEquals(fromSessions.toSessionAnalytics(), fromRollups.toSessionAnalytics());
+        assertEquals(fromSessions.toProgressAnalytics(), fromRollups.toProgressAnalytics());
+        assertEquals(Map.of(SessionDiscipline.BOULDER, Grade.V5), fromRollups.toHighestGrades());
+        assertEquals(Map.of(SessionDiscipline.BOULDER, 5.0), fromRollups.toAverageGrades());
+    }
+
+    @Test
+    void emptyAccumulator_ShouldReturnZeroedResults() {
+        AnalyticsAccumulator accumulator = new AnalyticsAccumulator();
+
+        assertEquals(0, accumulator.toSessionAnalytics().getTotalSessions());
+        assertTrue(accumulator.toProgressAnalytics().getProgressByWeek().isEmpty());
+        assertTrue(accumulator.toHighestGrades().isEmpty());
+        assertTrue(accumulator.toAverageGrades().isEmpty());
+    }
+}
@@ -0,0 +1,112 @@
+package com.ascend.session;
+
+import com.ascend.user.UserDataVersions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalyticsCacheTest {
+
+    private final UserDataVersions dataVersions = new UserDataVersions(1000);
+    private final UUID userId = UUID.randomUUID();
+    private final DateRange range = DateRange.of(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 1));
+
+    @Test
+    void repeatedCallIsServedFromCache() {
+        AnalyticsCache cache = new AnalyticsCache(dataVersions, 100, Duration.ofMinutes(10));
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("a", cache.get(userId, AnalyticsCache.View.ANALYTICS, range, () -> load(loads, "a")));
+        assertEquals("a", cache.get(userId, AnalyticsCache.View.ANALYTICS, DateRange.of(range.getFrom(), range.getTo()),
+                () -> load(loads, "b")));
+
+        assertEquals(1, loads.get());
+        AnalyticsCache.Stats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.size());
+    }
+
+    @Test
+    void viewsAndRangesAreCachedSeparately() {
+        AnalyticsCache cache = new AnalyticsCache(dataVersions, 100, Duration.ofMinutes(10));
+
+        cache.get(userId, AnalyticsCache.View.ANALYTICS, range, () -> "analytics");
+        assertEquals("progress", cache.get(userId, AnalyticsCache.View.PROGRESS, range, () -> "progress"));
+        assertEquals("all", cache.get(userId, AnalyticsCache.View.ANALYTICS, DateRange.allTime(), () -> "all"));
+
+        assertEquals(0, cache.stats().hits());
+    }
+
+    @Test
+    void writeInvalidatesOnlyThatUsersEntries() {
+        AnalyticsCache cache = new AnalyticsCache(dataVersions, 100, Duration.ofMinutes(10));
+        UUID otherUser = UUID.randomUUID();
+        cache.get(userId, AnalyticsCache.View.ANALYTICS, range, () -> "old");
+        cache.get(otherUser, AnalyticsCache.View.ANALYTICS, range, () -> "other");
+
+        dataVersions.bump(userId);
+
+        assertEquals("new", cache.get(userId, AnalyticsCache.View.ANALYTICS, range, () -> "new"));
+        assertEquals("other", cache.get(otherUser, AnalyticsCache.View.ANALYTICS, range, () -> "unused"));
+    }
+
+    @Test
+    void resultComputedAcrossAWriteIsNotStored() {
+        AnalyticsCache cache = new AnalyticsCache(dataVersions, 100, Duration.ofMinutes(10));
+
+        cache.get(userId, AnalyticsCache.View.ANALYTICS, range, () -> {
+            dataVersions.bump(userId);
+            return "stale";
+        });
+
+        assertEquals("fresh", cache.get(userId, AnalyticsCache.View.ANALYTICS, range, () -> "fresh"));
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvictedAtCapacity() {
+        AnalyticsCache cache = new AnalyticsCache(dataVersions, 2, Duration.ofMinutes(10));
+        DateRange second = DateRange.of(range.getTo(), range.getTo().plusMonths(1));
+        DateRange third = DateRange.of(second.getTo(), second.getTo().plusMonths(1));
+
+        cache.get(userId, AnalyticsCache.View.ANALYTICS, range, () -> "first");
+        cache.get(userId, AnalyticsCache.View.ANALYTICS, second, () -> "second");
+        cache.get(userId, AnalyticsCache.View.ANALYTICS, range, () -> "unused");
+        cache.get(userId, AnalyticsCache.View.ANALYTICS, third, () -> "third");
+
+        assertEquals(1, cache.stats().evictions());
+        assertEquals("first", cache.get(userId, AnalyticsCache.View.ANALYTICS, range, () -> "reloaded"));
+        assertEquals("reloaded", cache.get(userId, AnalyticsCache.View.ANALYTICS, second, () -> "reloaded"));
+    }
+
+    @Test
+    void expiredEntryIsRecomputed() {
+        AnalyticsCache cache = new AnalyticsCache(dataVersions, 100, Duration.ZERO);
+
+        cache.get(userId, AnalyticsCache.View.ANALYTICS, range, () -> "old");
+
+        assertEquals("new", cache.get(userId, AnalyticsCache.View.ANALYTICS, range, () -> "new"));
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    void zeroSizedCacheAlwaysComputes() {
+        AnalyticsCache cache = new AnalyticsCache(dataVersions, 0, Duration.ofMinutes(10));
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(userId, AnalyticsCache.View.ANALYTICS, range, () -> load(loads, "a"));
+        cache.get(userId, AnalyticsCache.View.ANALYTICS, range, () -> load(loads, "a"));
+
+        assertEquals(2, loads.get());
+    }
+
+    private static String load(AtomicInteger loads, String value) {
+        loads.incrementAndGet();
+        return value;
+    }
+}
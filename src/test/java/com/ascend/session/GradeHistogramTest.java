@@ -0,0 +1,72 @@
+package com.ascend.session;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradeHistogramTest {
+
+    @Test
+    void countsAttemptsAndSendsPerGradeEasiestFirst() {
+        GradeHistogram histogram = new GradeHistogram()
+                .add(SessionDiscipline.BOULDER, Grade.V5, true)
+                .add(SessionDiscipline.BOULDER, Grade.V3, false)
+                .add(SessionDiscipline.BOULDER, Grade.V5, false)
+                .add(SessionDiscipline.LEAD, Grade.YDS_5_10A, true);
+
+        Map<SessionDiscipline, GradeDistribution> distributions = histogram.toDistributions();
+
+        GradeDistribution boulder = distributions.get(SessionDiscipline.BOULDER);
+        assertEquals(3, boulder.getTotalAttempts());
+        assertEquals(1, boulder.getTotalSends());
+        assertEquals(List.of(Grade.V3, Grade.V5),
+                boulder.getGrades().stream().map(GradeDistribution.GradeCount::getGrade).toList());
+        assertEquals(2, boulder.getGrades().get(1).getAttempts());
+        assertEquals(1, boulder.getGrades().get(1).getSends());
+        assertEquals(Grade.V5, boulder.getMedianGrade());
+        assertEquals(Grade.V5, boulder.getMedianSendGrade());
+        assertEquals(1, distributions.get(SessionDiscipline.LEAD).getTotalSends());
+        assertFalse(distributions.containsKey(SessionDiscipline.TOP_ROPE));
+    }
+
+    @Test
+    void percentilesUseNearestRank() {
+        GradeHistogram histogram = new GradeHistogram();
+        // Ten sends, one at each of V0..V9
+        for (int v = 0; v <= 9; v++) {
+            histogram.add(SessionDiscipline.BOULDER, Grade.valueOf("V" + v), true);
+        }
+
+        GradeDistribution boulder = histogram.toDistributions().get(SessionDiscipline.BOULDER);
+
+        assertEquals(Grade.V4, boulder.getMedianSendGrade());
+        assertEquals(Grade.V8, boulder.getP90SendGrade());
+    }
+
+    @Test
+    void sendPercentilesAreNullWithoutSends() {
+        GradeDistribution boulder = new GradeHistogram()
+                .add(SessionDiscipline.BOULDER, Grade.V2, false)
+                .toDistributions().get(SessionDiscipline.BOULDER);
+
+        assertEquals(Grade.V2, boulder.getMedianGrade());
+        assertNull(boulder.getMedianSendGrade());
+        assertNull(boulder.getP90SendGrade());
+    }
+
+    @Test
+    void aggregatesAndSessionsProduceTheSameDistribution() {
+        GradeHistogram fromSessions = new GradeHistogram()
+                .add(SessionDiscipline.LEAD, Grade.YDS_5_11A, true)
+                .add(SessionDiscipline.LEAD, Grade.YDS_5_11A, false)
+                .add(SessionDiscipline.LEAD, Grade.YDS_5_9, true);
+        GradeHistogram fromAggregates = new GradeHistogram().addAggregates(List.of(
+                new GradeCountAggregate(SessionDiscipline.LEAD, Grade.YDS_5_11A, 2L, 1L),
+                new GradeCountAggregate(SessionDiscipline.LEAD, Grade.YDS_5_9, 1L, 1L)));
+
+        assertEquals(fromSessions.toDistributions(), fromAggregates.toDistributions());
+    }
+}
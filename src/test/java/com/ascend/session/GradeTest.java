@@ -0,0 +1,86 @@
+package com.ascend.session;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradeTest {
+
+    private final GradeConverter converter = new GradeConverter();
+
+    @Test
+    void codesAreUniqueAndRoundTrip() {
+        Set<Short> codes = new HashSet<>();
+        for (Grade grade : Grade.values()) {
+            assertTrue(codes.add(grade.getCode()), "duplicate code for " + grade);
+            assertEquals(grade, Grade.fromCode(grade.getCode()));
+            assertEquals(grade, converter.convertToEntityAttribute(converter.convertToDatabaseColumn(grade)));
+        }
+        assertThrows(IllegalArgumentException.class, () -> Grade.fromCode(99));
+        assertThrows(IllegalArgumentException.class, () -> Grade.fromCode(-1));
+    }
+
+    @Test
+    void codesFollowDifficultyWithinADiscipline() {
+        for (SessionDiscipline discipline : SessionDiscipline.values()) {
+            Grade[] grades = GradeUtils.getGradesForDiscipline(discipline);
+            for (int i = 1; i < grades.length; i++) {
+                assertTrue(grades[i].getCode() > grades[i - 1].getCode());
+                assertTrue(grades[i].getNumericValue() > grades[i - 1].getNumericValue());
+            }
+        }
+    }
+
+    @Test
+    void parsesDisplayValuesAndNames() {
+        assertEquals(Grade.YDS_5_10A, Grade.fromString("5.10A"));
+        assertEquals(Grade.V4, Grade.fromStringForDiscipline("v4", SessionDiscipline.BOULDER));
+        assertEquals(Grade.YDS_5_12A, Grade.lookup("YDS_5_12A"));
+        assertEquals(Grade.YDS_5_12A, Grade.lookup("5.12a"));
+        assertNull(Grade.lookup("5.16a"));
+        assertNull(Grade.lookup(null));
+        assertThrows(IllegalArgumentException.class, () -> Grade.fromStringForDiscipline("V4", SessionDiscipline.LEAD));
+    }
+
+    @Test
+    void resolvesNumericValuesPerDiscipline() {
+        assertEquals(Grade.V9, Grade.fromNumericValue(9.0, SessionDiscipline.BOULDER));
+        assertEquals(Grade.YDS_5_9, Grade.fromNumericValue(9.0, SessionDiscipline.LEAD));
+        assertEquals(Grade.YDS_5_11C, Grade.fromNumericValue(11.3, SessionDiscipline.TOP_ROPE));
+        assertNull(Grade.findByNumericValue(11.25, SessionDiscipline.LEAD));
+        assertNull(Grade.findByNumericValue(1e12, SessionDiscipline.LEAD));
+        assertEquals("V3", GradeUtils.numericToDisplay(3.0, SessionDiscipline.BOULDER));
+        assertEquals("V20", GradeUtils.numericToDisplay(20.0, SessionDiscipline.BOULDER));
+    }
+
+    @Test
+    void disciplineGradeListsAreCachedAndImmutable() {
+        List<Grade> shared = Grade.forDiscipline(SessionDiscipline.BOULDER);
+        assertSame(shared, Grade.forDiscipline(SessionDiscipline.BOULDER));
+        assertThrows(UnsupportedOperationException.class, () -> shared.set(0, Grade.V17));
+
+        Grade[] boulder = GradeUtils.getGradesForDiscipline(SessionDiscipline.BOULDER);
+        boulder[0] = Grade.V17;
+        assertEquals(Grade.V0, GradeUtils.getGradesForDiscipline(SessionDiscipline.BOULDER)[0]);
+        assertEquals(Grade.V0, shared.get(0));
+        assertEquals(18, boulder.length);
+        assertTrue(Arrays.stream(boulder).allMatch(grade -> grade.supportsDiscipline(SessionDiscipline.BOULDER)));
+        assertTrue(GradeUtils.isValidGrade("5.13d", SessionDiscipline.TOP_ROPE));
+        assertFalse(GradeUtils.isValidGrade("YDS_5_13D", SessionDiscipline.TOP_ROPE));
+    }
+
+    @Test
+    void deserializerAcceptsNamesAndDisplayValues() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        assertEquals(Grade.YDS_5_10B, mapper.readValue("\"5.10b\"", Grade.class));
+        assertEquals(Grade.V10, mapper.readValue("\"V10\"", Grade.class));
+        assertThrows(InvalidFormatException.class, () -> mapper.readValue("\"V99\"", Grade.class));
+    }
+}
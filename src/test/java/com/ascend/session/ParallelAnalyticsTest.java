@@ -0,0 +1,103 @@
+package com.ascend.session;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelAnalyticsTest {
+
+    // Low enough that the test data is split into many chunks
+    private final ParallelAnalytics parallel = new ParallelAnalytics(4, 1);
+
+    @AfterEach
+    void tearDown() {
+        parallel.shutdown();
+    }
+
+    @Test
+    void parallelSessionsMatchSequential() {
+        List<Session> sessions = randomSessions(50_000, 21L);
+
+        assertSameAnalytics(new AnalyticsAccumulator().addSessions(sessions), parallel.accumulate(sessions));
+    }
+
+    @Test
+    void parallelColumnsMatchSequentialForAWindow() {
+        List<Session> sessions = randomSessions(50_000, 22L);
+        SessionColumns columns = SessionColumns.of(sessions.stream().map(SessionSnapshot::of).toList());
+        DateRange range = DateRange.of(LocalDate.of(2021, 3, 1), LocalDate.of(2023, 7, 15));
+
+        assertSameAnalytics(columns.accumulate(new AnalyticsAccumulator(), range), parallel.accumulate(columns, range));
+    }
+
+    @Test
+    void smallInputStaysSequential() {
+        ParallelAnalytics sequential = new ParallelAnalytics(2, 1_000);
+        try {
+            List<Session> sessions = randomSessions(10, 23L);
+            assertEquals(10, sequential.accumulate(sessions).getTotalSessions());
+        } finally {
+            sequential.shutdown();
+        }
+    }
+
+    @Test
+    void mergeCombinesDisjointPartials() {
+        LocalDate day = LocalDate.of(2024, 5, 6);
+        AnalyticsAccumulator left = new AnalyticsAccumulator().add(SessionDiscipline.BOULDER, Grade.V3, day, true);
+        AnalyticsAccumulator right = new AnalyticsAccumulator()
+                .add(SessionDiscipline.BOULDER, Grade.V7, day.plusMonths(2), false);
+
+        AnalyticsAccumulator merged = left.merge(right);
+
+        assertEquals(2, merged.getTotalSessions());
+        assertEquals(Grade.V7, merged.toHighestGrades().get(SessionDiscipline.BOULDER));
+        assertEquals(Grade.V3.getNumericValue(), merged.toAverageGrades().get(SessionDiscipline.BOULDER));
+        assertEquals(2, merged.toProgressAnalytics().getProgressByMonth().size());
+    }
+
+    private static void assertSameAnalytics(AnalyticsAccumulator expected, AnalyticsAccumulator actual) {
+        SessionAnalytics expectedAnalytics = expected.toSessionAnalytics();
+        SessionAnalytics actualAnalytics = actual.toSessionAnalytics();
+        assertEquals(expectedAnalytics.getTotalSessions(), actualAnalytics.getTotalSessions());
+        assertEquals(expectedAnalytics.getSessionsByDiscipline(), actualAnalytics.getSessionsByDiscipline());
+        assertEquals(expectedAnalytics.getAverageDifficulty(), actualAnalytics.getAverageDifficulty(), 1e-9);
+        assertEquals(expectedAnalytics.getSentPercentage(), actualAnalytics.getSentPercentage(), 1e-9);
+        assertEquals(expected.toHighestGrades(), actual.toHighestGrades());
+
+        ProgressAnalytics expectedProgress = expected.toProgressAnalytics();
+        ProgressAnalytics actualProgress = actual.toProgressAnalytics();
+        assertEquals(expectedProgress.getProgressByWeek().size(), actualProgress.getProgressByWeek().size());
+        assertEquals(expectedProgress.getProgressByMonth().size(), actualProgress.getProgressByMonth().size());
+        for (int i = 0; i < expectedProgress.getProgressByMonth().size(); i++) {
+            ProgressAnalytics.MonthlyProgress e = expectedProgress.getProgressByMonth().get(i);
+            ProgressAnalytics.MonthlyProgress a = actualProgress.getProgressByMonth().get(i);
+            assertEquals(e.getMonth(), a.getMonth());
+            assertEquals(e.getSessionCount(), a.getSessionCount());
+            assertEquals(e.getAvgDifficulty(), a.getAvgDifficulty(), 1e-9);
+        }
+    }
+
+    private static List<Session> randomSessions(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Grade[] grades = Grade.values();
+        SessionDiscipline[] disciplines = SessionDiscipline.values();
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        List<Session> sessions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            sessions.add(Session.builder()
+                    .discipline(disciplines[random.nextInt(disciplines.length)])
+                    .grade(grades[random.nextInt(grades.length)])
+                    .date(start.plusDays(random.nextInt(5 * 365)))
+                    .sent(random.nextBoolean())
+                    .build());
+        }
+        return sessions;
+    }
+}
@@ -0,0 +1,118 @@
+package com.ascend.session;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionActivityTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 15);
+
+    @Test
+    void consecutiveDaysFormOneStreak() {
+        SessionActivity activity = new SessionActivity();
+        for (int i = 0; i < 5; i++) {
+            activity.add(session(TODAY.minusDays(i), i % 2 == 0));
+        }
+
+        ActivityStats stats = activity.stats(TODAY);
+
+        assertEquals(5, stats.getCurrentStreak());
+        assertEquals(5, stats.getLongestStreak());
+        assertEquals(TODAY, stats.getLastSessionDate());
+        assertEquals(5, stats.getSessionsLast7Days());
+        assertEquals(3, stats.getSendsLast30Days());
+    }
+
+    @Test
+    void streakThroughYesterdayIsStillCurrent() {
+        SessionActivity activity = new SessionActivity();
+        activity.add(session(TODAY.minusDays(1), false));
+        activity.add(session(TODAY.minusDays(2), false));
+
+        assertEquals(2, activity.stats(TODAY).getCurrentStreak());
+        assertEquals(0, activity.stats(TODAY.plusDays(1)).getCurrentStreak());
+    }
+
+    @Test
+    void fillingAGapMergesStreaks() {
+        SessionActivity activity = new SessionActivity();
+        activity.add(session(TODAY.minusDays(4), false));
+        activity.add(session(TODAY.minusDays(3), false));
+        activity.add(session(TODAY.minusDays(1), false));
+        activity.add(session(TODAY, false));
+        assertEquals(2, activity.stats(TODAY).getLongestStreak());
+
+        activity.add(session(TODAY.minusDays(2), false));
+
+        assertEquals(5, activity.stats(TODAY).getCurrentStreak());
+        assertEquals(5, activity.stats(TODAY).getLongestStreak());
+    }
+
+    @Test
+    void deletingTheOnlySessionOfADaySplitsTheStreak() {
+        SessionActivity activity = new SessionActivity();
+        for (int i = 0; i < 7; i++) {
+            activity.add(session(TODAY.minusDays(i), false));
+        }
+        SessionSnapshot extra = session(TODAY.minusDays(2), true);
+        activity.add(extra);
+
+        // A second session on the day keeps the streak whole
+        assertTrue(activity.remove(extra));
+        assertEquals(7, activity.stats(TODAY).getLongestStreak());
+
+        assertTrue(activity.remove(session(TODAY.minusDays(2), false)));
+
+        ActivityStats stats = activity.stats(TODAY);
+        assertEquals(2, stats.getCurrentStreak());
+        assertEquals(4, stats.getLongestStreak());
+        assertEquals(6, stats.getSessionsLast7Days());
+    }
+
+    @Test
+    void removingAnUnknownSessionIsRejected() {
+        SessionActivity activity = new SessionActivity();
+        activity.add(session(TODAY, false));
+
+        assertFalse(activity.remove(session(TODAY, true)));
+        assertFalse(activity.remove(session(TODAY.minusDays(1), false)));
+        assertEquals(1, activity.stats(TODAY).getSessionsLast7Days());
+    }
+
+    @Test
+    void rollingWindowsEndTodayInclusive() {
+        SessionActivity activity = SessionActivity.of(List.of(
+                new DailyActivity(TODAY.minusDays(6), 2L, 1L),
+                new DailyActivity(TODAY.minusDays(7), 1L, 0L),
+                new DailyActivity(TODAY.minusDays(29), 1L, 1L),
+                new DailyActivity(TODAY.minusDays(89), 3L, 0L),
+                new DailyActivity(TODAY.plusDays(1), 1L, 1L)));
+
+        ActivityStats stats = activity.stats(TODAY);
+
+        assertEquals(2, stats.getSessionsLast7Days());
+        assertEquals(4, stats.getSessionsLast30Days());
+        assertEquals(7, stats.getSessionsLast90Days());
+        assertEquals(2, stats.getSendsLast30Days());
+        assertEquals(TODAY.minusDays(6), stats.getLastSessionDate());
+        assertEquals(0, stats.getCurrentStreak());
+        assertEquals(2, stats.getLongestStreak());
+    }
+
+    @Test
+    void emptyActivityHasNoStreaks() {
+        ActivityStats stats = new SessionActivity().stats(TODAY);
+
+        assertEquals(0, stats.getCurrentStreak());
+        assertEquals(0, stats.getLongestStreak());
+        assertNull(stats.getLastSessionDate());
+    }
+
+    private static SessionSnapshot session(LocalDate date, boolean sent) {
+        return new SessionSnapshot(SessionDiscipline.BOULDER, Grade.V4, date, sent);
+    }
+}
@@ -0,0 +1,150 @@
+package com.ascend.session;
+
+import com.ascend.user.UserDataVersions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SessionColumnStoreTest {
+
+    private final SessionRepository sessionRepository = mock(SessionRepository.class);
+    private final UserDataVersions dataVersions = new UserDataVersions(1000);
+    private final UUID userId = UUID.randomUUID();
+    private final SessionSnapshot boulder =
+            new SessionSnapshot(SessionDiscipline.BOULDER, Grade.V5, LocalDate.of(2024, 3, 4), true);
+    private final SessionSnapshot lead =
+            new SessionSnapshot(SessionDiscipline.LEAD, Grade.YDS_5_10A, LocalDate.of(2024, 3, 9), false);
+
+    @Test
+    void disabledStoreNeverLoads() {
+        SessionColumnStore store = new SessionColumnStore(sessionRepository, dataVersions, false, true, 1 << 20);
+
+        assertNull(store.get(userId));
+        verify(sessionRepository, never()).findSnapshotsByUserId(userId);
+    }
+
+    @Test
+    void columnsAreLoadedOnceAndReused() {
+        SessionColumnStore store = new SessionColumnStore(sessionRepository, dataVersions, true, true, 1 << 20);
+        when(sessionRepository.findSnapshotsByUserId(userId)).thenReturn(List.of(boulder, lead));
+
+        assertEquals(2, store.get(userId).size());
+        assertEquals(2, store.get(userId).size());
+
+        verify(sessionRepository, times(1)).findSnapshotsByUserId(userId);
+        assertEquals(1, store.stats().hits());
+        assertEquals(1, store.stats().loads());
+    }
+
+    @Test
+    void committedWriteIsAppliedWithoutReloading() {
+        SessionColumnStore store = new SessionColumnStore(sessionRepository, dataVersions, true, true, 1 << 20);
+        when(sessionRepository.findSnapshotsByUserId(userId)).thenReturn(List.of(boulder));
+        store.get(userId);
+
+        dataVersions.bump(userId, (previous, version) ->
+                store.apply(userId, previous, version, List.of(boulder), List.of(lead)));
+
+        SessionAnalytics analytics = store.get(userId)
+                .accumulate(new AnalyticsAccumulator(), DateRange.allTime())
+                .toSessionAnalytics();
+        assertEquals(1, analytics.getTotalSessions());
+        assertEquals(1, analytics.getSessionsByDiscipline().get(SessionDiscipline.LEAD));
+        verify(sessionRepository, times(1)).findSnapshotsByUserId(userId);
+    }
+
+    @Test
+    void timeIndexIsBuiltOnceAndFollowsWrites() {
+        SessionColumnStore store = new SessionColumnStore(sessionRepository, dataVersions, true, true, 1 << 20);
+        when(sessionRepository.findSnapshotsByUserId(userId)).thenReturn(List.of(boulder));
+        SessionTimeIndex index = store.getTimeIndex(userId);
+        assertSame(index, store.getTimeIndex(userId));
+
+        dataVersions.bump(userId, (previous, version) ->
+                store.apply(userId, previous, version, List.of(), List.of(lead)));
+
+        List<DisciplineAggregate> aggregates = store.getTimeIndex(userId).aggregate(DateRange.allTime());
+        assertEquals(2, aggregates.size());
+        assertEquals(1, index.aggregate(DateRange.allTime()).size());
+        verify(sessionRepository, times(1)).findSnapshotsByUserId(userId);
+    }
+
+    @Test
+    void timeIndexIsKeptWithoutTheColumns() {
+        SessionColumnStore store = new SessionColumnStore(sessionRepository, dataVersions, false, true, 1 << 20);
+        when(sessionRepository.findSnapshotsByUserId(userId)).thenReturn(List.of(boulder));
+        SessionTimeIndex index = store.getTimeIndex(userId);
+        assertSame(index, store.getTimeIndex(userId));
+        assertNull(store.get(userId));
+        assertEquals(index.estimatedBytes(), store.stats().bytes());
+
+        dataVersions.bump(userId, (previous, version) ->
+                store.apply(userId, previous, version, List.of(boulder), List.of(lead)));
+
+        List<DisciplineAggregate> aggregates = store.getTimeIndex(userId).aggregate(DateRange.allTime());
+        assertEquals(1, aggregates.size());
+        assertEquals(SessionDiscipline.LEAD, aggregates.get(0).getDiscipline());
+        verify(sessionRepository, times(1)).findSnapshotsByUserId(userId);
+    }
+
+    @Test
+    void disabledTimeIndexIsNeverBuilt() {
+        SessionColumnStore store = new SessionColumnStore(sessionRepository, dataVersions, true, false, 1 << 20);
+
+        assertNull(store.getTimeIndex(userId));
+        verify(sessionRepository, never()).findSnapshotsByUserId(userId);
+    }
+
+    @Test
+    void writeThatDoesNotFollowTheStoredVersionDropsTheEntry() {
+        SessionColumnStore store = new SessionColumnStore(sessionRepository, dataVersions, true, true, 1 << 20);
+        when(sessionRepository.findSnapshotsByUserId(userId)).thenReturn(List.of(boulder));
+        store.get(userId);
+
+        // A write the store never heard about, then one it does
+        dataVersions.bump(userId);
+        dataVersions.bump(userId, (previous, version) ->
+                store.apply(userId, previous, version, List.of(), List.of(lead)));
+
+        assertEquals(0, store.stats().users());
+        store.get(userId);
+        verify(sessionRepository, times(2)).findSnapshotsByUserId(userId);
+    }
+
+    @Test
+    void leastRecentlyUsedUsersAreEvictedOverBudget() {
+        List<SessionSnapshot> sessions = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            sessions.add(boulder);
+        }
+        long perUser = SessionColumns.of(sessions).estimatedBytes();
+        SessionColumnStore store = new SessionColumnStore(sessionRepository, dataVersions, true, true, perUser * 2);
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        when(sessionRepository.findSnapshotsByUserId(userId)).thenReturn(sessions);
+        when(sessionRepository.findSnapshotsByUserId(second)).thenReturn(sessions);
+        when(sessionRepository.findSnapshotsByUserId(third)).thenReturn(sessions);
+
+        store.get(userId);
+        store.get(second);
+        store.get(userId);
+        store.get(third);
+
+        SessionColumnStore.Stats stats = store.stats();
+        assertEquals(2, stats.users());
+        assertEquals(1, stats.evictions());
+        assertEquals(perUser * 2, stats.bytes());
+        store.get(userId);
+        assertEquals(2, store.stats().hits());
+    }
+}
@@ -0,0 +1,96 @@
+package com.ascend.session;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionColumnsTest {
+
+    private static final LocalDate START = LocalDate.of(2023, 1, 1);
+
+    @Test
+    void accumulateMatchesSessionPathForAnyWindow() {
+        List<SessionSnapshot> snapshots = randomSnapshots(500, 7L);
+        SessionColumns columns = SessionColumns.of(snapshots);
+        assertEquals(500, columns.size());
+
+        List<DateRange> ranges = List.of(
+                DateRange.allTime(),
+                DateRange.of(START.plusDays(40), START.plusDays(95)),
+                DateRange.of(START.plusDays(100), START.plusDays(100)),
+                DateRange.of(null, START.plusDays(10)),
+                DateRange.of(START.plusDays(300), null));
+        for (DateRange range : ranges) {
+            assertSameAnalytics(expected(snapshots, range), columns.accumulate(new AnalyticsAccumulator(), range));
+        }
+    }
+
+    @Test
+    void applyAddsAndRemovesMatchingRows() {
+        List<SessionSnapshot> snapshots = new ArrayList<>(randomSnapshots(200, 11L));
+        SessionColumns columns = SessionColumns.of(snapshots);
+
+        SessionSnapshot removed = snapshots.get(17);
+        SessionSnapshot added = new SessionSnapshot(SessionDiscipline.LEAD, Grade.YDS_5_11B, START.plusDays(3), true);
+        SessionColumns updated = columns.apply(List.of(removed), List.of(added));
+
+        snapshots.remove(17);
+        snapshots.add(added);
+        assertEquals(200, updated.size());
+        assertSameAnalytics(expected(snapshots, DateRange.allTime()),
+                updated.accumulate(new AnalyticsAccumulator(), DateRange.allTime()));
+        // The original is untouched
+        assertEquals(200, columns.size());
+    }
+
+    @Test
+    void applyRejectsRemovalOfUnknownRow() {
+        SessionColumns columns = SessionColumns.of(List.of(
+                new SessionSnapshot(SessionDiscipline.BOULDER, Grade.V3, START, false)));
+
+        assertNull(columns.apply(List.of(new SessionSnapshot(SessionDiscipline.BOULDER, Grade.V3, START, true)), List.of()));
+    }
+
+    @Test
+    void estimatedBytesGrowsByAboutSixBytesPerSession() {
+        long small = SessionColumns.of(randomSnapshots(1_000, 1L)).estimatedBytes();
+        long large = SessionColumns.of(randomSnapshots(101_000, 1L)).estimatedBytes();
+
+        assertEquals(6.125, (large - small) / 100_000.0, 0.01);
+    }
+
+    private static AnalyticsAccumulator expected(List<SessionSnapshot> snapshots, DateRange range) {
+        AnalyticsAccumulator accumulator = new AnalyticsAccumulator();
+        for (SessionSnapshot snapshot : snapshots) {
+            if (range.contains(snapshot.getDate())) {
+                accumulator.add(snapshot.getDiscipline(), snapshot.getGrade(), snapshot.getDate(), snapshot.isSent());
+            }
+        }
+        return accumulator;
+    }
+
+    private static void assertSameAnalytics(AnalyticsAccumulator expected, AnalyticsAccumulator actual) {
+        assertEquals(expected.toSessionAnalytics(), actual.toSessionAnalytics());
+        assertEquals(expected.toProgressAnalytics(), actual.toProgressAnalytics());
+        assertEquals(expected.toHighestGrades(), actual.toHighestGrades());
+        assertEquals(expected.toAverageGrades(), actual.toAverageGrades());
+    }
+
+    private static List<SessionSnapshot> randomSnapshots(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        SessionDiscipline[] disciplines = SessionDiscipline.values();
+        List<SessionSnapshot> snapshots = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            SessionDiscipline discipline = disciplines[random.nextInt(disciplines.length)];
+            Grade[] grades = GradeUtils.getGradesForDiscipline(discipline);
+            snapshots.add(new SessionSnapshot(discipline, grades[random.nextInt(grades.length)],
+                    START.plusDays(random.nextInt(400)), random.nextBoolean()));
+        }
+        return snapshots;
+    }
+}
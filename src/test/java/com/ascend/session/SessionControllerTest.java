@@ -17,6 +17,8 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.LocalDate;
 import java.util.UUID;
@@ -101,6 +103,37 @@ class SessionControllerTest {
         assertEquals(200, result.getResponse().getStatus());
     }
 
+    @Test
+    void getUserSessions_ShouldIncludeNotesUnlessExcluded() throws Exception {
+        createSessionAndGetId();
+
+        mockMvc.perform(get("/api/sessions")
+                .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].notes").value("Test session"));
+
+        mockMvc.perform(get("/api/sessions").param("includeNotes", "false")
+                .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].grade").value("V4"))
+                .andExpect(jsonPath("$[0].notes").doesNotExist());
+
+        mockMvc.perform(get("/api/sessions").param("limit", "10")
+                .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].notes").value("Test session"));
+
+        mockMvc.perform(get("/api/sessions/discipline/BOULDER").param("includeNotes", "false")
+                .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].notes").doesNotExist());
+
+        mockMvc.perform(get("/api/sessions/date/{date}", LocalDate.now())
+                .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].notes").value("Test session"));
+    }
+
     private String createSessionAndGetId() throws Exception {
         String response = mockMvc.perform(post("/api/sessions")
                 .header("Authorization", "Bearer " + validToken)
@@ -179,6 +212,82 @@ class SessionControllerTest {
         assertEquals(204, result.getResponse().getStatus());
     }
 
+    @Test
+    void getUserSessions_WithoutValidToken_ShouldReturnUnauthorized() throws Exception {
+        mockMvc.perform(get("/api/sessions"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/sessions")
+                .header("Authorization", "Bearer invalid.token"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.message").value("Invalid token"));
+    }
+
+    @Test
+    void updateSession_WithPartialRequest_ShouldKeepOmittedFields() throws Exception {
+        String sessionId = createSessionAndGetId();
+        UpdateSessionRequest sentOnly = new UpdateSessionRequest();
+        sentOnly.setSent(true);
+
+        mockMvc.perform(patch("/api/sessions/{sessionId}", sessionId)
+                .header("Authorization", "Bearer " + validToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(sentOnly)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sent").value(true))
+                .andExpect(jsonPath("$.grade").value("V4"))
+                .andExpect(jsonPath("$.notes").value("Test session"));
+
+        mockMvc.perform(get("/api/sessions/{sessionId}", sessionId)
+                .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sent").value(true))
+                .andExpect(jsonPath("$.notes").value("Test session"));
+    }
+
+    @Test
+    void updateAndDeleteSession_OwnedByAnotherUser_ShouldReturnUnauthorizedAndLeaveItUntouched() throws Exception {
+        String sessionId = createSessionAndGetId();
+        User otherUser = userRepository.save(User.builder()
+                .email("other@example.com")
+                .password(BCrypt.hashpw("password123", BCrypt.gensalt()))
+                .firstName("Other")
+                .lastName("User")
+                .createdAt(java.time.LocalDateTime.now())
+                .build());
+        String otherToken = jwtService.generateToken(otherUser.getId());
+
+        mockMvc.perform(patch("/api/sessions/{sessionId}", sessionId)
+                .header("Authorization", "Bearer " + otherToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updateSessionRequest)))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(put("/api/sessions/{sessionId}", sessionId)
+                .header("Authorization", "Bearer " + otherToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createSessionRequest)))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(delete("/api/sessions/{sessionId}", sessionId)
+                .header("Authorization", "Bearer " + otherToken))
+                .andExpect(status().isUnauthorized());
+
+        Session unchanged = sessionRepository.findById(UUID.fromString(sessionId)).orElseThrow();
+        assertEquals(Grade.V4, unchanged.getGrade());
+        assertEquals("Test session", unchanged.getNotes());
+    }
+
+    @Test
+    void updateAndDeleteSession_WithUnknownId_ShouldReturnNotFound() throws Exception {
+        UUID unknownId = UUID.randomUUID();
+        mockMvc.perform(patch("/api/sessions/{sessionId}", unknownId)
+                .header("Authorization", "Bearer " + validToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updateSessionRequest)))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/sessions/{sessionId}", unknownId)
+                .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void getAnalytics_ShouldReturnSessionAnalytics() throws Exception {
         MvcResult result = mockMvc.perform(get("/api/sessions/analytics")
@@ -189,6 +298,30 @@ class SessionControllerTest {
         assertEquals(200, result.getResponse().getStatus());
     }
 
+    @Test
+    void getAnalytics_WithSessions_ShouldAggregatePerDiscipline() throws Exception {
+        createSessionAndGetId(); // V4, not sent
+
+        CreateSessionRequest sentRequest = new CreateSessionRequest();
+        sentRequest.setDiscipline(SessionDiscipline.BOULDER);
+        sentRequest.setGrade(Grade.V3);
+        sentRequest.setDate(LocalDate.now());
+        sentRequest.setSent(true);
+        mockMvc.perform(post("/api/sessions")
+                .header("Authorization", "Bearer " + validToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(sentRequest)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/sessions/analytics")
+                .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalSessions").value(2))
+                .andExpect(jsonPath("$.averageDifficulty").value(3.5))
+                .andExpect(jsonPath("$.sentPercentage").value(50.0))
+                .andExpect(jsonPath("$.sessionsByDiscipline.BOULDER").value(2));
+    }
+
     @Test
     void getAnalytics_WithWeekPeriod_ShouldReturnFilteredAnalytics() throws Exception {
         mockMvc.perform(get("/api/sessions/analytics")
@@ -236,6 +369,191 @@ class SessionControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getStatsOverview_WithDateRange_ShouldOnlyCountSessionsInRange() throws Exception {
+        createSessionAndGetId(); // dated today
+
+        mockMvc.perform(get("/api/sessions/stats/overview")
+                .param("from", LocalDate.now().minusDays(30).toString())
+                .param("to", LocalDate.now().minusDays(1).toString())
+                .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalSessions").value(0));
+
+        mockMvc.perform(get("/api/sessions/stats/overview")
+                .param("from", LocalDate.now().toString())
+                .param("to", LocalDate.now().toString())
+                .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalSessions").value(1));
+    }
+
+    @Test
+    void getUserSessions_WithLimit_ShouldPageNewestFirstUsingCursor() throws Exception {
+        for (int daysAgo = 0; daysAgo < 3; daysAgo++) {
+            createSessionRequest.setDate(LocalDate.now().minusDays(daysAgo));
+            createSessionAndGetId();
+        }
+        // Two sessions on the same day are ordered by id
+        createSessionRequest.setDate(LocalDate.now().minusDays(2));
+        createSessionAndGetId();
+
+        MvcResult firstPage = mockMvc.perform(get("/api/sessions")
+                .param("limit", "2")
+                .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].date").value(LocalDate.now().toString()))
+                .andExpect(jsonPath("$[1].date").value(LocalDate.now().minusDays(1).toString()))
+                .andExpect(header().exists(SessionController.NEXT_CURSOR_HEADER))
+                .andReturn();
+
+        String cursor = firstPage.getResponse().getHeader(SessionController.NEXT_CURSOR_HEADER);
+        mockMvc.perform(get("/api/sessions")
+                .param("limit", "2")
+                .param("cursor", cursor)
+                .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].date").value(LocalDate.now().minusDays(2).toString()))
+                .andExpect(jsonPath("$[1].date").value(LocalDate.now().minusDays(2).toString()))
+                .andExpect(header().doesNotExist(SessionController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void getUserSessions_WithLimitAndDiscipline_ShouldOnlyPageMatchingSessions() throws Exception {
+        createSessionAndGetId(); // BOULDER
+        createSessionRequest.setDiscipline(SessionDiscipline.LEAD);
+        createSessionRequest.setGrade(Grade.YDS_5_10A);
+        createSessionAndGetId();
+
+        mockMvc.perform(get("/api/sessions")
+                .param("limit", "10")
+                .param("discipline", "LEAD")
+                .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].discipline").value("LEAD"))
+                .andExpect(header().doesNotExist(SessionController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void getUserSessions_WithInvalidCursor_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/sessions")
+                .param("cursor", "not-a-cursor")
+                .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid cursor"));
+    }
+
+    @Test
+    void exportSessions_AsNdjson_ShouldStreamOneObjectPerLine() throws Exception {
+        createSessionRequest.setDiscipline(SessionDiscipline.LEAD);
+        createSessionRequest.setGrade(Grade.YDS_5_10A);
+        createSessionAndGetId();
+        createSessionAndGetId();
+
+        MvcResult pending = mockMvc.perform(get("/api/sessions/export")
+                .header("Authorization", "Bearer " + validToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("5.10a", first.get("grade").asText());
+        assertEquals("LEAD", first.get("discipline").asText());
+    }
+
+    @Test
+    void exportSessions_AsGzippedCsv_ShouldQuoteNotes() throws Exception {
+        createSessionRequest.setNotes("Crimpy, \"hard\" finish");
+        createSessionAndGetId();
+
+        MvcResult pending = mockMvc.perform(get("/api/sessions/export")
+                .param("format", "csv")
+                .param("gzip", "true")
+                .header("Authorization", "Bearer " + validToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/gzip"))
+                .andReturn();
+
+        String csv;
+        try (java.util.zip.GZIPInputStream in = new java.util.zip.GZIPInputStream(
+                new java.io.ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            csv = new String(in.readAllBytes(), java.nio.charset.StandardCharsets.UTF_8);
+        }
+        String[] lines = csv.split("\r\n");
+        assertEquals("id,date,discipline,grade,sent,notes", lines[0]);
+        assertTrue(lines[1].endsWith(",V4,false,\"Crimpy, \"\"hard\"\" finish\""));
+    }
+
+    @Test
+    void exportSessions_WithUnknownFormat_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/sessions/export")
+                .param("format", "xml")
+                .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void importSessions_WithJsonArray_ShouldSaveValidRowsAndReportInvalidOnes() throws Exception {
+        String body = "[" +
+                "{\"discipline\":\"BOULDER\",\"grade\":\"V5\",\"date\":\"2024-03-01\",\"sent\":true}," +
+                "{\"discipline\":\"LEAD\",\"grade\":\"V5\",\"date\":\"2024-03-02\",\"sent\":false}," +
+                "{\"discipline\":\"BOULDER\",\"grade\":\"V99\",\"date\":\"2024-03-03\",\"sent\":false}," +
+                "{\"discipline\":\"LEAD\",\"grade\":\"5.11a\",\"date\":\"2024-03-04\",\"sent\":true}" +
+                "]";
+
+        mockMvc.perform(post("/api/sessions/import")
+                .header("Authorization", "Bearer " + validToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRows").value(4))
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.errors[0].row").value(2))
+                .andExpect(jsonPath("$.errors[0].message").value("Grade is not compatible with the selected discipline"))
+                .andExpect(jsonPath("$.errors[1].row").value(3))
+                .andExpect(jsonPath("$.errors[1].message").value("Invalid grade"));
+
+        mockMvc.perform(get("/api/sessions/analytics")
+                .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalSessions").value(2));
+    }
+
+    @Test
+    void importSessions_WithCsv_ShouldParseQuotedNotes() throws Exception {
+        String body = "date,discipline,grade,sent,notes\r\n" +
+                "2024-05-01,BOULDER,V3,true,\"Slab, then \"\"the\"\" roof\"\r\n" +
+                "2024-05-02,TOP_ROPE,5.9,false,\r\n" +
+                "not-a-date,BOULDER,V3,true,\r\n";
+
+        mockMvc.perform(post("/api/sessions/import")
+                .header("Authorization", "Bearer " + validToken)
+                .contentType("text/csv")
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.errors[0].row").value(3))
+                .andExpect(jsonPath("$.errors[0].message").value("Invalid date: not-a-date"));
+
+        mockMvc.perform(get("/api/sessions")
+                .param("discipline", "BOULDER")
+                .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].notes").value("Slab, then \"the\" roof"));
+    }
+
     @Test
     void getProgressStats_ShouldReturnProgressAnalytics() throws Exception {
         mockMvc.perform(get("/api/sessions/stats/progress")
@@ -281,12 +599,141 @@ class SessionControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getDashboard_ShouldReturnAllStats() throws Exception {
+        createSessionAndGetId();
+        mockMvc.perform(get("/api/sessions/stats/dashboard")
+                .param("period", "month")
+                .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.overview.totalSessions").value(1))
+                .andExpect(jsonPath("$.progress.totalSessions").value(1))
+                .andExpect(jsonPath("$.highestGrades.BOULDER").value("V4"))
+                .andExpect(jsonPath("$.averageGrades").isEmpty());
+    }
+
+    @Test
+    void getRangeStats_ShouldCountOnlySessionsInWindow() throws Exception {
+        createSessionAndGetId();
+        LocalDate today = LocalDate.now();
+        mockMvc.perform(get("/api/sessions/stats/range")
+                .param("from", today.toString())
+                .param("to", today.toString())
+                .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.totalSessions").value(1));
+
+        mockMvc.perform(get("/api/sessions/stats/range")
+                .param("to", today.minusDays(1).toString())
+                .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalSessions").value(0));
+    }
+
+    @Test
+    void getActivity_ShouldReflectCreateAndDelete() throws Exception {
+        String sessionId = createSessionAndGetId();
+        mockMvc.perform(get("/api/sessions/stats/activity")
+                .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.currentStreak").value(1))
+                .andExpect(jsonPath("$.longestStreak").value(1))
+                .andExpect(jsonPath("$.sessionsLast7Days").value(1))
+                .andExpect(jsonPath("$.sendsLast30Days").value(0));
+
+        mockMvc.perform(delete("/api/sessions/{sessionId}", sessionId)
+                .header("Authorization", "Bearer " + validToken));
+
+        mockMvc.perform(get("/api/sessions/stats/activity")
+                .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.currentStreak").value(0))
+                .andExpect(jsonPath("$.sessionsLast90Days").value(0));
+    }
+
+    @Test
+    void getGradeDistribution_ShouldReturnCountsAndPercentiles() throws Exception {
+        createSessionAndGetId();
+        mockMvc.perform(get("/api/sessions/stats/distribution")
+                .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.BOULDER.totalAttempts").value(1))
+                .andExpect(jsonPath("$.BOULDER.grades[0].grade").value("V4"))
+                .andExpect(jsonPath("$.BOULDER.grades[0].attempts").value(1))
+                .andExpect(jsonPath("$.BOULDER.medianGrade").value("V4"));
+    }
+
     @Test
     void getGradesForDiscipline_ShouldReturnGrades() throws Exception {
         mockMvc.perform(get("/api/sessions/grades/BOULDER"))
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getUserSessions_WithMatchingETag_ShouldReturnNotModified() throws Exception {
+        createSessionAndGetId();
+        String etag = mockMvc.perform(get("/api/sessions")
+                .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/sessions")
+                .header("Authorization", "Bearer " + validToken)
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getUserSessions_AfterWrite_ShouldReturnNewETag() throws Exception {
+        String etag = mockMvc.perform(get("/api/sessions")
+                .header("Authorization", "Bearer " + validToken))
+                .andReturn().getResponse().getHeader("ETag");
+
+        createSessionAndGetId();
+
+        MvcResult result = mockMvc.perform(get("/api/sessions")
+                .header("Authorization", "Bearer " + validToken)
+                .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andReturn();
+        assertNotEquals(etag, result.getResponse().getHeader("ETag"));
+    }
+
+    @Test
+    void getStats_WithMatchingETag_ShouldReturnNotModifiedUntilSessionChanges() throws Exception {
+        String sessionId = createSessionAndGetId();
+        String etag = mockMvc.perform(get("/api/sessions/stats/overview")
+                .param("period", "month")
+                .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/sessions/stats/overview")
+                .param("period", "month")
+                .header("Authorization", "Bearer " + validToken)
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(delete("/api/sessions/" + sessionId)
+                .header("Authorization", "Bearer " + validToken))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/sessions/stats/overview")
+                .param("period", "month")
+                .header("Authorization", "Bearer " + validToken)
+                .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalSessions").value(0));
+    }
+
     @Test
     @WithMockUser(username = "test@example.com")
     void testCreateSessionWithAllDisciplines() throws Exception {
@@ -0,0 +1,192 @@
+package com.ascend.session;
+
+import com.ascend.config.UuidV7;
+import com.ascend.user.User;
+import com.ascend.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SessionRollupServiceTest {
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private SessionRollupService rollupService;
+
+    @Autowired
+    private SessionRollupRepository rollupRepository;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SessionRollupInitializer rollupInitializer;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        rollupRepository.deleteAll();
+        sessionRepository.deleteAll();
+        userRepository.deleteAll();
+
+        testUser = userRepository.save(User.builder()
+                .email("rollup@example.com")
+                .password("password123")
+                .firstName("Rollup")
+                .lastName("User")
+                .createdAt(java.time.LocalDateTime.now())
+                .build());
+    }
+
+    @Test
+    void writes_ShouldKeepRollupsConsistentWithSessions() {
+        LocalDate monday = LocalDate.of(2024, 4, 29);
+        Session first = sessionService.createSession(testUser.getId(), request(SessionDiscipline.BOULDER, Grade.V6, monday, true));
+        Session second = sessionService.createSession(testUser.getId(), request(SessionDiscipline.BOULDER, Grade.V3, monday.plusDays(1), false));
+        sessionService.createSession(testUser.getId(), request(SessionDiscipline.LEAD, Grade.V5, monday.plusDays(2), true));
+        // 2024-05-01 falls in the same ISO week but starts a new month bucket
+        sessionService.createSession(testUser.getId(), request(SessionDiscipline.BOULDER, Grade.V4, monday.plusDays(3), true));
+        assertEquals(List.of(), rollupService.verify(testUser.getId()));
+
+        // Removing the bucket maximum must recompute it from the remaining sessions
+        UpdateSessionRequest lowerGrade = new UpdateSessionRequest();
+        lowerGrade.setGrade(Grade.V2);
+        sessionService.updateSession(first.getId(), testUser.getId(), lowerGrade);
+        assertEquals(List.of(), rollupService.verify(testUser.getId()));
+
+        // Moving a session to another bucket and discipline
+        sessionService.replaceSession(second.getId(), testUser.getId(), request(SessionDiscipline.TOP_ROPE, Grade.V1, monday.plusWeeks(1), true));
+        assertEquals(List.of(), rollupService.verify(testUser.getId()));
+
+        sessionService.deleteSession(first.getId(), testUser.getId());
+        assertEquals(List.of(), rollupService.verify(testUser.getId()));
+
+        SessionAnalytics analytics = sessionService.getAnalytics(testUser.getId(), DateRange.allTime());
+        assertEquals(3, analytics.getTotalSessions());
+        assertEquals(100.0, analytics.getSentPercentage(), 0.001);
+
+        Map<SessionDiscipline, Grade> highest = sessionService.getHighestGrades(testUser.getId(), DateRange.allTime());
+        assertEquals(Grade.V4, highest.get(SessionDiscipline.BOULDER));
+        assertEquals(Grade.V5, highest.get(SessionDiscipline.LEAD));
+    }
+
+    @Test
+    void getAnalytics_WithUnalignedRange_ShouldMatchRollupFreePath() {
+        LocalDate monday = LocalDate.of(2024, 6, 3);
+        sessionService.createSession(testUser.getId(), request(SessionDiscipline.BOULDER, Grade.V6, monday, true));
+        sessionService.createSession(testUser.getId(), request(SessionDiscipline.BOULDER, Grade.V2, monday.plusDays(3), false));
+
+        DateRange aligned = DateRange.of(monday, monday.plusWeeks(1));
+        DateRange unaligned = DateRange.of(monday.plusDays(1), monday.plusWeeks(1));
+        assertTrue(rollupService.canServe(aligned));
+        assertFalse(rollupService.canServe(unaligned));
+
+        assertEquals(2, sessionService.getAnalytics(testUser.getId(), aligned).getTotalSessions());
+        assertEquals(1, sessionService.getAnalytics(testUser.getId(), unaligned).getTotalSessions());
+        assertEquals(Grade.V2, sessionService.getHighestGrades(testUser.getId(), unaligned).get(SessionDiscipline.BOULDER));
+    }
+
+    @Test
+    void rebuild_ShouldRepairDriftedRollups() {
+        sessionService.createSession(testUser.getId(), request(SessionDiscipline.LEAD, Grade.V5, LocalDate.of(2024, 3, 4), true));
+        rollupRepository.deleteAll();
+        assertFalse(rollupService.verify(testUser.getId()).isEmpty());
+
+        rollupService.rebuild(testUser.getId());
+
+        assertEquals(List.of(), rollupService.verify(testUser.getId()));
+    }
+
+    @Test
+    void concurrentFirstWrites_ToOneBucket_ShouldAllBeCounted() throws Exception {
+        int writers = 8;
+        LocalDate monday = LocalDate.of(2024, 9, 2);
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Session>> writes = new ArrayList<>();
+            for (int i = 0; i < writers; i++) {
+                Grade grade = Grade.values()[i];
+                writes.add(pool.submit(() -> {
+                    start.await();
+                    return sessionService.createSession(testUser.getId(), request(SessionDiscipline.BOULDER, grade, monday, true));
+                }));
+            }
+            start.countDown();
+            for (Future<Session> write : writes) {
+                assertNotNull(write.get(30, TimeUnit.SECONDS).getId());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(List.of(), rollupService.verify(testUser.getId()));
+        List<SessionRollup> rollups = rollupRepository.findByUserIdOrderByBucketStart(testUser.getId());
+        assertEquals(1, rollups.size());
+        assertEquals(writers, rollups.get(0).getSessionCount());
+        assertEquals(Grade.values()[writers - 1], rollups.get(0).getMaxGrade());
+    }
+
+    @Test
+    void verifyAndRepair_ShouldRemoveRollupsOfUsersWithoutSessions() {
+        sessionService.createSession(testUser.getId(), request(SessionDiscipline.LEAD, Grade.YDS_5_10A, LocalDate.of(2024, 3, 4), true));
+        // Sessions gone but the rollup left behind, as after a failed rollup write
+        sessionRepository.deleteAll();
+        assertFalse(rollupRepository.findByUserIdOrderByBucketStart(testUser.getId()).isEmpty());
+
+        rollupInitializer.verifyAndRepair();
+
+        assertEquals(List.of(), rollupRepository.findByUserIdOrderByBucketStart(testUser.getId()));
+    }
+
+    @Test
+    void insertPending_ShouldSkipSessionsAlreadyWrittenAndUsersSinceDeleted() {
+        LocalDate date = LocalDate.of(2024, 4, 29);
+        SessionWriteBehind.PendingSession first = new SessionWriteBehind.PendingSession(UuidV7.next(), testUser.getId(),
+                SessionDiscipline.BOULDER, Grade.V5, date, null, true);
+        SessionWriteBehind.PendingSession second = new SessionWriteBehind.PendingSession(UuidV7.next(), testUser.getId(),
+                SessionDiscipline.BOULDER, Grade.V2, date, null, false);
+        SessionWriteBehind.PendingSession orphan = new SessionWriteBehind.PendingSession(UuidV7.next(), UuidV7.next(),
+                SessionDiscipline.BOULDER, Grade.V1, date, null, true);
+        sessionService.insertPending(List.of(first));
+
+        // A replayed spool repeats rows that were written before the failure
+        sessionService.insertPending(List.of(first, second, orphan));
+
+        assertEquals(2, sessionRepository.count());
+        List<SessionRollup> rollups = rollupRepository.findByUserIdOrderByBucketStart(testUser.getId());
+        assertEquals(2, rollups.stream().mapToInt(SessionRollup::getSessionCount).max().orElse(0));
+        assertEquals(List.of(), rollupService.verify(testUser.getId()));
+    }
+
+    private CreateSessionRequest request(SessionDiscipline discipline, Grade grade, LocalDate date, boolean sent) {
+        CreateSessionRequest request = new CreateSessionRequest();
+        request.setDiscipline(discipline);
+        request.setGrade(grade);
+        request.setDate(date);
+        request.setSent(sent);
+        return request;
+    }
+}
@@ -1,20 +1,32 @@
 package com.ascend.session;
 
 import com.ascend.user.User;
+import com.ascend.user.UserDataVersions;
 import com.ascend.user.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.time.DayOfWeek;
+import java.time.Duration;
 import java.time.LocalDate;
-import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,6 +38,26 @@ class SessionServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private SessionRollupService rollupService;
+
+    @Spy
+    private UserDataVersions dataVersions = new UserDataVersions(1000);
+
+    @Mock
+    private SessionColumnStore columnStore;
+
+    @Mock
+    private ActivityTracker activityTracker;
+
+    // Threshold out of reach so accumulation stays on the test thread
+    @Spy
+    private ParallelAnalytics parallelAnalytics = new ParallelAnalytics(1, Integer.MAX_VALUE);
+
+    // Sized to zero so every call reaches the mocked repositories
+    @Spy
+    private AnalyticsCache analyticsCache = new AnalyticsCache(dataVersions, 0, Duration.ZERO);
+
     @InjectMocks
     private SessionService sessionService;
 
@@ -57,7 +89,7 @@ class SessionServiceTest {
                 .user(testUser)
                 .discipline(SessionDiscipline.LEAD)
                 .grade(Grade.V5)
-                .date(now.withDayOfMonth(15))
+                .date(sameMonthOutsideWeek(now))
                 .sent(false)
                 .build();
 
@@ -81,8 +113,8 @@ class SessionServiceTest {
     @Test
     void getAnalytics_WithWeekPeriod_ShouldFilterCorrectly() {
         // Given
-        List<Session> allSessions = Arrays.asList(currentWeekSession, currentMonthSession, currentYearSession, oldSession);
-        when(sessionRepository.findByUserId(testUser.getId())).thenReturn(allSessions);
+        when(sessionRepository.aggregateByDisciplineInRange(eq(testUser.getId()), any(), any()))
+                .thenAnswer(invocation -> aggregatesInRange(invocation.getArgument(1), invocation.getArgument(2)));
 
         // When
         SessionAnalytics analytics = sessionService.getAnalytics(testUser.getId(), "week");
@@ -97,8 +129,8 @@ class SessionServiceTest {
     @Test
     void getAnalytics_WithMonthPeriod_ShouldFilterCorrectly() {
         // Given
-        List<Session> allSessions = Arrays.asList(currentWeekSession, currentMonthSession, currentYearSession, oldSession);
-        when(sessionRepository.findByUserId(testUser.getId())).thenReturn(allSessions);
+        when(sessionRepository.aggregateByDisciplineInRange(eq(testUser.getId()), any(), any()))
+                .thenAnswer(invocation -> aggregatesInRange(invocation.getArgument(1), invocation.getArgument(2)));
 
         // When
         SessionAnalytics analytics = sessionService.getAnalytics(testUser.getId(), "month");
@@ -113,8 +145,8 @@ class SessionServiceTest {
     @Test
     void getAnalytics_WithYearPeriod_ShouldFilterCorrectly() {
         // Given
-        List<Session> allSessions = Arrays.asList(currentWeekSession, currentMonthSession, currentYearSession, oldSession);
-        when(sessionRepository.findByUserId(testUser.getId())).thenReturn(allSessions);
+        when(sessionRepository.aggregateByDisciplineInRange(eq(testUser.getId()), any(), any()))
+                .thenAnswer(invocation -> aggregatesInRange(invocation.getArgument(1), invocation.getArgument(2)));
 
         // When
         SessionAnalytics analytics = sessionService.getAnalytics(testUser.getId(), "year");
@@ -129,11 +161,10 @@ class SessionServiceTest {
     @Test
     void getAnalytics_WithNullPeriod_ShouldReturnAllSessions() {
         // Given
-        List<Session> allSessions = Arrays.asList(currentWeekSession, currentMonthSession, currentYearSession, oldSession);
-        when(sessionRepository.findByUserId(testUser.getId())).thenReturn(allSessions);
+        when(sessionRepository.aggregateByDiscipline(testUser.getId())).thenReturn(allTimeAggregates());
 
         // When
-        SessionAnalytics analytics = sessionService.getAnalytics(testUser.getId(), null);
+        SessionAnalytics analytics = sessionService.getAnalytics(testUser.getId(), (String) null);
 
         // Then
         assertEquals(4, analytics.getTotalSessions());
@@ -142,8 +173,7 @@ class SessionServiceTest {
     @Test
     void getAnalytics_WithInvalidPeriod_ShouldReturnAllSessions() {
         // Given
-        List<Session> allSessions = Arrays.asList(currentWeekSession, currentMonthSession, currentYearSession, oldSession);
-        when(sessionRepository.findByUserId(testUser.getId())).thenReturn(allSessions);
+        when(sessionRepository.aggregateByDiscipline(testUser.getId())).thenReturn(allTimeAggregates());
 
         // When
         SessionAnalytics analytics = sessionService.getAnalytics(testUser.getId(), "invalid");
@@ -155,8 +185,7 @@ class SessionServiceTest {
     @Test
     void getAnalytics_WithEmptyPeriod_ShouldReturnAllSessions() {
         // Given
-        List<Session> allSessions = Arrays.asList(currentWeekSession, currentMonthSession, currentYearSession, oldSession);
-        when(sessionRepository.findByUserId(testUser.getId())).thenReturn(allSessions);
+        when(sessionRepository.aggregateByDiscipline(testUser.getId())).thenReturn(allTimeAggregates());
 
         // When
         SessionAnalytics analytics = sessionService.getAnalytics(testUser.getId(), "");
@@ -164,4 +193,159 @@ class SessionServiceTest {
         // Then
         assertEquals(4, analytics.getTotalSessions());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void getAnalytics_AllTime_ShouldUseDatabaseAggregates() {
+        // Given
+        when(sessionRepository.aggregateByDiscipline(testUser.getId())).thenReturn(allTimeAggregates());
+
+        // When
+        SessionAnalytics analytics = sessionService.getAnalytics(testUser.getId(), "all_time");
+
+        // Then
+        double expectedAvg = (Grade.V4.getNumericValue() + Grade.V5.getNumericValue()
+                + Grade.V6.getNumericValue() + Grade.V3.getNumericValue()) / 4.0;
+        assertEquals(4, analytics.getTotalSessions());
+        assertEquals(expectedAvg, analytics.getAverageDifficulty(), 0.0001);
+        assertEquals(50.0, analytics.getSentPercentage(), 0.0001);
+        assertEquals(2, analytics.getSessionsByDiscipline().get(SessionDiscipline.BOULDER));
+        assertEquals(100.0, analytics.getSentPercentageByDiscipline().get(SessionDiscipline.BOULDER), 0.0001);
+        assertEquals(0.0, analytics.getSentPercentageByDiscipline().get(SessionDiscipline.LEAD), 0.0001);
+        verify(sessionRepository, never()).findByUserId(testUser.getId());
+    }
+
+    @Test
+    void getAnalytics_WithExplicitRange_ShouldIncludeBothEndDates() {
+        // Given
+        LocalDate from = oldSession.getDate();
+        LocalDate to = oldSession.getDate();
+        when(sessionRepository.aggregateByDisciplineInRange(testUser.getId(), from, to.plusDays(1)))
+                .thenAnswer(invocation -> aggregatesInRange(invocation.getArgument(1), invocation.getArgument(2)));
+
+        // When
+        SessionAnalytics analytics = sessionService.getAnalytics(testUser.getId(),
+                sessionService.resolveRange("week", from, to));
+
+        // Then
+        assertEquals(1, analytics.getTotalSessions());
+        assertEquals(1, analytics.getSessionsByDiscipline().get(SessionDiscipline.LEAD));
+    }
+
+    @Test
+    void getDashboard_ShouldComputeAllStatsFromOneRead() {
+        // Given
+        when(sessionRepository.findByUserId(testUser.getId()))
+                .thenReturn(List.of(currentWeekSession, currentMonthSession, currentYearSession, oldSession));
+
+        // When
+        SessionDashboard dashboard = sessionService.getDashboard(testUser.getId(), DateRange.allTime());
+
+        // Then
+        assertEquals(4, dashboard.getOverview().getTotalSessions());
+        assertEquals(4, dashboard.getProgress().getTotalSessions());
+        assertEquals(Grade.V6, dashboard.getHighestGrades().get(SessionDiscipline.BOULDER));
+        assertEquals((Grade.V4.getNumericValue() + Grade.V6.getNumericValue()) / 2,
+                dashboard.getAverageGrades().get(SessionDiscipline.BOULDER), 0.0001);
+        assertFalse(dashboard.getAverageGrades().containsKey(SessionDiscipline.LEAD));
+        verify(sessionRepository, times(1)).findByUserId(testUser.getId());
+    }
+
+    @Test
+    void getGradeDistribution_ShouldCountFromDatabaseAggregates() {
+        // Given
+        DateRange range = DateRange.allTime();
+        when(sessionRepository.countByGradeInRange(testUser.getId(), range.getFrom(), range.getTo()))
+                .thenReturn(List.of(
+                        new GradeCountAggregate(SessionDiscipline.BOULDER, Grade.V4, 1L, 1L),
+                        new GradeCountAggregate(SessionDiscipline.BOULDER, Grade.V6, 1L, 1L),
+                        new GradeCountAggregate(SessionDiscipline.LEAD, Grade.V5, 1L, 0L),
+                        new GradeCountAggregate(SessionDiscipline.LEAD, Grade.V3, 1L, 0L)));
+
+        // When
+        Map<SessionDiscipline, GradeDistribution> distribution = sessionService.getGradeDistribution(testUser.getId(), range);
+
+        // Then
+        assertEquals(2, distribution.get(SessionDiscipline.BOULDER).getTotalSends());
+        assertEquals(Grade.V4, distribution.get(SessionDiscipline.BOULDER).getMedianSendGrade());
+        assertEquals(Grade.V6, distribution.get(SessionDiscipline.BOULDER).getP90SendGrade());
+        assertEquals(Grade.V3, distribution.get(SessionDiscipline.LEAD).getMedianGrade());
+        assertNull(distribution.get(SessionDiscipline.LEAD).getMedianSendGrade());
+        verify(sessionRepository, never()).findByUserId(testUser.getId());
+    }
+
+    @Test
+    void createSession_ShouldAttachUserByReferenceWithoutLoadingIt() {
+        when(userRepository.getReferenceById(testUser.getId())).thenReturn(testUser);
+        when(sessionRepository.saveAndFlush(any(Session.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Session created = sessionService.createSession(testUser.getId(), createRequest());
+
+        assertSame(testUser, created.getUser());
+        verify(userRepository, never()).findById(any());
+        verify(userRepository, never()).existsById(any());
+    }
+
+    @Test
+    void createSession_ForMissingUser_ShouldReportUserNotFound() {
+        when(userRepository.getReferenceById(testUser.getId())).thenReturn(testUser);
+        when(sessionRepository.saveAndFlush(any(Session.class)))
+                .thenThrow(new DataIntegrityViolationException("fk_sessions_user"));
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> sessionService.createSession(testUser.getId(), createRequest()));
+        assertEquals("User not found", e.getMessage());
+        verify(rollupService, never()).add(any(), any());
+    }
+
+    @Test
+    void resolveRange_WithFromAfterTo_ShouldThrow() {
+        LocalDate today = LocalDate.now();
+        assertThrows(IllegalArgumentException.class,
+                () -> sessionService.resolveRange(null, today, today.minusDays(1)));
+    }
+
+    private CreateSessionRequest createRequest() {
+        CreateSessionRequest request = new CreateSessionRequest();
+        request.setDiscipline(SessionDiscipline.BOULDER);
+        request.setGrade(Grade.V4);
+        request.setDate(LocalDate.now());
+        request.setSent(true);
+        return request;
+    }
+
+    /**
+     * Mimics the database: aggregates the fixture sessions whose date falls in {@code [from, to)}.
+     */
+    // Mid-month unless that falls in the current ISO week; a week never covers both the 1st and the 28th
+    private static LocalDate sameMonthOutsideWeek(LocalDate today) {
+        LocalDate monday = today.with(DayOfWeek.MONDAY);
+        for (int day : new int[]{15, 1, 28}) {
+            LocalDate candidate = today.withDayOfMonth(day);
+            if (candidate.isBefore(monday) || !candidate.isBefore(monday.plusWeeks(1))) {
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("No day of " + today.getMonth() + " outside the current week");
+    }
+
+    private List<DisciplineAggregate> aggregatesInRange(LocalDate from, LocalDate to) {
+        return Stream.of(currentWeekSession, currentMonthSession, currentYearSession, oldSession)
+                .filter(session -> !session.getDate().isBefore(from) && session.getDate().isBefore(to))
+                .collect(Collectors.groupingBy(Session::getDiscipline))
+                .entrySet().stream()
+                .map(entry -> new DisciplineAggregate(
+                        entry.getKey(),
+                        (long) entry.getValue().size(),
+                        entry.getValue().stream().mapToDouble(session -> session.getGrade().getNumericValue()).sum(),
+                        entry.getValue().stream().filter(Session::isSent).count()))
+                .collect(Collectors.toList());
+    }
+
+    private List<DisciplineAggregate> allTimeAggregates() {
+        return List.of(
+                new DisciplineAggregate(SessionDiscipline.BOULDER, 2L,
+                        Grade.V4.getNumericValue() + Grade.V6.getNumericValue(), 2L),
+                new DisciplineAggregate(SessionDiscipline.LEAD, 2L,
+                        Grade.V5.getNumericValue() + Grade.V3.getNumericValue(), 0L));
+    }
+}
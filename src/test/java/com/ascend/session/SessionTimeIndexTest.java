@@ -0,0 +1,101 @@
+package com.ascend.session;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionTimeIndexTest {
+
+    private static final LocalDate START = LocalDate.of(2023, 1, 1);
+
+    @Test
+    void aggregateMatchesAScanForAnyWindow() {
+        List<SessionSnapshot> snapshots = randomSnapshots(400, 3L);
+        SessionTimeIndex index = SessionTimeIndex.of(SessionColumns.of(snapshots));
+
+        SplittableRandom random = new SplittableRandom(5L);
+        for (int i = 0; i < 200; i++) {
+            LocalDate from = START.plusDays(random.nextInt(-10, 380));
+            LocalDate to = from.plusDays(random.nextInt(0, 120));
+            DateRange range = DateRange.of(from, to);
+            assertSameAggregates(scan(snapshots, range), index.aggregate(range));
+        }
+        assertSameAggregates(scan(snapshots, DateRange.allTime()), index.aggregate(DateRange.allTime()));
+    }
+
+    @Test
+    void applyMatchesARebuild() {
+        List<SessionSnapshot> snapshots = new ArrayList<>(randomSnapshots(150, 9L));
+        SessionTimeIndex index = SessionTimeIndex.of(SessionColumns.of(snapshots));
+
+        List<SessionSnapshot> removed = List.of(snapshots.get(0), snapshots.get(75));
+        List<SessionSnapshot> added = List.of(
+                new SessionSnapshot(SessionDiscipline.BOULDER, Grade.V7, START.minusDays(30), true),
+                new SessionSnapshot(SessionDiscipline.LEAD, Grade.YDS_5_12C, START.plusDays(1000), false),
+                new SessionSnapshot(SessionDiscipline.TOP_ROPE, Grade.YDS_5_9, snapshots.get(10).getDate(), true));
+        SessionTimeIndex updated = index.apply(removed, added);
+
+        removed.forEach(snapshots::remove);
+        snapshots.addAll(added);
+        SessionTimeIndex rebuilt = SessionTimeIndex.of(SessionColumns.of(snapshots));
+        for (DateRange range : List.of(DateRange.allTime(),
+                DateRange.of(START.minusDays(30), START.minusDays(29)),
+                DateRange.of(START.plusDays(20), START.plusDays(200)),
+                DateRange.of(START.plusDays(999), null))) {
+            assertSameAggregates(rebuilt.aggregate(range), updated.aggregate(range));
+        }
+        // The original is untouched
+        assertSameAggregates(scan(randomSnapshots(150, 9L), DateRange.allTime()), index.aggregate(DateRange.allTime()));
+    }
+
+    @Test
+    void emptyIndexHasNoTotals() {
+        assertTrue(SessionTimeIndex.of(SessionColumns.EMPTY).aggregate(DateRange.allTime()).isEmpty());
+    }
+
+    private static List<DisciplineAggregate> scan(List<SessionSnapshot> snapshots, DateRange range) {
+        return snapshots.stream()
+                .filter(snapshot -> range.contains(snapshot.getDate()))
+                .collect(Collectors.groupingBy(SessionSnapshot::getDiscipline))
+                .entrySet().stream()
+                .map(entry -> new DisciplineAggregate(entry.getKey(),
+                        (long) entry.getValue().size(),
+                        entry.getValue().stream().mapToDouble(SessionSnapshot::getGradeValue).sum(),
+                        entry.getValue().stream().filter(SessionSnapshot::isSent).count()))
+                .toList();
+    }
+
+    private static void assertSameAggregates(List<DisciplineAggregate> expected, List<DisciplineAggregate> actual) {
+        Map<SessionDiscipline, DisciplineAggregate> byDiscipline = actual.stream()
+                .collect(Collectors.toMap(DisciplineAggregate::getDiscipline, Function.identity()));
+        assertEquals(expected.size(), actual.size());
+        for (DisciplineAggregate aggregate : expected) {
+            DisciplineAggregate other = byDiscipline.get(aggregate.getDiscipline());
+            assertNotNull(other, aggregate.getDiscipline().name());
+            assertEquals(aggregate.getSessionCount(), other.getSessionCount());
+            assertEquals(aggregate.getSentCount(), other.getSentCount());
+            assertEquals(aggregate.getGradeValueSum(), other.getGradeValueSum(), 1e-6);
+        }
+    }
+
+    private static List<SessionSnapshot> randomSnapshots(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        SessionDiscipline[] disciplines = SessionDiscipline.values();
+        List<SessionSnapshot> snapshots = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            SessionDiscipline discipline = disciplines[random.nextInt(disciplines.length)];
+            Grade[] grades = GradeUtils.getGradesForDiscipline(discipline);
+            snapshots.add(new SessionSnapshot(discipline, grades[random.nextInt(grades.length)],
+                    START.plusDays(random.nextInt(365)), random.nextBoolean()));
+        }
+        return snapshots;
+    }
+}
@@ -0,0 +1,280 @@
+package com.ascend.session;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SessionWriteBehindTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final SessionService sessionService = mock(SessionService.class);
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final UUID userId = UUID.randomUUID();
+    private final List<SessionWriteBehind> started = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (SessionWriteBehind writeBehind : started) {
+            writeBehind.shutdown();
+        }
+    }
+
+    @Test
+    void disabledWriteBehindInsertsDirectly() {
+        SessionWriteBehind writeBehind = start(false, 10);
+        Session saved = Session.builder().id(UUID.randomUUID()).build();
+        when(sessionService.createSession(eq(userId), any())).thenReturn(saved);
+
+        assertSame(saved, writeBehind.createSession(userId, request()));
+        verify(sessionService, never()).insertPending(anyList());
+    }
+
+    @Test
+    void queuedSessionsAreWrittenAndReadsCanWaitForThem() throws InterruptedException {
+        List<SessionWriteBehind.PendingSession> written = new ArrayList<>();
+        doAnswer(invocation -> {
+            synchronized (written) {
+                written.addAll(invocation.getArgument(0));
+            }
+            return null;
+        }).when(sessionService).insertPending(anyList());
+        SessionWriteBehind writeBehind = start(true, 100);
+
+        Session first = writeBehind.createSession(userId, request());
+        Session second = writeBehind.createSession(userId, request());
+
+        assertNotNull(first.getId());
+        assertTrue(first.getId().compareTo(second.getId()) < 0);
+        assertTrue(writeBehind.awaitFlushed(userId));
+        assertFalse(writeBehind.hasPending(userId));
+        synchronized (written) {
+            assertEquals(List.of(first.getId(), second.getId()),
+                    written.stream().map(SessionWriteBehind.PendingSession::id).toList());
+        }
+        verify(sessionService, never()).createSession(any(), any());
+    }
+
+    @Test
+    void fullQueueFallsBackToDirectInsert() throws InterruptedException {
+        CountDownLatch flusherBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            flusherBusy.countDown();
+            release.await();
+            return null;
+        }).when(sessionService).insertPending(anyList());
+        Session direct = Session.builder().id(UUID.randomUUID()).build();
+        when(sessionService.createSession(eq(userId), any())).thenReturn(direct);
+        SessionWriteBehind writeBehind = start(true, 1);
+
+        writeBehind.createSession(userId, request());
+        flusherBusy.await();
+        writeBehind.createSession(userId, request());
+
+        assertSame(direct, writeBehind.createSession(userId, request()));
+        release.countDown();
+    }
+
+    @Test
+    void sessionsLeftAtShutdownAreSpooledAndReplayedOnStart() throws Exception {
+        CountDownLatch flusherBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            flusherBusy.countDown();
+            release.await();
+            throw new IllegalStateException("Database unavailable");
+        }).when(sessionService).insertPending(anyList());
+        SessionWriteBehind writeBehind = new SessionWriteBehind(sessionService, objectMapper, true, 10, 10, 10,
+                1000, tempDir.resolve("spool").toString(), 60_000);
+        writeBehind.start();
+        writeBehind.createSession(userId, request());
+        flusherBusy.await();
+        writeBehind.createSession(userId, request());
+
+        Thread shutdown = new Thread(() -> {
+            try {
+                writeBehind.shutdown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        shutdown.start();
+        // Waiting for the flusher means shutdown has begun
+        while (shutdown.getState() != Thread.State.TIMED_WAITING) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        shutdown.join();
+
+        assertEquals(2, Files.readAllLines(tempDir.resolve("spool")).size());
+        assertFalse(writeBehind.hasPending(userId));
+
+        SessionService recovered = mock(SessionService.class);
+        List<SessionWriteBehind.PendingSession> replayed = new ArrayList<>();
+        doAnswer(invocation -> replayed.addAll(invocation.getArgument(0))).when(recovered).insertPending(anyList());
+        SessionWriteBehind restarted = new SessionWriteBehind(recovered, objectMapper, true, 10, 10, 10,
+                1000, tempDir.resolve("spool").toString(), 60_000);
+        restarted.start();
+        started.add(restarted);
+
+        assertEquals(2, replayed.size());
+        assertEquals(Grade.V4, replayed.get(0).grade());
+        assertFalse(Files.exists(tempDir.resolve("spool")));
+    }
+
+    @Test
+    void rowsThatFailOnRetryAreSpooledAndWrittenOnceTheDatabaseRecovers() throws Exception {
+        List<SessionWriteBehind.PendingSession> written = new ArrayList<>();
+        AtomicBoolean recovered = new AtomicBoolean();
+        CountDownLatch retried = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            List<SessionWriteBehind.PendingSession> batch = invocation.getArgument(0);
+            if (!recovered.get()) {
+                retried.countDown();
+                throw new CannotGetJdbcConnectionException("Connection reset");
+            }
+            synchronized (written) {
+                written.addAll(batch);
+            }
+            return null;
+        }).when(sessionService).insertPending(anyList());
+        SessionWriteBehind writeBehind = new SessionWriteBehind(sessionService, objectMapper, true, 10, 10, 10,
+                5000, tempDir.resolve("spool").toString(), 50);
+        writeBehind.start();
+        started.add(writeBehind);
+
+        Session accepted = writeBehind.createSession(userId, request());
+        retried.await();
+        assertTrue(writeBehind.awaitFlushed(userId));
+        assertEquals(1, Files.readAllLines(tempDir.resolve("spool")).size());
+
+        recovered.set(true);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (Files.exists(tempDir.resolve("spool")) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(Files.exists(tempDir.resolve("spool")));
+        synchronized (written) {
+            assertEquals(List.of(accepted.getId()), written.stream().map(SessionWriteBehind.PendingSession::id).toList());
+        }
+    }
+
+    @Test
+    void replayQuarantinesRowsTheDatabaseRejects() throws Exception {
+        List<SessionWriteBehind.PendingSession> rows = List.of(pending(), pending(), pending());
+        writeSpool(rows);
+        UUID failing = rows.get(1).id();
+        List<SessionWriteBehind.PendingSession> replayed = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<SessionWriteBehind.PendingSession> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(row -> row.id().equals(failing))) {
+                throw new DataIntegrityViolationException("Check constraint violated");
+            }
+            replayed.addAll(batch);
+            return null;
+        }).when(sessionService).insertPending(anyList());
+
+        SessionWriteBehind writeBehind = start(true, 10);
+
+        assertEquals(List.of(rows.get(0).id(), rows.get(2).id()),
+                replayed.stream().map(SessionWriteBehind.PendingSession::id).toList());
+        assertFalse(Files.exists(tempDir.resolve("spool")));
+        List<String> rejected = Files.readAllLines(tempDir.resolve("spool.rejected"));
+        assertEquals(1, rejected.size());
+        assertEquals(failing, objectMapper.readValue(rejected.get(0), SessionWriteBehind.PendingSession.class).id());
+        assertFalse(writeBehind.hasPending(userId));
+    }
+
+    @Test
+    void replayMovesUnreadableLinesAsideAndReplaysTheRest() throws Exception {
+        SessionWriteBehind.PendingSession row = pending();
+        Files.write(tempDir.resolve("spool"), List.of("{\"id\":\"truncated", objectMapper.writeValueAsString(row)));
+        List<SessionWriteBehind.PendingSession> replayed = new ArrayList<>();
+        doAnswer(invocation -> replayed.addAll(invocation.getArgument(0))).when(sessionService).insertPending(anyList());
+
+        start(true, 10);
+
+        assertEquals(List.of(row), replayed);
+        assertFalse(Files.exists(tempDir.resolve("spool")));
+        assertEquals(List.of("{\"id\":\"truncated"), Files.readAllLines(tempDir.resolve("spool.rejected")));
+    }
+
+    @Test
+    void replayKeepsTheWholeSpoolWhileTheDatabaseIsDown() throws Exception {
+        List<SessionWriteBehind.PendingSession> rows = List.of(pending(), pending());
+        writeSpool(rows);
+        doAnswer(invocation -> {
+            throw new CannotGetJdbcConnectionException("Database unavailable");
+        }).when(sessionService).insertPending(anyList());
+
+        start(true, 10);
+
+        assertEquals(2, Files.readAllLines(tempDir.resolve("spool")).size());
+        assertFalse(Files.exists(tempDir.resolve("spool.rejected")));
+    }
+
+    @Test
+    void enablingWithoutAnAbsoluteSpoolFileFails() {
+        assertThrows(IllegalStateException.class, () -> new SessionWriteBehind(sessionService, objectMapper, true,
+                10, 10, 10, 1000, "", 60_000));
+        assertThrows(IllegalStateException.class, () -> new SessionWriteBehind(sessionService, objectMapper, true,
+                10, 10, 10, 1000, "session-write-behind.spool", 60_000));
+        assertFalse(new SessionWriteBehind(sessionService, objectMapper, false, 10, 10, 10, 1000, "", 60_000)
+                .isEnabled());
+    }
+
+    private SessionWriteBehind start(boolean enabled, int capacity) {
+        SessionWriteBehind writeBehind = new SessionWriteBehind(sessionService, objectMapper, enabled, capacity, 50, 10,
+                5000, tempDir.resolve("spool").toString(), 60_000);
+        writeBehind.start();
+        started.add(writeBehind);
+        return writeBehind;
+    }
+
+    private SessionWriteBehind.PendingSession pending() {
+        return new SessionWriteBehind.PendingSession(UUID.randomUUID(), userId, SessionDiscipline.BOULDER, Grade.V4,
+                LocalDate.of(2024, 6, 1), null, true);
+    }
+
+    private void writeSpool(List<SessionWriteBehind.PendingSession> rows) throws Exception {
+        List<String> lines = new ArrayList<>();
+        for (SessionWriteBehind.PendingSession row : rows) {
+            lines.add(objectMapper.writeValueAsString(row));
+        }
+        Files.write(tempDir.resolve("spool"), lines);
+    }
+
+    private static CreateSessionRequest request() {
+        CreateSessionRequest request = new CreateSessionRequest();
+        request.setDiscipline(SessionDiscipline.BOULDER);
+        request.setGrade(Grade.V4);
+        request.setDate(LocalDate.of(2024, 6, 1));
+        request.setSent(true);
+        return request;
+    }
+}
@@ -0,0 +1,68 @@
+package com.ascend.user;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserDataVersionsTest {
+
+    @Test
+    void versionsOfDroppedUsers_ShouldNeverGoBackwards() {
+        UserDataVersions versions = new UserDataVersions(2);
+        UUID user = UUID.randomUUID();
+        versions.bump(user);
+        versions.bump(user);
+        long beforeDrop = versions.current(user);
+        String tagBeforeDrop = versions.etag(user);
+
+        // Two newer users push the first one out
+        versions.bump(UUID.randomUUID());
+        versions.bump(UUID.randomUUID());
+        assertTrue(versions.current(user) >= beforeDrop);
+
+        versions.bump(user);
+        assertTrue(versions.current(user) > beforeDrop);
+        assertNotEquals(tagBeforeDrop, versions.etag(user));
+    }
+
+    @Test
+    void untrackedUsers_ShouldShareAFloorThatOnlyRises() {
+        UserDataVersions versions = new UserDataVersions(3);
+        UUID neverWritten = UUID.randomUUID();
+        List<Long> seen = new ArrayList<>();
+
+        for (int i = 0; i < 50; i++) {
+            UUID user = UUID.randomUUID();
+            for (int write = 0; write <= i % 4; write++) {
+                versions.bump(user);
+            }
+            seen.add(versions.current(neverWritten));
+        }
+
+        for (int i = 1; i < seen.size(); i++) {
+            assertTrue(seen.get(i) >= seen.get(i - 1));
+        }
+        assertTrue(seen.get(seen.size() - 1) > 0);
+    }
+
+    @Test
+    void transition_ShouldReportPreviousVersionAcrossADrop() {
+        UserDataVersions versions = new UserDataVersions(1);
+        UUID user = UUID.randomUUID();
+        versions.bump(UUID.randomUUID());
+        long before = versions.current(user);
+
+        long[] transition = new long[2];
+        versions.bump(user, (previous, current) -> {
+            transition[0] = previous;
+            transition[1] = current;
+        });
+
+        assertEquals(before, transition[0]);
+        assertEquals(versions.current(user), transition[1]);
+    }
+}
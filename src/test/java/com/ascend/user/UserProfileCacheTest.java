@@ -0,0 +1,88 @@
+package com.ascend.user;
+
+import com.ascend.auth.AuthenticatedUser;
+import com.ascend.auth.UserResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserProfileCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .email("cached@example.com")
+                .firstName("Cached")
+                .lastName("User")
+                .createdAt(LocalDateTime.of(2024, 1, 1, 12, 0))
+                .build();
+    }
+
+    @Test
+    void get_ShouldLoadOnceUntilInvalidated() {
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        UserProfileCache cache = new UserProfileCache(userRepository, 10, Duration.ofMinutes(5));
+
+        assertEquals("cached@example.com", cache.get(user.getId()).orElseThrow().getEmail());
+        assertEquals("cached@example.com", cache.get(user.getId()).orElseThrow().getEmail());
+        verify(userRepository, times(1)).findById(user.getId());
+
+        user.setEmail("changed@example.com");
+        cache.invalidate(user.getId());
+        assertEquals("changed@example.com", cache.get(user.getId()).orElseThrow().getEmail());
+        verify(userRepository, times(2)).findById(user.getId());
+    }
+
+    @Test
+    void get_AfterTtl_ShouldReload() {
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        UserProfileCache cache = new UserProfileCache(userRepository, 10, Duration.ZERO);
+
+        cache.get(user.getId());
+        cache.get(user.getId());
+        verify(userRepository, times(2)).findById(user.getId());
+    }
+
+    @Test
+    void get_ForUnknownUser_ShouldNotCacheTheMiss() {
+        UUID unknown = UUID.randomUUID();
+        when(userRepository.findById(unknown)).thenReturn(Optional.empty());
+        UserProfileCache cache = new UserProfileCache(userRepository, 10, Duration.ofMinutes(5));
+
+        assertTrue(cache.get(unknown).isEmpty());
+        assertTrue(cache.get(unknown).isEmpty());
+        verify(userRepository, times(2)).findById(unknown);
+    }
+
+    @Test
+    void get_WithProfileInToken_ShouldNotLookUpTheUser() {
+        UserProfileCache cache = new UserProfileCache(userRepository, 10, Duration.ofMinutes(5));
+        UserResponse profile = UserResponse.of(user);
+
+        AuthenticatedUser caller = new AuthenticatedUser(user.getId(), null, null, profile);
+
+        assertSame(profile, cache.get(caller).orElseThrow());
+        verify(userRepository, never()).findById(any());
+    }
+}
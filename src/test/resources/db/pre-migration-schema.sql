@@ -0,0 +1,33 @@
+-- Schema that spring.jpa.hibernate.ddl-auto=update created for PostgreSQL before Flyway managed it
+-- (generated from the entities at that point), plus a few rows to carry through the migrations.
+create table password_reset_tokens (attempts integer not null, used boolean not null, code varchar(6) not null unique, created_at timestamp(6) not null, expires_at timestamp(6) not null, id uuid not null, user_id uuid not null, primary key (id));
+create table sessions (date date not null, sent boolean not null, id uuid not null, user_id uuid not null, notes varchar(1000), discipline varchar(255) not null check (discipline in ('BOULDER','LEAD','TOP_ROPE')), grade varchar(255) not null check (grade in ('V0','V1','V2','V3','V4','V5','V6','V7','V8','V9','V10','V11','V12','V13','V14','V15','V16','V17','YDS_5_6','YDS_5_7','YDS_5_8','YDS_5_9','YDS_5_10A','YDS_5_10B','YDS_5_10C','YDS_5_10D','YDS_5_11A','YDS_5_11B','YDS_5_11C','YDS_5_11D','YDS_5_12A','YDS_5_12B','YDS_5_12C','YDS_5_12D','YDS_5_13A','YDS_5_13B','YDS_5_13C','YDS_5_13D','YDS_5_14A','YDS_5_14B','YDS_5_14C','YDS_5_14D','YDS_5_15A','YDS_5_15B','YDS_5_15C','YDS_5_15D')), primary key (id));
+create table training_exercise_templates (duration_seconds integer, order_in_session integer not null, reps integer not null, rest_seconds integer, sets integer not null, id uuid not null, session_template_id uuid not null, description TEXT, equipment varchar(255), exercise_type varchar(255) not null, instructions TEXT, name varchar(255) not null, primary key (id));
+create table training_plan_templates (is_active boolean, sessions_per_week integer not null, total_weeks integer not null, created_at timestamp(6), id uuid not null, category varchar(255) not null, description TEXT, difficulty varchar(255) not null, name varchar(255) not null, primary key (id));
+create table training_session_templates (estimated_duration_minutes integer not null, session_number integer not null, id uuid not null, week_template_id uuid not null, description TEXT, name varchar(255) not null, session_type varchar(255) not null, primary key (id));
+create table training_week_templates (week_number integer not null, id uuid not null, template_id uuid not null, description TEXT, focus varchar(255) not null, primary key (id));
+create table user_training_exercises (actual_duration_seconds integer, actual_reps integer, actual_sets integer, order_in_session integer not null, completed_at timestamp(6), exercise_template_id uuid not null, id uuid not null, user_session_id uuid not null, notes TEXT, status varchar(255) not null check (status in ('NOT_STARTED','IN_PROGRESS','COMPLETED')), primary key (id));
+create table user_training_plans (current_session integer, current_week integer, completed_at timestamp(6), last_activity_at timestamp(6), paused_at timestamp(6), started_at timestamp(6) not null, id uuid not null, template_id uuid not null, user_id uuid not null, description TEXT, name varchar(255) not null, status varchar(255) not null check (status in ('ACTIVE','PAUSED','COMPLETED','ABANDONED')), primary key (id));
+create table user_training_sessions (actual_duration_minutes integer, session_number integer not null, completed_at timestamp(6), started_at timestamp(6), id uuid not null, session_template_id uuid not null, user_week_id uuid not null, notes TEXT, status varchar(255) not null check (status in ('NOT_STARTED','IN_PROGRESS','COMPLETED')), primary key (id));
+create table user_training_weeks (week_number integer not null, completed_at timestamp(6), started_at timestamp(6), id uuid not null, user_plan_id uuid not null, week_template_id uuid not null, status varchar(255) not null check (status in ('NOT_STARTED','IN_PROGRESS','COMPLETED')), primary key (id));
+create table users (created_at timestamp(6), id uuid not null, email varchar(255) not null unique, first_name varchar(255) not null, last_name varchar(255) not null, password varchar(255) not null, primary key (id));
+alter table if exists password_reset_tokens add constraint FKk3ndxg5xp6v7wd4gjyusp15gq foreign key (user_id) references users;
+alter table if exists sessions add constraint FKruie73rneumyyd1bgo6qw8vjt foreign key (user_id) references users;
+alter table if exists training_exercise_templates add constraint FKenh8d7xk5mkskyi6g0lnkfo97 foreign key (session_template_id) references training_session_templates;
+alter table if exists training_session_templates add constraint FKovylesyhopu198chpla71cfmu foreign key (week_template_id) references training_week_templates;
+alter table if exists training_week_templates add constraint FKoa1fyt5tj2d2k7cvn5bi1l8bf foreign key (template_id) references training_plan_templates;
+alter table if exists user_training_exercises add constraint FK9m1q176ty3qwc1acrbkgqyhs foreign key (exercise_template_id) references training_exercise_templates;
+alter table if exists user_training_exercises add constraint FKixg5oqc7wgnjtg0epws3i730j foreign key (user_session_id) references user_training_sessions;
+alter table if exists user_training_plans add constraint FKn143cusqkv1a5jqlov8nax0e0 foreign key (template_id) references training_plan_templates;
+alter table if exists user_training_plans add constraint FKh2jr6yb2vf4m2xc8rh3urbfpg foreign key (user_id) references users;
+alter table if exists user_training_sessions add constraint FKtcda31w82dvvrcnjp76g7k23l foreign key (session_template_id) references training_session_templates;
+alter table if exists user_training_sessions add constraint FK6x1y7ktubrdfmi8sismbwxt36 foreign key (user_week_id) references user_training_weeks;
+alter table if exists user_training_weeks add constraint FK98c2999fcka7dm5dej7pnx4fj foreign key (user_plan_id) references user_training_plans;
+alter table if exists user_training_weeks add constraint FKp3vrgi16x6el5e0hx942a2rku foreign key (week_template_id) references training_week_templates;
+
+insert into users (id, email, password, first_name, last_name, created_at)
+values ('0190a0c0-0000-7000-8000-000000000001', 'legacy@example.com', 'x', 'Legacy', 'User', timestamp '2024-01-01 10:00:00');
+insert into sessions (id, user_id, discipline, grade, date, notes, sent)
+values ('0190a0c0-0000-7000-8000-000000000101', '0190a0c0-0000-7000-8000-000000000001', 'BOULDER', 'V5', date '2024-03-04', 'first', true);
+insert into sessions (id, user_id, discipline, grade, date, notes, sent)
+values ('0190a0c0-0000-7000-8000-000000000102', '0190a0c0-0000-7000-8000-000000000001', 'LEAD', 'YDS_5_10A', date '2024-03-05', null, false);